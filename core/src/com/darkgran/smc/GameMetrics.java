@@ -0,0 +1,308 @@
+package com.darkgran.smc;
+
+import com.badlogic.gdx.physics.box2d.World;
+import com.darkgran.smc.play.BodyAccess;
+import com.darkgran.smc.play.BodyMutations;
+import com.darkgran.smc.play.CollisionListener;
+import com.darkgran.smc.play.ColorType;
+import com.darkgran.smc.play.LevelStage;
+import com.darkgran.smc.play.PhysicsGovernor;
+import com.darkgran.smc.play.ShadowCircles;
+import com.darkgran.smc.play.events.GameEventType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class GameMetrics implements GameMetricsMBean { //written once per live step (primitives only, no allocation), read by the JMX thread
+    public static final String NAME = "com.darkgran.smc:type=GameMetrics";
+    private static final double SMOOTHING = 0.1;
+    private static final long RATE_WINDOW = 1000000000L; //merges/splits per second over 1s windows
+    private ObjectName objectName;
+    //Worlds
+    private volatile int liveBodies, liveFixtures, liveContacts, liveJoints;
+    private volatile int predictionBodies, predictionFixtures, predictionContacts, predictionJoints;
+    //Stepping
+    private volatile double stepMillis, stepMillisAverage, predictionMillis;
+    private volatile long preSolvePerStep, predictionPreSolvePerStep;
+    private volatile long steps;
+    private long stepStart, preSolveMark;
+    private long predictionStart, predictionPreSolveMark;
+    private long predictionPreSolve;
+    private double predictionNanos;
+    //Gameplay
+    private volatile double mergesPerSecond, splitsPerSecond;
+    private volatile int whiteCircles, blueCircles, greenCircles, redCircles;
+    private long windowStart = 0, mergesMark, splitsMark;
+    //JNI
+    private final long[] jniMark = new long[BodyAccess.KINDS];
+    private final long[] jniPerStep = new long[BodyAccess.KINDS]; //written as a whole by the render thread, torn reads only mix neighbouring steps
+    private volatile long combinedWritesPerStep;
+    private long recordedMark, appliedMark;
+    //Quality
+    private volatile int liveVelocityIterations, livePositionIterations, predictionVelocityIterations, predictionPositionIterations;
+    private volatile long qualityChanges;
+
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName(NAME);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName); //a previous WorldScreen
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            System.out.println("Metrics Error: " + e.getMessage());
+        }
+    }
+
+    public void unregister() {
+        try {
+            if (objectName != null && ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            System.out.println("Metrics Error: " + e.getMessage());
+        }
+    }
+
+    //Step
+    public void beginStep(CollisionListener listener) {
+        preSolveMark = listener.getPreSolveCalls();
+        stepStart = System.nanoTime();
+    }
+
+    public long endStep(CollisionListener listener) { //returns the step's nanos
+        long nanos = System.nanoTime() - stepStart;
+        stepMillis = nanos / 1e6;
+        stepMillisAverage = stepMillisAverage <= 0 ? stepMillis : stepMillisAverage + (stepMillis - stepMillisAverage) * SMOOTHING;
+        preSolvePerStep = listener.getPreSolveCalls() - preSolveMark;
+        steps++;
+        return nanos;
+    }
+
+    public void beginPrediction(ShadowCircles listener) {
+        predictionPreSolveMark = listener.getPreSolveCalls();
+        predictionStart = System.nanoTime();
+    }
+
+    public void endPrediction(ShadowCircles listener) {
+        predictionNanos += System.nanoTime() - predictionStart;
+        predictionPreSolve += listener.getPreSolveCalls() - predictionPreSolveMark;
+    }
+
+    public void update(World live, World prediction, LevelStage levelStage, BodyMutations mutations, PhysicsGovernor liveGovernor, PhysicsGovernor predictionGovernor) { //after the step and its prediction
+        liveBodies = live.getBodyCount();
+        liveFixtures = live.getFixtureCount();
+        liveContacts = live.getContactCount();
+        liveJoints = live.getJointCount();
+        if (prediction != null) {
+            predictionBodies = prediction.getBodyCount();
+            predictionFixtures = prediction.getFixtureCount();
+            predictionContacts = prediction.getContactCount();
+            predictionJoints = prediction.getJointCount();
+        }
+        predictionMillis = predictionNanos / 1e6;
+        predictionPreSolvePerStep = predictionPreSolve;
+        predictionNanos = 0;
+        predictionPreSolve = 0;
+        whiteCircles = levelStage.getCircleCount(ColorType.WHITE);
+        blueCircles = levelStage.getCircleCount(ColorType.BLUE);
+        greenCircles = levelStage.getCircleCount(ColorType.GREEN);
+        redCircles = levelStage.getCircleCount(ColorType.RED);
+        for (int kind = 0; kind < BodyAccess.KINDS; kind++) {
+            long calls = BodyAccess.getCalls(kind);
+            jniPerStep[kind] = calls - jniMark[kind];
+            jniMark[kind] = calls;
+        }
+        long recorded = mutations.getRecorded();
+        long applied = mutations.getApplied();
+        combinedWritesPerStep = (recorded - recordedMark) - (applied - appliedMark);
+        recordedMark = recorded;
+        appliedMark = applied;
+        liveVelocityIterations = liveGovernor.getVelocityIterations();
+        livePositionIterations = liveGovernor.getPositionIterations();
+        predictionVelocityIterations = predictionGovernor.getVelocityIterations();
+        predictionPositionIterations = predictionGovernor.getPositionIterations();
+        qualityChanges = liveGovernor.getLowered() + liveGovernor.getRaised() + predictionGovernor.getLowered() + predictionGovernor.getRaised();
+        long now = System.nanoTime();
+        long merges = levelStage.getEventBus().getPublished(GameEventType.MERGE);
+        long splits = levelStage.getEventBus().getPublished(GameEventType.SPLIT);
+        if (merges < mergesMark || splits < splitsMark) { //bus was cleared (level load)
+            mergesMark = merges;
+            splitsMark = splits;
+        }
+        if (windowStart == 0) {
+            windowStart = now;
+        } else if (now - windowStart >= RATE_WINDOW) {
+            double seconds = (now - windowStart) / 1e9;
+            mergesPerSecond = (merges - mergesMark) / seconds;
+            splitsPerSecond = (splits - splitsMark) / seconds;
+            mergesMark = merges;
+            splitsMark = splits;
+            windowStart = now;
+        }
+    }
+
+    //MBean
+    @Override
+    public int getLiveBodies() {
+        return liveBodies;
+    }
+
+    @Override
+    public int getLiveFixtures() {
+        return liveFixtures;
+    }
+
+    @Override
+    public int getLiveContacts() {
+        return liveContacts;
+    }
+
+    @Override
+    public int getLiveJoints() {
+        return liveJoints;
+    }
+
+    @Override
+    public int getPredictionBodies() {
+        return predictionBodies;
+    }
+
+    @Override
+    public int getPredictionFixtures() {
+        return predictionFixtures;
+    }
+
+    @Override
+    public int getPredictionContacts() {
+        return predictionContacts;
+    }
+
+    @Override
+    public int getPredictionJoints() {
+        return predictionJoints;
+    }
+
+    @Override
+    public double getStepMillis() {
+        return stepMillis;
+    }
+
+    @Override
+    public double getStepMillisAverage() {
+        return stepMillisAverage;
+    }
+
+    @Override
+    public double getPredictionMillis() {
+        return predictionMillis;
+    }
+
+    @Override
+    public long getPreSolvePerStep() {
+        return preSolvePerStep;
+    }
+
+    @Override
+    public long getPredictionPreSolvePerStep() {
+        return predictionPreSolvePerStep;
+    }
+
+    @Override
+    public long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public double getMergesPerSecond() {
+        return mergesPerSecond;
+    }
+
+    @Override
+    public double getSplitsPerSecond() {
+        return splitsPerSecond;
+    }
+
+    @Override
+    public int getWhiteCircles() {
+        return whiteCircles;
+    }
+
+    @Override
+    public int getBlueCircles() {
+        return blueCircles;
+    }
+
+    @Override
+    public int getGreenCircles() {
+        return greenCircles;
+    }
+
+    @Override
+    public int getRedCircles() {
+        return redCircles;
+    }
+
+    @Override
+    public long getJniPositionReadsPerStep() {
+        return jniPerStep[BodyAccess.POSITION];
+    }
+
+    @Override
+    public long getJniVelocityCallsPerStep() {
+        return jniPerStep[BodyAccess.VELOCITY];
+    }
+
+    @Override
+    public long getJniTransformsPerStep() {
+        return jniPerStep[BodyAccess.TRANSFORM];
+    }
+
+    @Override
+    public long getJniMassDataPerStep() {
+        return jniPerStep[BodyAccess.MASS_DATA];
+    }
+
+    @Override
+    public long getCombinedWritesPerStep() {
+        return combinedWritesPerStep;
+    }
+
+    @Override
+    public int getLiveVelocityIterations() {
+        return liveVelocityIterations;
+    }
+
+    @Override
+    public int getLivePositionIterations() {
+        return livePositionIterations;
+    }
+
+    @Override
+    public int getPredictionVelocityIterations() {
+        return predictionVelocityIterations;
+    }
+
+    @Override
+    public int getPredictionPositionIterations() {
+        return predictionPositionIterations;
+    }
+
+    @Override
+    public long getQualityChanges() {
+        return qualityChanges;
+    }
+
+    @Override
+    public long getJniCallsPerStep() {
+        long total = 0;
+        for (long calls : jniPerStep) {
+            total += calls;
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.darkgran.smc;
+
+public interface GameMetricsMBean { //read by JMX clients (jconsole, VisualVM), see GameMetrics
+    //Worlds
+    int getLiveBodies();
+    int getLiveFixtures();
+    int getLiveContacts();
+    int getLiveJoints();
+    int getPredictionBodies();
+    int getPredictionFixtures();
+    int getPredictionContacts();
+    int getPredictionJoints();
+    //Stepping
+    double getStepMillis();
+    double getStepMillisAverage();
+    double getPredictionMillis();
+    long getPreSolvePerStep();
+    long getPredictionPreSolvePerStep();
+    long getSteps();
+    //Gameplay
+    double getMergesPerSecond();
+    double getSplitsPerSecond();
+    int getWhiteCircles();
+    int getBlueCircles();
+    int getGreenCircles();
+    int getRedCircles();
+    //JNI (BodyAccess)
+    long getJniPositionReadsPerStep();
+    long getJniVelocityCallsPerStep();
+    long getJniTransformsPerStep();
+    long getJniMassDataPerStep();
+    long getJniCallsPerStep();
+    long getCombinedWritesPerStep(); //body writes dropped by BodyMutations
+    //Quality (PhysicsGovernor)
+    int getLiveVelocityIterations();
+    int getLivePositionIterations();
+    int getPredictionVelocityIterations();
+    int getPredictionPositionIterations();
+    long getQualityChanges();
+}
@@ -16,6 +16,8 @@ public class IntroScreen implements Screen {
     private final OrthographicCamera camera;
     private final Viewport viewport;
     private final Texture logo;
+    private final WorldAssets worldAssets = new WorldAssets();
+    private WorldScreen worldScreen;
     private boolean active = false;
     private float alpha = 0;
     private boolean fadeDirection = true; //true in, false out
@@ -30,16 +32,28 @@ public class IntroScreen implements Screen {
         viewport.apply();
         camera.position.set((float) SaveMeCircles.SW /2,(float) SaveMeCircles.SH /2,0);
         //Gdx.input.setCursorCatched(true);
-        logo = new Texture("images/DGLogo.jpg");
+        logo = NativeTracker.track(new Texture("images/DGLogo.jpg"), NativeTracker.Kind.TEXTURE);
+        worldAssets.startLoading();
         delayAction(this::activate, 0.5f);
     }
 
     private void activate() { active = true; }
 
     private void endIntro() {
+        if (game.getScreen() != this) { return; }
+        if (worldScreen == null) { //intro skipped before preloading finished
+            worldAssets.finishLoading();
+            worldScreen = new WorldScreen(game, worldAssets);
+        }
         Gdx.input.setInputProcessor(game.getInputMultiplexer());
         this.dispose();
-        game.setScreen(new WorldScreen(game));
+        game.setScreen(worldScreen);
+    }
+
+    private void preloadWorld() {
+        if (worldScreen == null && worldAssets.update()) {
+            worldScreen = new WorldScreen(game, worldAssets);
+        }
     }
 
     private void updateAlpha(float delta) {
@@ -57,8 +71,11 @@ public class IntroScreen implements Screen {
         //control
         if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
             endIntro();
+            return;
         }
 
+        preloadWorld();
+
         //INTRO ANIMATION
 
         if (active) {
@@ -100,7 +117,7 @@ public class IntroScreen implements Screen {
 
     @Override
     public void dispose() {
-        logo.dispose();
+        NativeTracker.dispose(logo, NativeTracker.Kind.TEXTURE);
     }
 
     @Override
@@ -0,0 +1,175 @@
+package com.darkgran.smc;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NativeTracker { //counts live native objects (Box2D, GL); -Dsmc.trackNatives=true also records creation sites, -Dsmc.strictNatives=true turns leaks into exceptions
+    public enum Kind { WORLD, BODY, FIXTURE, SHAPE, TEXTURE, FONT, RENDERER, CACHE }
+    private static final boolean SITES = Boolean.getBoolean("smc.trackNatives");
+    private static final boolean STRICT = Boolean.getBoolean("smc.strictNatives");
+    private static final LongAdder[] live = new LongAdder[Kind.values().length]; //VectorEnv workers create & destroy bodies concurrently: no lock on that path
+    private static final Map<Object, String> sites = new IdentityHashMap<>(); //guarded by itself, only used with SITES
+    private static final Map<String, int[]> checkpoints = new HashMap<>();
+
+    static {
+        for (int i = 0; i < live.length; i++) {
+            live[i] = new LongAdder();
+        }
+    }
+
+    //Box2D
+    public static World newWorld(Vector2 gravity, boolean doSleep) {
+        return track(new World(gravity, doSleep), Kind.WORLD);
+    }
+
+    public static void dispose(World world) {
+        if (world == null) { return; }
+        Array<Body> bodies = new Array<>(world.getBodyCount()); //local: worlds are disposed from several threads
+        world.getBodies(bodies);
+        for (Body body : bodies) {
+            releaseBody(body);
+        }
+        release(world, Kind.WORLD);
+        world.dispose();
+    }
+
+    public static Body createBody(World world, BodyDef bodyDef) {
+        return track(world.createBody(bodyDef), Kind.BODY);
+    }
+
+    public static Fixture createFixture(Body body, FixtureDef fixtureDef) {
+        return track(body.createFixture(fixtureDef), Kind.FIXTURE);
+    }
+
+    public static void destroyBody(Body body) {
+        releaseBody(body);
+        body.getWorld().destroyBody(body);
+    }
+
+    private static void releaseBody(Body body) {
+        for (Fixture fixture : body.getFixtureList()) {
+            release(fixture, Kind.FIXTURE);
+        }
+        release(body, Kind.BODY);
+    }
+
+    public static <T extends Shape> T newShape(T shape) {
+        return track(shape, Kind.SHAPE);
+    }
+
+    public static void dispose(Shape shape) { //Shape isn't a Disposable
+        release(shape, Kind.SHAPE);
+        shape.dispose();
+    }
+
+    //GL
+    public static void dispose(Disposable disposable, Kind kind) {
+        if (disposable == null) { return; }
+        release(disposable, kind);
+        disposable.dispose();
+    }
+
+    //Counting
+    public static <T> T track(T object, Kind kind) {
+        live[kind.ordinal()].increment();
+        if (SITES) {
+            String site = kind + " " + creationSite();
+            synchronized (sites) {
+                sites.put(object, site);
+            }
+        }
+        return object;
+    }
+
+    public static void release(Object object, Kind kind) {
+        live[kind.ordinal()].decrement();
+        if (SITES) {
+            synchronized (sites) {
+                sites.remove(object);
+            }
+        }
+    }
+
+    private static String creationSite() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!element.getClassName().equals(NativeTracker.class.getName())) {
+                return element.getClassName().substring(element.getClassName().lastIndexOf('.')+1) + "." + element.getMethodName() + ":" + element.getLineNumber();
+            }
+        }
+        return "unknown";
+    }
+
+    public static int getLive(Kind kind) {
+        return (int) live[kind.ordinal()].sum();
+    }
+
+    private static int[] counts() {
+        int[] counts = new int[live.length];
+        for (int i = 0; i < live.length; i++) {
+            counts[i] = (int) live[i].sum();
+        }
+        return counts;
+    }
+
+    public static synchronized void checkpoint(String key) { //same key = same scene, so anything still growing is a leak
+        int[] previous = checkpoints.get(key);
+        int[] current = counts();
+        checkpoints.put(key, current);
+        if (previous == null) { return; }
+        StringBuilder grown = new StringBuilder();
+        for (Kind kind : Kind.values()) {
+            int delta = current[kind.ordinal()] - previous[kind.ordinal()];
+            if (delta > 0) {
+                grown.append(' ').append(kind).append(" +").append(delta);
+            }
+        }
+        if (grown.length() > 0) {
+            String message = "Native Leak at " + key + ":" + grown + (SITES ? "\n" + describeSites() : " (run with -Dsmc.trackNatives=true for creation sites)");
+            System.out.println(message);
+            if (STRICT) {
+                throw new IllegalStateException(message);
+            }
+        }
+    }
+
+    public static synchronized String report() {
+        StringBuilder report = new StringBuilder("Natives:");
+        for (Kind kind : Kind.values()) {
+            report.append(' ').append(kind).append('=').append(live[kind.ordinal()].sum());
+        }
+        return report.toString();
+    }
+
+    public static synchronized void reportShutdown() { //everything should be gone by now
+        boolean clean = true;
+        for (int count : counts()) {
+            if (count != 0) { clean = false; }
+        }
+        if (!clean) {
+            System.out.println("Native Leak at shutdown: " + report() + (SITES ? "\n" + describeSites() : ""));
+        }
+    }
+
+    private static String describeSites() {
+        Map<String, Integer> bySite = new TreeMap<>();
+        synchronized (sites) {
+            for (String site : sites.values()) {
+                bySite.merge(site, 1, Integer::sum);
+            }
+        }
+        StringBuilder description = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : bySite.entrySet()) {
+            description.append("  ").append(entry.getValue()).append("x ").append(entry.getKey()).append('\n');
+        }
+        return description.toString();
+    }
+
+}
@@ -12,7 +12,7 @@ public class SaveMeCircles extends Game {
 
 	@Override
 	public void create () {
-		batch = new SpriteBatch();
+		batch = NativeTracker.track(new SpriteBatch(), NativeTracker.Kind.RENDERER);
 		this.setScreen(new IntroScreen(this));
 	}
 
@@ -23,7 +23,11 @@ public class SaveMeCircles extends Game {
 	
 	@Override
 	public void dispose () {
-		batch.dispose();
+		if (getScreen() != null) {
+			getScreen().dispose();
+		}
+		NativeTracker.dispose(batch, NativeTracker.Kind.RENDERER);
+		NativeTracker.reportShutdown();
 	}
 
 	public InputMultiplexer getInputMultiplexer() {
@@ -0,0 +1,108 @@
+package com.darkgran.smc;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.darkgran.smc.play.LevelLibrary;
+import com.darkgran.smc.play.LevelStage;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.darkgran.smc.play.LevelStage.LEVEL_LIBRARY;
+
+public class WorldAssets { //loaded while the intro plays (textures via AssetManager, natives + levels on a worker thread)
+    public static final String FONT = "fonts/bahnschrift.fnt"; //in-future: move to atlas
+    public static final String CONTINUE = "images/continue.png";
+    public static final String WALL = "images/wall.png";
+    public static final String WALL_W = "images/wallW.png";
+    public static final String WALL_B = "images/wallB.png";
+    public static final String WALL_G = "images/wallG.png";
+    public static final String MEDIUM_WALL = "images/mediumWall.png";
+    public static final String MEDIUM_WALL_W = "images/mediumWallW.png";
+    public static final String MEDIUM_WALL_B = "images/mediumWallB.png";
+    public static final String MEDIUM_WALL_G = "images/mediumWallG.png";
+    public static final String BIG_WALL = "images/bigWall.png";
+    public static final String BIG_WALL_W = "images/bigWallW.png";
+    public static final String BIG_WALL_B = "images/bigWallB.png";
+    public static final String BIG_WALL_G = "images/bigWallG.png";
+    public static final String TRIANGLE = "images/triangle.png";
+    public static final String SWITCH_OVER = "images/switch_over.png";
+    public static final String PLAYER_CIRCLE = "images/circle.png";
+    private static final String[] TEXTURES = {CONTINUE, WALL, WALL_W, WALL_B, WALL_G, MEDIUM_WALL, MEDIUM_WALL_W, MEDIUM_WALL_B, MEDIUM_WALL_G, BIG_WALL, BIG_WALL_W, BIG_WALL_B, BIG_WALL_G, TRIANGLE, SWITCH_OVER, PLAYER_CIRCLE};
+
+    private final AssetManager manager = new AssetManager();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "WorldAssets");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> preparation;
+    private boolean tracked = false;
+
+    public void startLoading() {
+        for (String texture : TEXTURES) {
+            manager.load(texture, Texture.class);
+        }
+        manager.load(FONT, BitmapFont.class);
+        preparation = worker.submit(() -> {
+            Box2D.init();
+            LEVEL_LIBRARY.setLevels(LevelLibrary.parse(Gdx.files.internal(LevelStage.LEVELS_PATH).readString("UTF-8")));
+        });
+        worker.shutdown();
+    }
+
+    public boolean update() { //true once everything is ready
+        if (manager.update() && preparation.isDone()) {
+            trackLoaded();
+            return true;
+        }
+        return false;
+    }
+
+    public void finishLoading() {
+        manager.finishLoading();
+        try {
+            preparation.get();
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("Preloading Error: " + e.getMessage());
+        }
+        trackLoaded();
+    }
+
+    private void trackLoaded() {
+        if (!tracked) {
+            tracked = true;
+            for (String texture : TEXTURES) {
+                NativeTracker.track(getTexture(texture), NativeTracker.Kind.TEXTURE);
+            }
+            NativeTracker.track(getFont(), NativeTracker.Kind.FONT);
+        }
+    }
+
+    public float getProgress() {
+        return (manager.getProgress() + (preparation.isDone() ? 1 : 0)) / 2;
+    }
+
+    public Texture getTexture(String path) {
+        return manager.get(path, Texture.class);
+    }
+
+    public BitmapFont getFont() {
+        return manager.get(FONT, BitmapFont.class);
+    }
+
+    public void dispose() {
+        if (tracked) {
+            for (String texture : TEXTURES) {
+                NativeTracker.release(getTexture(texture), NativeTracker.Kind.TEXTURE);
+            }
+            NativeTracker.release(getFont(), NativeTracker.Kind.FONT);
+        }
+        manager.dispose();
+    }
+}
@@ -6,7 +6,6 @@ import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
@@ -14,7 +13,6 @@ import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.ImageButton;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
@@ -22,7 +20,7 @@ import com.badlogic.gdx.utils.viewport.ExtendViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.darkgran.smc.play.*;
 
-import java.util.ArrayList;
+import java.lang.management.ManagementFactory;
 
 import static com.darkgran.smc.play.LevelStage.LEVEL_LIBRARY;
 
@@ -30,8 +28,6 @@ public class WorldScreen implements Screen {
     public final static double DEGREES_TO_RADIANS = Math.PI/180;
     //WorldSettings
     private float FPS = 60.0f;
-    final int VELOCITY_ITERATIONS = 15;
-    final int POSITION_ITERATIONS = 12;
     public float STEP_TIME = 1f / FPS;
     public static final float WORLD_WIDTH = 9.6f;
     public static final float WORLD_HEIGHT = 4.8f;
@@ -45,14 +41,20 @@ public class WorldScreen implements Screen {
     private final ShapeRenderer shapeRenderer;
     private final OrthographicCamera camera;
     private final Viewport viewport;
+    private final Matrix4 spriteProjection = new Matrix4();
     private World world;
-    private World worldSimulation;
     private SimulationManager simulationManager;
     private float worldTimer = 0;
     private LevelStage levelStage;
     private Stage UIStage;
     private final CollisionListener collisionListener;
-    private ArrayList corpses = new ArrayList();
+    private final DestructionQueue<CircleActor> corpses = new DestructionQueue<>();
+    private final BodyMutations mutations = new BodyMutations();
+    private final BodyReadback readback = new BodyReadback();
+    private final RewindBuffer rewindBuffer = new RewindBuffer(Integer.getInteger("smc.rewindBytes", RewindBuffer.DEFAULT_BYTES));
+    private final RewindFrame rewindFrame = new RewindFrame();
+    private final GameMetrics metrics = new GameMetrics();
+    private final PhysicsGovernor liveGovernor = new PhysicsGovernor(Float.parseFloat(System.getProperty("smc.stepBudgetMs", "3")), Integer.getInteger("smc.liveMinRung", 0)); //floor: full quality until QualityHarness has measured a lower rung that is merge/split-equal on every level
     private boolean reload = false;
     private int currentLevelID = 0;
 
@@ -73,16 +75,10 @@ public class WorldScreen implements Screen {
             if (levelStage != null) {
                 switch (keycode) {
                     case Input.Keys.LEFT:
-                        if (LEVEL_LIBRARY.levelExists(currentLevelID-1)) {
-                            reload = true;
-                            currentLevelID -= 1;
-                        }
+                        requestLevel(currentLevelID-1);
                         break;
                     case Input.Keys.RIGHT:
-                        if (LEVEL_LIBRARY.levelExists(currentLevelID+1)) {
-                            reload = true;
-                            currentLevelID += 1;
-                        }
+                        requestLevel(currentLevelID+1);
                         break;
                     case Input.Keys.R:
                         reload = true;
@@ -93,39 +89,39 @@ public class WorldScreen implements Screen {
         }
     };
 
-    private final BitmapFont font = new BitmapFont(Gdx.files.internal("fonts/bahnschrift.fnt")); //in-future: move to atlas
-    private final Texture continueTexture = new Texture("images/continue.png");
-    private final ImageButton continueButton = new ImageButton(new TextureRegionDrawable(new TextureRegion(continueTexture)));
+    private final WorldAssets assets;
+    private final BitmapFont font;
+    private final ImageButton continueButton;
+    private long firstInteractiveFrameMillis = -1; //since process start
 
-    public WorldScreen(final SaveMeCircles smc) {
+    public WorldScreen(final SaveMeCircles smc, final WorldAssets assets) {
         this.smc = smc;
-        Gdx.input.setInputProcessor(smc.getInputMultiplexer());
+        this.assets = assets;
+        font = assets.getFont();
+        continueButton = new ImageButton(new TextureRegionDrawable(new TextureRegion(assets.getTexture(WorldAssets.CONTINUE))));
         camera = new OrthographicCamera();
         camera.setToOrtho(false, WORLD_WIDTH, WORLD_HEIGHT);
         viewport = new ExtendViewport(WORLD_WIDTH, WORLD_HEIGHT, camera);
         viewport.apply();
         camera.position.set(WORLD_WIDTH/2, WORLD_HEIGHT/2,0);
-        shapeRenderer = new ShapeRenderer();
+        shapeRenderer = NativeTracker.track(new ShapeRenderer(), NativeTracker.Kind.RENDERER);
         Box2D.init();
-        debugRenderer = new Box2DDebugRenderer();
+        debugRenderer = NativeTracker.track(new Box2DDebugRenderer(), NativeTracker.Kind.RENDERER);
         World.setVelocityThreshold(0.1f);
-        world = new World(new Vector2(0, 0), false);
+        world = NativeTracker.newWorld(new Vector2(0, 0), false);
         setupUIStage();
         levelStage = new LevelStage(this, UIStage, viewport);
-        smc.getInputMultiplexer().addProcessor(UIStage);
-        smc.getInputMultiplexer().addProcessor(levelStage);
-        smc.getInputMultiplexer().addProcessor(generalInputProcessor);
         collisionListener = new CollisionListener(levelStage);
         world.setContactListener(collisionListener);
         levelStage.loadLevel(currentLevelID);
-        Gdx.input.setCursorCatched(false);
-        worldSimulation = new World(new Vector2(0, 0), false);
-        simulationManager = new SimulationManager(this, worldSimulation, VELOCITY_ITERATIONS, POSITION_ITERATIONS, STEP_TIME);
-        simulationManager.resetSimulation(collisionListener, world);
+        simulationManager = new SimulationManager(this, NativeTracker.newWorld(new Vector2(0, 0), false), new PhysicsGovernor(0, Integer.getInteger("smc.predictionMinRung", 0)), STEP_TIME); //budget follows the prediction budget; floor: full quality like the live world until QualityHarness has measured a lower rung
+        simulationManager.setBudgetMillis(Float.parseFloat(System.getProperty("smc.predictionBudgetMs", String.valueOf(SimulationManager.DEFAULT_BUDGET_MILLIS))));
+        simulationManager.resetSimulation(world);
+        metrics.register();
     }
 
     private void setupUIStage() {
-        UIStage = new Stage(new ExtendViewport(SaveMeCircles.SW, SaveMeCircles.SH));
+        UIStage = NativeTracker.track(new Stage(new ExtendViewport(SaveMeCircles.SW, SaveMeCircles.SH)), NativeTracker.Kind.RENDERER);
         continueButton.setPosition(Math.round(SaveMeCircles.SW/2-continueButton.getWidth()/2), Math.round(SaveMeCircles.SW/15-continueButton.getHeight()/2));
     }
 
@@ -145,90 +141,154 @@ public class WorldScreen implements Screen {
         Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
         Gdx.gl.glEnable(GL20.GL_BLEND);
 
-        if (!reload) {
+        if (reload) { //before drawing, so a warm (standby) level is on screen this very frame
+            reload = false;
+            if (currentLevelID != levelStage.getCurrentLevel() || !levelStage.restartLevel()) {
+                levelStage.switchLevel(currentLevelID);
+            }
+            if (!levelStage.isLoading()) {
+                levelReady();
+            }
+        }
 
-            if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
-                refreshMouse();
+        if (levelStage.isLoading()) { //gameplay starts once the level is fully built
+            if (levelStage.continueLoading()) {
+                levelReady();
+            } else {
+                drawLoading();
+                return;
             }
+        }
 
-            camera.update();
+        if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
+            refreshMouse();
+        }
 
-            shapeRenderer.setProjectionMatrix(camera.combined);
-            levelStage.drawShapes(shapeRenderer);
+        camera.update();
+
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        levelStage.drawShapes(shapeRenderer);
 
-            smc.batch.setProjectionMatrix((new Matrix4(camera.combined)).scale(WorldScreen.getMMP(), WorldScreen.getMMP(), 1));
+        spriteProjection.set(camera.combined).scale(WorldScreen.getMMP(), WorldScreen.getMMP(), 1);
+        levelStage.drawStaticLayer(spriteProjection);
+        smc.batch.setProjectionMatrix(spriteProjection);
 
-            smc.batch.begin();
-            smc.batch.setColor(1, 1, 1, 1f);
-            levelStage.drawSprites(smc.batch);
-            smc.batch.end();
+        smc.batch.begin();
+        smc.batch.setColor(1, 1, 1, 1f);
+        levelStage.drawSprites(smc.batch);
+        smc.batch.end();
 
-            Gdx.gl.glDisable(GL20.GL_BLEND);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
 
+        if (UIStage.getActors().size > 0) { //only the continue button lives there
             UIStage.act(delta);
             UIStage.draw();
-            levelStage.act(delta);
-            levelStage.draw();
-            levelStage.getGhostCircle().updateBody();
+        }
+        levelStage.act(delta);
+        levelStage.draw();
+        levelStage.getGhostCircle().updateBody();
 
-            //drawBox2DDebug(this.world);
+        //drawBox2DDebug(this.world);
 
-            levelStage.tickTock();
-            timeWorld(delta);
+        levelStage.tickTock();
+        timeWorld(delta);
+        levelStage.buildStandby(); //neighbours, in what's left of the frame
 
-        } else {
-            reload = false;
-            levelStage.switchLevel(currentLevelID);
+        if (firstInteractiveFrameMillis < 0) {
+            firstInteractiveFrameMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            System.out.println("First interactive frame: " + firstInteractiveFrameMillis + " ms after launch");
         }
     }
 
+    public void requestLevel(int levelID) { //LEFT/RIGHT & Continue: handled at the start of the next render
+        if (LEVEL_LIBRARY.levelExists(levelID)) {
+            reload = true;
+            currentLevelID = levelID;
+        }
+    }
+
+    public void swapWorld(World world) { //LevelStage switched to a standby level
+        world.setContactListener(collisionListener);
+        this.world = world;
+    }
+
+    private void levelReady() {
+        mutations.flush(); //restored radii, before the copy
+        readback.capture(levelStage.getBodyEntities());
+        simulationManager.resetSimulation(world); //so the preview copy matches the fresh level
+        liveGovernor.reset();
+        simulationManager.getGovernor().reset();
+        NativeTracker.checkpoint("level " + levelStage.getCurrentLevel());
+    }
+
+    private void drawLoading() {
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.3f, 0.3f, 0.3f, 1f);
+        shapeRenderer.rect(WORLD_WIDTH/3, WORLD_HEIGHT/2-0.02f, WORLD_WIDTH/3, 0.04f);
+        shapeRenderer.setColor(1f, 1f, 1f, 1f);
+        shapeRenderer.rect(WORLD_WIDTH/3, WORLD_HEIGHT/2-0.02f, WORLD_WIDTH/3*levelStage.getLoadingProgress(), 0.04f);
+        shapeRenderer.end();
+    }
+
     public void timeWorld(float delta) {
         worldTimer += Math.min(delta, 0.25f);
         if (worldTimer >= STEP_TIME) {
             worldTimer -= STEP_TIME;
-            levelStage.update();
-            reapWorld();
-            world.step(STEP_TIME, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+            if (Gdx.input.isKeyPressed(Input.Keys.Z) && rewindBuffer.rewind(1, rewindFrame)) { //hold Z to scrub back
+                levelStage.applyFrame(rewindFrame);
+                readback.capture(levelStage.getBodyEntities());
+            } else {
+                levelStage.update();
+                mutations.beginStep(); //the step's body writes, combined
+                metrics.beginStep(collisionListener);
+                world.step(STEP_TIME, liveGovernor.getVelocityIterations(), liveGovernor.getPositionIterations());
+                liveGovernor.sample(metrics.endStep(collisionListener), world.getContactCount());
+                mutations.endStep();
+                corpses.flush(this::reap); //never destroy bodies mid-step
+                readback.capture(levelStage.getBodyEntities()); //everything below reads these
+                levelStage.getEventBus().drain(); //merges/splits were published from preSolve
+                levelStage.captureFrame(rewindFrame);
+                rewindBuffer.record(rewindFrame);
+            }
             if ((levelStage.getPlayerCircle() != null || levelStage.getGhostCircle().getGhostTimer() > 0) && !levelStage.isCompleted()) {
-                simulationManager.drawSimulation(shapeRenderer, collisionListener, world, levelStage.getPlayerCircle() == null, debugRenderer, camera);
+                metrics.beginPrediction(simulationManager.getShadows());
+                simulationManager.drawSimulation(shapeRenderer, world, levelStage.getPlayerCircle() == null, debugRenderer, camera);
+                metrics.endPrediction(simulationManager.getShadows());
             }
+            metrics.update(world, simulationManager.getWorld(), levelStage, mutations, liveGovernor, simulationManager.getGovernor());
         }
     }
 
-    private void reapWorld() {
-        for (int i = 0; i < corpses.size(); i++) {
-            if (corpses.get(i) != null) {
-                Object corpse = corpses.get(i);
-                if (corpse instanceof Actor) {
-                    Actor actor = (Actor) corpse;
-                    if (actor.getListeners().size > 0) {
-                        actor.removeListener(actor.getListeners().get(0));
-                    }
-                    actor.remove();
-                }
-                if (corpse instanceof CircleActor) {
-                    CircleActor ca = (CircleActor) corpse;
-                    if (ca.getCircleBody() != null) {
-                        destroyBody(ca.getCircleBody().getBody());
-                    }
-                    ca.setCircleBody(null);
-                }
-                if (corpse instanceof ColoredCircle) {
-                    ColoredCircle circle = (ColoredCircle) corpse;
-                    levelStage.removeCircle(circle);
-                    if (circle == levelStage.getLastTouch()) {
-                        levelStage.setLastTouch(null);
-                    }
-                } else if (corpse instanceof PlayerCircle) {
-                    levelStage.setPlayerCircle(null);
-                }
-                corpses.remove(corpse);
+    private void reap(CircleActor corpse) { //each handle is reaped at most once
+        boolean park = corpse instanceof ColoredCircle && levelStage.isLevelCircle((ColoredCircle) corpse); //kept (inactive) for an instant restart
+        if (!park && corpse.getListeners().size > 0) {
+            corpse.removeListener(corpse.getListeners().get(0));
+        }
+        corpse.remove();
+        if (park) {
+            levelStage.parkCircle((ColoredCircle) corpse);
+        } else {
+            destroyBody(corpse.getCircleBody().getBody());
+            corpse.setCircleBody(null);
+            levelStage.getEngine().removeEntity(corpse.getEntity());
+        }
+        if (corpse instanceof ColoredCircle) {
+            ColoredCircle circle = (ColoredCircle) corpse;
+            levelStage.removeCircle(circle);
+            if (circle == levelStage.getLastTouch()) {
+                levelStage.setLastTouch(null);
             }
+        } else if (corpse instanceof PlayerCircle) {
+            levelStage.setPlayerCircle(null);
         }
     }
 
     public void destroyBody(Body body) {
-        world.destroyBody(body);
+        mutations.forget(body);
+        readback.forget(body);
+        collisionListener.getContactIndex().forget(body);
+        NativeTracker.destroyBody(body);
     }
 
     private void drawBox2DDebug(World world) {
@@ -246,18 +306,37 @@ public class WorldScreen implements Screen {
 
     @Override
     public void dispose() {
+        metrics.unregister();
         levelStage.dispose();
-        world.dispose();
-        debugRenderer.dispose();
-        continueTexture.dispose();
+        simulationManager.dispose();
+        NativeTracker.dispose(world);
+        NativeTracker.dispose(debugRenderer, NativeTracker.Kind.RENDERER);
+        NativeTracker.dispose(shapeRenderer, NativeTracker.Kind.RENDERER);
+        NativeTracker.dispose(UIStage, NativeTracker.Kind.RENDERER);
+        assets.dispose(); //textures and the font
+        System.out.println(NativeTracker.report());
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
     }
 
     public World getWorld() {
         return world;
     }
 
+    public ContactIndex getContactIndex() {
+        return collisionListener.getContactIndex();
+    }
+
     @Override
-    public void show() { }
+    public void show() {
+        Gdx.input.setInputProcessor(smc.getInputMultiplexer());
+        smc.getInputMultiplexer().addProcessor(UIStage);
+        smc.getInputMultiplexer().addProcessor(levelStage);
+        smc.getInputMultiplexer().addProcessor(generalInputProcessor);
+        Gdx.input.setCursorCatched(false);
+    }
 
     @Override
     public void pause() { }
@@ -272,14 +351,34 @@ public class WorldScreen implements Screen {
         return smc;
     }
 
-    public ArrayList getCorpses() {
+    public RewindBuffer getRewindBuffer() {
+        return rewindBuffer;
+    }
+
+    public DestructionQueue<CircleActor> getCorpses() {
         return corpses;
     }
 
+    public BodyMutations getMutations() {
+        return mutations;
+    }
+
+    public BodyReadback getReadback() {
+        return readback;
+    }
+
     public BitmapFont getFont() {
         return font;
     }
 
+    public WorldAssets getAssets() {
+        return assets;
+    }
+
+    public long getFirstInteractiveFrameMillis() {
+        return firstInteractiveFrameMillis;
+    }
+
     public ImageButton getContinueButton() { return continueButton; }
 
     public int getCurrentLevelID() {
@@ -298,6 +397,10 @@ public class WorldScreen implements Screen {
         return STEP_TIME;
     }
 
+    public SimulationManager getSimulationManager() {
+        return simulationManager;
+    }
+
     public LevelStage getLevelStage() {
         return levelStage;
     }
@@ -0,0 +1,577 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.darkgran.smc.WorldScreen;
+
+public class AnalyticPredictor { //event-driven prediction: circles fly straight at constant speed between exact impacts (circle, chain edge, static circle, screen wrap), so it jumps from event to event instead of stepping Box2D; hands over to Box2D at merges, breaks, resting contacts and rotating obstacles
+    public static final int DEFAULT_HORIZON = 600; //steps (10s at 60Hz), the Box2D budget horizon is 180 at most
+    private static final int NONE = 0, CIRCLE = 1, EDGE = 2, STATIC = 3, WRAP_X = 4, WRAP_Y = 5, HANDOVER = 6;
+    private static final double EPSILON = 1e-9; //s, an event this close to the last one is the same contact
+    private static final double SLOP = 0.005; //Box2D's linear slop: closer than this at the start is a contact, not free flight
+    private static final double SKIN = 0.01; //Box2D's polygon radius around chain edges
+    private static final double VELOCITY_THRESHOLD = 0.1; //WorldScreen's World.setVelocityThreshold: slower impacts don't bounce
+    private static final int MAX_EVENTS = 20000; //per prediction, then Box2D takes the rest
+    private final float stepTime;
+    private final Array<Body> scratch = new Array<>();
+    private final Vector2 vertex = new Vector2();
+    private final Vector2 previous = new Vector2();
+    private final Vector2 first = new Vector2();
+    private final double[] contact = new double[2]; //closestOnEdge's result
+    private ShadowCircles shadows;
+    private double now;
+    //Circles (row = shadow index)
+    private int count;
+    private Body[] bodies = new Body[0];
+    private boolean[] loaded = new boolean[0];
+    private boolean[] solid = new boolean[0]; //non-sensor: collides
+    private double[] x = new double[0]; //position at t0
+    private double[] y = new double[0];
+    private double[] t0 = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] radius = new double[0];
+    private double[] mass = new double[0]; //density*area, as Box2D has it
+    private double[] speed = new double[0];
+    private ColorType[] color = new ColorType[0];
+    //Next event per circle, in an indexed min-heap (the priority queue)
+    private double[] nextTime = new double[0];
+    private int[] nextType = new int[0];
+    private int[] nextPartner = new int[0];
+    private int[] heap = new int[0];
+    private int[] heapPos = new int[0];
+    private int heapSize;
+    //Obstacles
+    private final FloatArray edges = new FloatArray(); //x1, y1, x2, y2
+    private final Array<Object> edgeOwner = new Array<>(); //the obstacle's userData: open (beams) & soft (walls) as the shadows' Obstacles say
+    private final FloatArray statics = new FloatArray(); //x, y, radius (player & ghost circles)
+    private final FloatArray zones = new FloatArray(); //x, y, radius around rotating bodies: Box2D only
+    //Output
+    private final FloatArray samples = new FloatArray(); //step, shadow index, x, y
+    private long events;
+
+    public AnalyticPredictor(float stepTime) {
+        this.stepTime = stepTime;
+    }
+
+    public boolean load(World world, ShadowCircles shadows) { //false when the state isn't free flight (growth, locks, contacts): Box2D from the start
+        this.shadows = shadows;
+        now = 0;
+        edges.clear();
+        edgeOwner.clear();
+        statics.clear();
+        zones.clear();
+        samples.clear();
+        ensureCapacity(shadows.getCount());
+        count = shadows.getCount();
+        for (int i = 0; i < count; i++) {
+            loaded[i] = false;
+        }
+        scratch.clear();
+        world.getBodies(scratch);
+        boolean free = true;
+        for (int b = 0; b < scratch.size && free; b++) {
+            Body body = scratch.get(b);
+            Object userData = body.getUserData();
+            if (body.getFixtureList().size == 0) { continue; }
+            Fixture fixture = body.getFixtureList().get(0);
+            if (userData instanceof ShadowCircles.Shadow) {
+                free = loadCircle(((ShadowCircles.Shadow) userData).index, body, fixture);
+            } else if (!fixture.isSensor()) {
+                free = loadObstacle(body, fixture, userData);
+            }
+        }
+        scratch.clear();
+        if (!free) { return false; }
+        for (int i = 0; i < count; i++) {
+            if (!loaded[i] || !solid[i]) { continue; }
+            if (touchesAnything(i)) { return false; }
+        }
+        heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            if (!loaded[i]) { continue; }
+            predict(i);
+            heapPos[i] = heapSize;
+            heap[heapSize++] = i;
+            siftUp(heapPos[i]);
+        }
+        return true;
+    }
+
+    private boolean loadCircle(int i, Body body, Fixture fixture) {
+        loaded[i] = true;
+        bodies[i] = body;
+        solid[i] = !fixture.isSensor();
+        if (solid[i] && !shadows.isFree(i)) { return false; }
+        Vector2 position = BodyAccess.getPosition(body);
+        Vector2 velocity = BodyAccess.getLinearVelocity(body);
+        x[i] = position.x;
+        y[i] = position.y;
+        t0[i] = 0;
+        vx[i] = velocity.x;
+        vy[i] = velocity.y;
+        radius[i] = shadows.getRadius(i);
+        mass[i] = radius[i]*radius[i]; //only the ratio matters
+        speed[i] = shadows.getSpeed(i);
+        color[i] = shadows.getColorType(i);
+        if (solid[i]) {
+            normalize(i);
+            wrap(i);
+        }
+        return true;
+    }
+
+    private boolean loadObstacle(Body body, Fixture fixture, Object userData) {
+        Vector2 position = BodyAccess.getPosition(body);
+        Shape shape = fixture.getShape();
+        if (isRotating(body, userData)) {
+            zones.add(position.x, position.y, boundingRadius(shape));
+            return true;
+        }
+        if (shape instanceof CircleShape) {
+            statics.add(position.x, position.y, shape.getRadius());
+            return true;
+        }
+        if (!(shape instanceof ChainShape) || body.getType() == BodyDef.BodyType.DynamicBody) {
+            zones.add(position.x, position.y, boundingRadius(shape)); //nothing else is expected here: leave it to Box2D
+            return true;
+        }
+        ChainShape chain = (ChainShape) shape;
+        double cos = Math.cos(body.getAngle()); //once per obstacle per prediction
+        double sin = Math.sin(body.getAngle());
+        int n = chain.getVertexCount();
+        for (int v = 0; v <= n; v++) { //closed: last back to the first (a zero-length closing edge is skipped)
+            chain.getVertex(v % n, vertex);
+            float wx = (float) (position.x + vertex.x*cos - vertex.y*sin);
+            float wy = (float) (position.y + vertex.x*sin + vertex.y*cos);
+            if (v == 0) {
+                first.set(wx, wy);
+            } else if (wx != previous.x || wy != previous.y) {
+                addEdge(previous.x, previous.y, wx, wy, userData);
+            }
+            previous.set(wx, wy);
+        }
+        return true;
+    }
+
+    private static boolean isRotating(Body body, Object userData) {
+        if (userData instanceof RotatableChainObject) {
+            return !((RotatableChainObject) userData).closeEnough(); //the live one is turning (the copy doesn't carry its spin)
+        }
+        return body.getType() == BodyDef.BodyType.KinematicBody && body.getAngularVelocity() != 0;
+    }
+
+    private float boundingRadius(Shape shape) {
+        if (shape instanceof ChainShape) {
+            ChainShape chain = (ChainShape) shape;
+            float max = 0;
+            for (int v = 0; v < chain.getVertexCount(); v++) {
+                chain.getVertex(v, vertex);
+                max = Math.max(max, vertex.len());
+            }
+            return max;
+        }
+        return shape.getRadius() > 0 ? shape.getRadius() : WorldScreen.WORLD_WIDTH; //unknown: the whole screen
+    }
+
+    private void addEdge(float x1, float y1, float x2, float y2, Object owner) {
+        edges.add(x1, y1, x2, y2);
+        edgeOwner.add(owner);
+    }
+
+    private boolean touchesAnything(int i) {
+        for (int e = 0; e < edges.size; e += 4) {
+            if (!passes(i, e/4) && segmentDistance(i, e) < radius[i] + SKIN + SLOP) { return true; }
+        }
+        for (int s = 0; s < statics.size; s += 3) {
+            if (distance(x[i], y[i], statics.get(s), statics.get(s+1)) < radius[i] + statics.get(s+2) + SLOP) { return true; }
+        }
+        for (int z = 0; z < zones.size; z += 3) {
+            if (distance(x[i], y[i], zones.get(z), zones.get(z+1)) < radius[i] + zones.get(z+2) + SLOP) { return true; }
+        }
+        for (int j = i+1; j < count; j++) {
+            if (loaded[j] && solid[j] && distance(x[i], y[i], x[j], y[j]) < radius[i] + radius[j] + SLOP) { return true; }
+        }
+        return false;
+    }
+
+    //Run
+    public int run(int horizon, int sampleEvery) { //returns the first step Box2D has to play (horizon+1 = none), the bodies are set to that step
+        events = 0;
+        int nextSample = 0;
+        double end = horizon * (double) stepTime;
+        while (true) {
+            double eventTime = heapSize > 0 ? nextTime[heap[0]] : Double.MAX_VALUE;
+            while (nextSample <= horizon && nextSample * (double) stepTime <= eventTime) {
+                sample(nextSample, nextSample * (double) stepTime);
+                nextSample += sampleEvery;
+            }
+            if (eventTime > end) {
+                return horizon + 1;
+            }
+            int a = heap[0];
+            if (nextType[a] == HANDOVER || ++events > MAX_EVENTS) {
+                return handOver((int) (eventTime / stepTime));
+            }
+            resolve(a, eventTime);
+        }
+    }
+
+    private void resolve(int a, double time) {
+        now = time;
+        int type = nextType[a];
+        int b = nextPartner[a];
+        moveTo(a, time);
+        switch (type) {
+            case CIRCLE:
+                moveTo(b, time);
+                bounce(a, b);
+                break;
+            case EDGE:
+                bounceOff(a, closestOnEdge(a, b*4), shadows.getObstacles().isSoft(edgeOwner.get(b), color[a]) ? 0 : 1);
+                break;
+            case STATIC:
+                bounceOff(a, statics.get(b*3), statics.get(b*3+1), 1);
+                break;
+            case WRAP_X:
+            case WRAP_Y:
+                wrap(a);
+                break;
+        }
+        repredict(a, type == CIRCLE ? b : -1);
+    }
+
+    private void repredict(int a, int b) { //a (and b) changed course: their next events, and everyone else's with them
+        predict(a);
+        update(a);
+        if (b >= 0) {
+            predict(b);
+            update(b);
+        }
+        for (int c = 0; c < count; c++) {
+            if (!loaded[c] || c == a || c == b) { continue; }
+            if ((nextType[c] == CIRCLE || nextType[c] == HANDOVER) && nextPartner[c] >= 0 && (nextPartner[c] == a || nextPartner[c] == b)) { //a pair event with a or b is stale (zone handovers have no partner and stay)
+                predict(c);
+            } else {
+                offerPair(c, a);
+                if (b >= 0) { offerPair(c, b); }
+            }
+            update(c);
+        }
+    }
+
+    private int handOver(int step) {
+        double time = step * (double) stepTime;
+        for (int i = 0; i < count; i++) {
+            if (!loaded[i]) { continue; }
+            Body body = bodies[i];
+            BodyAccess.setTransform(body, (float) (x[i] + vx[i]*(time - t0[i])), (float) (y[i] + vy[i]*(time - t0[i])), body.getAngle());
+            BodyAccess.setLinearVelocity(body, (float) vx[i], (float) vy[i]);
+        }
+        while (samples.size > 0 && samples.get(samples.size-4) >= step) { //Box2D draws these
+            samples.size -= 4;
+        }
+        return step;
+    }
+
+    private void sample(int step, double time) {
+        for (int i = 0; i < count; i++) {
+            if (loaded[i] && shadows.isVisible(i)) {
+                samples.add(step, i, (float) (x[i] + vx[i]*(time - t0[i])), (float) (y[i] + vy[i]*(time - t0[i])));
+            }
+        }
+    }
+
+    //Events
+    private void predict(int i) { //earliest event of i against everything
+        nextTime[i] = Double.MAX_VALUE;
+        nextType[i] = NONE;
+        nextPartner[i] = -1;
+        if (vx[i] > 0) {
+            offer(i, t0[i] + (WorldScreen.WORLD_WIDTH + radius[i] - x[i]) / vx[i], WRAP_X, -1);
+        } else if (vx[i] < 0) {
+            offer(i, t0[i] + (-radius[i] - x[i]) / vx[i], WRAP_X, -1);
+        }
+        if (vy[i] > 0) {
+            offer(i, t0[i] + (WorldScreen.WORLD_HEIGHT + radius[i] - y[i]) / vy[i], WRAP_Y, -1);
+        } else if (vy[i] < 0) {
+            offer(i, t0[i] + (-radius[i] - y[i]) / vy[i], WRAP_Y, -1);
+        }
+        if (!solid[i]) { return; } //sensors just drift
+        for (int e = 0; e < edges.size; e += 4) {
+            if (!passes(i, e/4)) {
+                offer(i, edgeImpact(i, e), EDGE, e/4);
+            }
+        }
+        for (int s = 0; s < statics.size; s += 3) {
+            offer(i, pointImpact(i, statics.get(s), statics.get(s+1), radius[i] + statics.get(s+2)), STATIC, s/3);
+        }
+        for (int z = 0; z < zones.size; z += 3) {
+            offer(i, pointImpact(i, zones.get(z), zones.get(z+1), radius[i] + zones.get(z+2)), HANDOVER, -1);
+        }
+        for (int j = 0; j < count; j++) {
+            if (j != i && loaded[j]) {
+                offerPair(i, j);
+            }
+        }
+    }
+
+    private void offerPair(int i, int j) {
+        if (!solid[i] || !solid[j]) { return; }
+        double time = circleImpact(i, j);
+        if (time == Double.MAX_VALUE) { return; }
+        offer(i, time, isInteraction(i, j) ? HANDOVER : CIRCLE, j);
+    }
+
+    private void offer(int i, double time, int type, int partner) {
+        if (time < nextTime[i] && time > now + EPSILON) {
+            nextTime[i] = time;
+            nextType[i] = type;
+            nextPartner[i] = partner;
+        } else if (time <= now + EPSILON && time >= now && type == CIRCLE) { //touching again right after a bounce (soft): a resting contact, Box2D's job
+            nextTime[i] = now;
+            nextType[i] = HANDOVER;
+            nextPartner[i] = partner;
+        }
+    }
+
+    private boolean isInteraction(int i, int j) { //CollisionListener.getInteractionType: merges and breaks change sizes, Box2D & the shadows play them (everyone is unlocked here)
+        if (color[i] == color[j]) { return true; }
+        return (color[i] == ColorType.RED && radius[i] < radius[j] && shadows.canSplit(j)) || (color[j] == ColorType.RED && radius[j] < radius[i] && shadows.canSplit(i));
+    }
+
+    private boolean passes(int i, int edge) { //beams of another color are open to it
+        return shadows.getObstacles().isOpen(edgeOwner.get(edge), color[i]);
+    }
+
+    //Times of impact (absolute), MAX_VALUE = never
+    private double circleImpact(int i, int j) {
+        double dx = (x[j] + vx[j]*(now - t0[j])) - (x[i] + vx[i]*(now - t0[i]));
+        double dy = (y[j] + vy[j]*(now - t0[j])) - (y[i] + vy[i]*(now - t0[i]));
+        double wx = vx[j] - vx[i];
+        double wy = vy[j] - vy[i];
+        double reach = radius[i] + radius[j];
+        double t = rayCircle(dx, dy, wx, wy, reach);
+        return t == Double.MAX_VALUE ? t : now + t;
+    }
+
+    private double pointImpact(int i, double px, double py, double reach) {
+        double dx = px - (x[i] + vx[i]*(now - t0[i]));
+        double dy = py - (y[i] + vy[i]*(now - t0[i]));
+        double t = rayCircle(dx, dy, -vx[i], -vy[i], reach);
+        return t == Double.MAX_VALUE ? t : now + t;
+    }
+
+    private static double rayCircle(double dx, double dy, double wx, double wy, double reach) { //first t >= 0 with |d + w t| = reach, approaching only
+        double b = dx*wx + dy*wy;
+        if (b >= 0) { return Double.MAX_VALUE; }
+        double a = wx*wx + wy*wy;
+        double c = dx*dx + dy*dy - reach*reach;
+        double disc = b*b - a*c;
+        if (disc < 0) { return Double.MAX_VALUE; }
+        double t = (-b - Math.sqrt(disc)) / a;
+        return t < 0 ? (c <= 0 ? 0 : Double.MAX_VALUE) : t;
+    }
+
+    private double edgeImpact(int i, int e) { //circle vs segment (+skin): its face, else the nearer end
+        double reach = radius[i] + SKIN;
+        double px = x[i] + vx[i]*(now - t0[i]);
+        double py = y[i] + vy[i]*(now - t0[i]);
+        double ax = edges.get(e), ay = edges.get(e+1);
+        double ex = edges.get(e+2) - ax, ey = edges.get(e+3) - ay;
+        double length = Math.sqrt(ex*ex + ey*ey);
+        double nx = -ey/length, ny = ex/length;
+        double distance = (px - ax)*nx + (py - ay)*ny;
+        double approach = vx[i]*nx + vy[i]*ny;
+        if (distance < 0) {
+            distance = -distance;
+            approach = -approach;
+        }
+        double best = Double.MAX_VALUE;
+        if (approach < 0 && distance >= reach) {
+            double t = (distance - reach) / -approach;
+            double along = ((px + vx[i]*t - ax)*ex + (py + vy[i]*t - ay)*ey) / length;
+            if (along >= 0 && along <= length) {
+                best = now + t;
+            }
+        }
+        double start = pointImpact(i, ax, ay, reach);
+        double finish = pointImpact(i, ax + ex, ay + ey, reach);
+        return Math.min(best, Math.min(start, finish));
+    }
+
+    //Responses
+    private void bounce(int a, int b) { //two circles, restitution 1 (0 when SOFT), then both back to their speeds
+        double nx = x[b] - x[a];
+        double ny = y[b] - y[a];
+        double length = Math.sqrt(nx*nx + ny*ny);
+        nx /= length;
+        ny /= length;
+        double approach = (vx[b] - vx[a])*nx + (vy[b] - vy[a])*ny;
+        double restitution = CollisionListener.getCollisionType(color[a], color[b], InteractionType.NONE) == CollisionType.SOFT || approach > -VELOCITY_THRESHOLD ? 0 : 1;
+        double impulse = -(1 + restitution) * approach / (1/mass[a] + 1/mass[b]);
+        vx[a] -= impulse/mass[a]*nx;
+        vy[a] -= impulse/mass[a]*ny;
+        vx[b] += impulse/mass[b]*nx;
+        vy[b] += impulse/mass[b]*ny;
+        normalize(a);
+        normalize(b);
+    }
+
+    private double[] closestOnEdge(int i, int e) {
+        double ax = edges.get(e), ay = edges.get(e+1);
+        double ex = edges.get(e+2) - ax, ey = edges.get(e+3) - ay;
+        double t = ((x[i] - ax)*ex + (y[i] - ay)*ey) / (ex*ex + ey*ey);
+        t = Math.max(0, Math.min(1, t));
+        contact[0] = ax + ex*t;
+        contact[1] = ay + ey*t;
+        return contact;
+    }
+
+    private void bounceOff(int i, double[] point, int restitution) {
+        bounceOff(i, point[0], point[1], restitution);
+    }
+
+    private void bounceOff(int i, double px, double py, int restitution) { //off something static, normal from the contact point to the center
+        double nx = x[i] - px;
+        double ny = y[i] - py;
+        double length = Math.sqrt(nx*nx + ny*ny);
+        nx /= length;
+        ny /= length;
+        double approach = vx[i]*nx + vy[i]*ny;
+        if (approach > -VELOCITY_THRESHOLD) {
+            restitution = 0;
+        }
+        if (approach < 0) {
+            vx[i] -= (1 + restitution) * approach * nx;
+            vy[i] -= (1 + restitution) * approach * ny;
+        }
+        normalize(i);
+    }
+
+    private void normalize(int i) { //CircleKinematics' constant speed
+        double current = Math.sqrt(vx[i]*vx[i] + vy[i]*vy[i]);
+        if (current == 0) {
+            vx[i] = -speed[i];
+            vy[i] = 0;
+        } else {
+            vx[i] *= speed[i] / current;
+            vy[i] *= speed[i] / current;
+        }
+    }
+
+    private void wrap(int i) { //CircleKinematics' screen edge, which only looks at step boundaries: it's on the far side exactly at the next one
+        double r = radius[i];
+        double late = Math.ceil(now / stepTime - 1e-6) * stepTime - now;
+        if (x[i]-r >= WorldScreen.WORLD_WIDTH - EPSILON) {
+            x[i] = -r - vx[i]*late;
+        } else if (x[i]+r <= EPSILON) {
+            x[i] = WorldScreen.WORLD_WIDTH+r - vx[i]*late;
+        }
+        if (y[i]-r >= WorldScreen.WORLD_HEIGHT - EPSILON) {
+            y[i] = -r - vy[i]*late;
+        } else if (y[i]+r <= EPSILON) {
+            y[i] = WorldScreen.WORLD_HEIGHT+r - vy[i]*late;
+        }
+    }
+
+    private void moveTo(int i, double time) {
+        x[i] += vx[i]*(time - t0[i]);
+        y[i] += vy[i]*(time - t0[i]);
+        t0[i] = time;
+    }
+
+    private double segmentDistance(int i, int e) {
+        double[] point = closestOnEdge(i, e);
+        return distance(x[i], y[i], point[0], point[1]);
+    }
+
+    private static double distance(double ax, double ay, double bx, double by) {
+        return Math.sqrt((ax-bx)*(ax-bx) + (ay-by)*(ay-by));
+    }
+
+    //Heap
+    private void update(int i) {
+        siftUp(heapPos[i]);
+        siftDown(heapPos[i]);
+    }
+
+    private void siftUp(int p) {
+        while (p > 0) {
+            int parent = (p-1) >> 1;
+            if (nextTime[heap[parent]] <= nextTime[heap[p]]) { return; }
+            swap(p, parent);
+            p = parent;
+        }
+    }
+
+    private void siftDown(int p) {
+        while (true) {
+            int left = 2*p + 1;
+            if (left >= heapSize) { return; }
+            int child = left + 1 < heapSize && nextTime[heap[left+1]] < nextTime[heap[left]] ? left + 1 : left;
+            if (nextTime[heap[p]] <= nextTime[heap[child]]) { return; }
+            swap(p, child);
+            p = child;
+        }
+    }
+
+    private void swap(int p, int q) {
+        int a = heap[p];
+        heap[p] = heap[q];
+        heap[q] = a;
+        heapPos[heap[p]] = p;
+        heapPos[heap[q]] = q;
+    }
+
+    //Output
+    public void draw(ShapeRenderer shapeRenderer, boolean limitedDraw, Vector2 mouse) { //same dots as the Box2D loop
+        for (int s = 0; s < samples.size; s += 4) {
+            float px = samples.get(s+2);
+            float py = samples.get(s+3);
+            float dx = px - mouse.x;
+            float dy = py - mouse.y;
+            if (!limitedDraw || dx*dx + dy*dy < 4f) {
+                Color c = color[(int) samples.get(s+1)].getColor();
+                shapeRenderer.setColor(c.r, c.g, c.b, 0.7f);
+                shapeRenderer.circle(px, py, 0.01f, 10);
+            }
+        }
+    }
+
+    public FloatArray getSamples() { //step, shadow index, x, y
+        return samples;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    private void ensureCapacity(int size) {
+        if (x.length < size) {
+            int capacity = Math.max(size, x.length*2);
+            bodies = new Body[capacity];
+            loaded = new boolean[capacity];
+            solid = new boolean[capacity];
+            x = new double[capacity];
+            y = new double[capacity];
+            t0 = new double[capacity];
+            vx = new double[capacity];
+            vy = new double[capacity];
+            radius = new double[capacity];
+            mass = new double[capacity];
+            speed = new double[capacity];
+            color = new ColorType[capacity];
+            nextTime = new double[capacity];
+            nextType = new int[capacity];
+            nextPartner = new int[capacity];
+            heap = new int[capacity];
+            heapPos = new int[capacity];
+        }
+    }
+
+}
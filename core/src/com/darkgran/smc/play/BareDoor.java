@@ -1,12 +1,14 @@
 package com.darkgran.smc.play;
 
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.darkgran.smc.play.components.SwitchableComponent;
 
 public abstract class BareDoor extends ChainBoxBodyObject implements Switchable {
     private boolean closed;
 
     public BareDoor(LevelStage levelStage, float x, float y, float width, float height, float angle, boolean state, float restitution, BodyDef.BodyType bodyType) {
         super(levelStage, x, y, width, height, angle, restitution, bodyType);
+        getEntity().add(new SwitchableComponent(this));
         setEnabled(state);
     }
 
@@ -20,7 +22,7 @@ public abstract class BareDoor extends ChainBoxBodyObject implements Switchable
     }
 
     private void applyState() {
-        getChainBody().getBody().getFixtureList().get(0).setSensor(!closed);
+        getLevelStage().getWorldScreen().getMutations().setSensor(getChainBody().getBody(), !closed);
     }
 
     public boolean isEnabled() {
@@ -3,44 +3,54 @@ package com.darkgran.smc.play;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.darkgran.smc.play.components.ColorComponent;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.PhysicsComponent;
+import com.darkgran.smc.play.components.StaticComponent;
 
 public class Beam extends BareDoor {
-    private ColorType type;
+    private final ColorComponent color;
 
     public Beam(LevelStage levelStage, float x, float y, float width, float height, float angle, ColorType colorType, boolean state) {
         super(levelStage, x, y, width, height, angle, state, 0f, BodyDef.BodyType.StaticBody);
-        this.type = colorType;
+        color = new ColorComponent(colorType);
+        getEntity().add(color);
+        getEntity().add(new StaticComponent());
     }
 
     public void switchColor() {
-        switch (type) {
+        setType(nextColor(color.colorType));
+    }
+
+    public static ColorType nextColor(ColorType colorType) { //the COLORER cycle (EnvSession too)
+        switch (colorType) {
             case WHITE:
-                setType(ColorType.BLUE);
-                break;
+                return ColorType.BLUE;
             case BLUE:
-                setType(ColorType.GREEN);
-                break;
+                return ColorType.GREEN;
             case GREEN:
-                setType(ColorType.WHITE);
-                break;
+                return ColorType.WHITE;
         }
+        return colorType;
     }
 
     public void draw(ShapeRenderer shapeRenderer) {
         if (isEnabled()) {
             shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-            shapeRenderer.setColor(type.getColor().r, type.getColor().g, type.getColor().b, 0.7f);
-            shapeRenderer.rect(getChainBody().getBody().getPosition().x - getWidth(), getChainBody().getBody().getPosition().y - getHeight(), getWidth() * 2, getHeight() * 2);
+            shapeRenderer.setColor(color.colorType.getColor().r, color.colorType.getColor().g, color.colorType.getColor().b, 0.7f);
+            BodyReadback readback = getLevelStage().getWorldScreen().getReadback();
+            PhysicsComponent physics = Mappers.PHYSICS.get(getEntity());
+            shapeRenderer.rect(readback.getX(physics) - getWidth(), readback.getY(physics) - getHeight(), getWidth() * 2, getHeight() * 2);
             shapeRenderer.setColor(Color.WHITE);
             shapeRenderer.end();
         }
     }
 
     public ColorType getColorType() {
-        return type;
+        return color.colorType;
     }
 
     public void setType(ColorType type) {
-        this.type = type;
+        color.colorType = type;
     }
 }
@@ -0,0 +1,54 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.MassData;
+
+public class BodyAccess { //hot-path Body calls that cross JNI, counted per kind (render thread only, plain increments)
+    public static final int POSITION = 0;
+    public static final int VELOCITY = 1;
+    public static final int TRANSFORM = 2;
+    public static final int MASS_DATA = 3;
+    public static final int KINDS = 4;
+    private static final long[] calls = new long[KINDS];
+
+    public static Vector2 getPosition(Body body) {
+        calls[POSITION]++;
+        return body.getPosition();
+    }
+
+    public static Vector2 getLinearVelocity(Body body) {
+        calls[VELOCITY]++;
+        return body.getLinearVelocity();
+    }
+
+    public static void setLinearVelocity(Body body, float x, float y) {
+        calls[VELOCITY]++;
+        body.setLinearVelocity(x, y);
+    }
+
+    public static void setLinearVelocity(Body body, Vector2 velocity) {
+        calls[VELOCITY]++;
+        body.setLinearVelocity(velocity);
+    }
+
+    public static void setTransform(Body body, float x, float y, float angle) {
+        calls[TRANSFORM]++;
+        body.setTransform(x, y, angle);
+    }
+
+    public static void setTransform(Body body, Vector2 position, float angle) {
+        calls[TRANSFORM]++;
+        body.setTransform(position, angle);
+    }
+
+    public static void setMassData(Body body, MassData massData) {
+        calls[MASS_DATA]++;
+        body.setMassData(massData);
+    }
+
+    public static long getCalls(int kind) {
+        return calls[kind];
+    }
+
+}
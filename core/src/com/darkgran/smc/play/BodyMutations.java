@@ -0,0 +1,208 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.MassData;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+public class BodyMutations { //write-combining buffer for body writes: gameplay records, flush() applies only the last value per property (render thread only)
+    private static final int RADIUS = 1; //shape radius, always followed by MASS
+    private static final int MASS = 2; //setMassData + resetMassData
+    private static final int VELOCITY = 4;
+    private static final int TRANSFORM = 8;
+    private static final int ANGULAR_VELOCITY = 16;
+    private static final int SENSOR = 32;
+    private final ObjectIntMap<Body> slots = new ObjectIntMap<>();
+    private final MassData massData = new MassData();
+    private Body[] bodies = new Body[64];
+    private int[] dirty = new int[64];
+    private float[] radius = new float[64];
+    private float[] mass = new float[64];
+    private float[] velX = new float[64];
+    private float[] velY = new float[64];
+    private float[] posX = new float[64];
+    private float[] posY = new float[64];
+    private float[] angle = new float[64];
+    private float[] angularVelocity = new float[64];
+    private boolean[] sensor = new boolean[64];
+    private int count = 0;
+    private boolean stepping = false; //contact callbacks write through: a velocity set in preSolve is meant for the running step
+    private long recorded = 0;
+    private long applied = 0;
+
+    public void setRadius(Body body, float radius) { //circle bodies: the mass follows the radius
+        recorded += 3;
+        if (stepping) {
+            applyRadius(body, radius, 0.1f*radius);
+            return;
+        }
+        int i = slot(body, RADIUS | MASS);
+        this.radius[i] = radius;
+        mass[i] = 0.1f*radius;
+    }
+
+    public void setMass(Body body, float mass) {
+        recorded += 2;
+        if (stepping) {
+            applyMass(body, mass);
+            return;
+        }
+        this.mass[slot(body, MASS)] = mass;
+    }
+
+    public void setLinearVelocity(Body body, float x, float y) {
+        recorded++;
+        if (stepping) {
+            BodyAccess.setLinearVelocity(body, x, y);
+            applied++;
+            return;
+        }
+        int i = slot(body, VELOCITY);
+        velX[i] = x;
+        velY[i] = y;
+    }
+
+    public void setTransform(Body body, float x, float y, float angle) {
+        recorded++;
+        if (stepping) {
+            BodyAccess.setTransform(body, x, y, angle);
+            applied++;
+            return;
+        }
+        int i = slot(body, TRANSFORM);
+        posX[i] = x;
+        posY[i] = y;
+        this.angle[i] = angle;
+    }
+
+    public void setAngularVelocity(Body body, float omega) {
+        recorded++;
+        if (stepping) {
+            body.setAngularVelocity(omega);
+            applied++;
+            return;
+        }
+        angularVelocity[slot(body, ANGULAR_VELOCITY)] = omega;
+    }
+
+    public void setSensor(Body body, boolean sensor) { //first fixture
+        recorded++;
+        if (stepping) {
+            body.getFixtureList().get(0).setSensor(sensor);
+            applied++;
+            return;
+        }
+        this.sensor[slot(body, SENSOR)] = sensor;
+    }
+
+    private int slot(Body body, int flags) {
+        int i = slots.get(body, -1);
+        if (i < 0) {
+            i = count++;
+            if (i == bodies.length) {
+                grow();
+            }
+            bodies[i] = body;
+            dirty[i] = 0;
+            slots.put(body, i);
+        }
+        dirty[i] |= flags;
+        return i;
+    }
+
+    public void forget(Body body) { //before the body is destroyed
+        int i = slots.get(body, -1);
+        if (i >= 0) {
+            dirty[i] = 0;
+        }
+    }
+
+    public void discard() { //drop every pending write: restart/rewind set the bodies themselves and a later flush must not undo that
+        for (int i = 0; i < count; i++) {
+            bodies[i] = null;
+        }
+        count = 0;
+        slots.clear();
+    }
+
+    public void beginStep() { //flush, then write through until endStep
+        flush();
+        stepping = true;
+    }
+
+    public void endStep() {
+        stepping = false;
+    }
+
+    public void flush() { //one pass, in the order the direct calls used to happen
+        for (int i = 0; i < count; i++) {
+            Body body = bodies[i];
+            int flags = dirty[i];
+            bodies[i] = null;
+            if (flags == 0) { continue; }
+            if ((flags & RADIUS) != 0) {
+                applyRadius(body, radius[i], mass[i]);
+            } else if ((flags & MASS) != 0) {
+                applyMass(body, mass[i]);
+            }
+            if ((flags & VELOCITY) != 0) {
+                BodyAccess.setLinearVelocity(body, velX[i], velY[i]);
+                applied++;
+            }
+            if ((flags & TRANSFORM) != 0) {
+                BodyAccess.setTransform(body, posX[i], posY[i], angle[i]);
+                applied++;
+            }
+            if ((flags & ANGULAR_VELOCITY) != 0) {
+                body.setAngularVelocity(angularVelocity[i]);
+                applied++;
+            }
+            if ((flags & SENSOR) != 0) {
+                body.getFixtureList().get(0).setSensor(sensor[i]);
+                applied++;
+            }
+        }
+        count = 0;
+        slots.clear();
+    }
+
+    private void applyRadius(Body body, float radius, float mass) {
+        if (body.getFixtureList().size > 0) {
+            body.getFixtureList().get(0).getShape().setRadius(radius);
+            applied++;
+        }
+        applyMass(body, mass);
+    }
+
+    private void applyMass(Body body, float mass) {
+        massData.mass = mass;
+        BodyAccess.setMassData(body, massData);
+        body.resetMassData();
+        applied += 2;
+    }
+
+    private void grow() {
+        int capacity = bodies.length*2;
+        bodies = Arrays.copyOf(bodies, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        angle = Arrays.copyOf(angle, capacity);
+        angularVelocity = Arrays.copyOf(angularVelocity, capacity);
+        sensor = Arrays.copyOf(sensor, capacity);
+    }
+
+    public long getRecorded() { //native writes asked for
+        return recorded;
+    }
+
+    public long getApplied() { //native writes made
+        return applied;
+    }
+
+}
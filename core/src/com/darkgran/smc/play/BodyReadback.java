@@ -0,0 +1,116 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.PhysicsComponent;
+
+public class BodyReadback { //position, angle & velocity of every engine body, read once right after world.step; bodies it doesn't know (new since, other worlds) are read directly
+    private final ObjectIntMap<Body> indices = new ObjectIntMap<>();
+    private final Frame front = new Frame();
+    private int stamp = 0;
+
+    private static class Frame {
+        int count = 0;
+        float[] x = new float[0];
+        float[] y = new float[0];
+        float[] angle = new float[0];
+        float[] velX = new float[0];
+        float[] velY = new float[0];
+
+        private void ensureCapacity(int size) {
+            if (x.length < size) {
+                int capacity = Math.max(size, x.length*2);
+                x = new float[capacity];
+                y = new float[capacity];
+                angle = new float[capacity];
+                velX = new float[capacity];
+                velY = new float[capacity];
+            }
+        }
+    }
+
+    public void capture(ImmutableArray<Entity> entities) { //render thread, after the step (and after direct writes like restores)
+        Frame frame = front;
+        frame.ensureCapacity(entities.size());
+        indices.clear();
+        stamp++;
+        int count = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            PhysicsComponent physics = Mappers.PHYSICS.get(entities.get(i));
+            Body body = physics.body;
+            if (body == null) { continue; }
+            Vector2 position = BodyAccess.getPosition(body);
+            frame.x[count] = position.x;
+            frame.y[count] = position.y;
+            Vector2 velocity = BodyAccess.getLinearVelocity(body);
+            frame.velX[count] = velocity.x;
+            frame.velY[count] = velocity.y;
+            frame.angle[count] = body.getAngle();
+            physics.readbackIndex = count;
+            physics.readbackStamp = stamp;
+            indices.put(body, count);
+            count++;
+        }
+        frame.count = count;
+    }
+
+    public void forget(Body body) { //destroyed: libGDX pools Body objects, so a new body could answer for it
+        indices.remove(body, -1);
+    }
+
+    //By component (no lookup)
+    private boolean has(PhysicsComponent physics) {
+        return physics.readbackStamp == stamp;
+    }
+
+    public float getX(PhysicsComponent physics) {
+        return has(physics) ? front.x[physics.readbackIndex] : BodyAccess.getPosition(physics.body).x;
+    }
+
+    public float getY(PhysicsComponent physics) {
+        return has(physics) ? front.y[physics.readbackIndex] : BodyAccess.getPosition(physics.body).y;
+    }
+
+    public float getAngle(PhysicsComponent physics) {
+        return has(physics) ? front.angle[physics.readbackIndex] : physics.body.getAngle();
+    }
+
+    public float getVelocityX(PhysicsComponent physics) {
+        return has(physics) ? front.velX[physics.readbackIndex] : BodyAccess.getLinearVelocity(physics.body).x;
+    }
+
+    public float getVelocityY(PhysicsComponent physics) {
+        return has(physics) ? front.velY[physics.readbackIndex] : BodyAccess.getLinearVelocity(physics.body).y;
+    }
+
+    //By body (hash lookup, for code that only has the Body)
+    public float getX(Body body) {
+        int i = indices.get(body, -1);
+        return i >= 0 ? front.x[i] : BodyAccess.getPosition(body).x;
+    }
+
+    public float getY(Body body) {
+        int i = indices.get(body, -1);
+        return i >= 0 ? front.y[i] : BodyAccess.getPosition(body).y;
+    }
+
+    public float getAngle(Body body) {
+        int i = indices.get(body, -1);
+        return i >= 0 ? front.angle[i] : body.getAngle();
+    }
+
+    public float getVelocityX(Body body) {
+        int i = indices.get(body, -1);
+        return i >= 0 ? front.velX[i] : BodyAccess.getLinearVelocity(body).x;
+    }
+
+    public float getVelocityY(Body body) {
+        int i = indices.get(body, -1);
+        return i >= 0 ? front.velY[i] : BodyAccess.getLinearVelocity(body).y;
+    }
+
+}
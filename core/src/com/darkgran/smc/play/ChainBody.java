@@ -2,6 +2,7 @@ package com.darkgran.smc.play;
 
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
+import com.darkgran.smc.NativeTracker;
 
 public class ChainBody {
     private final Body body;
@@ -10,10 +11,10 @@ public class ChainBody {
         BodyDef myBodyDef = new BodyDef();
         myBodyDef.type = bodyType;
 
-        body = world.createBody(myBodyDef);
+        body = NativeTracker.createBody(world, myBodyDef);
         body.setUserData(object);
 
-        ChainShape shape = new ChainShape();
+        ChainShape shape = NativeTracker.newShape(new ChainShape());
 
         shape.createLoop(vertices);
 
@@ -22,7 +23,7 @@ public class ChainBody {
         boxFixtureDef.density = 0.1f;
         boxFixtureDef.friction = 0.1f;
         boxFixtureDef.restitution = restitution;
-        body.createFixture(boxFixtureDef);
+        NativeTracker.createFixture(body, boxFixtureDef);
 
         if (massCenter != null) {
             MassData md = body.getMassData();
@@ -36,7 +37,7 @@ public class ChainBody {
         body.setLinearDamping(0f);
         body.setAngularDamping(0f);
 
-        shape.dispose();
+        NativeTracker.dispose(shape);
     }
 
     public Body getBody() {
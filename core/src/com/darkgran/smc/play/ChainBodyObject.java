@@ -1,11 +1,14 @@
 package com.darkgran.smc.play;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.GeometryUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.darkgran.smc.play.components.PhysicsComponent;
 
 public abstract class ChainBodyObject {
     private final LevelStage levelStage;
+    private final Entity entity = new Entity();
     private ChainBody chainBody;
 
     public ChainBodyObject(LevelStage levelStage, float x, float y, Vector2[] vertices, float angle, float restitution, BodyDef.BodyType bodyType) {
@@ -15,6 +18,7 @@ public abstract class ChainBodyObject {
             v[i] = vertices[i].cpy();
         }
         createChainBody(levelStage, x, y, v, angle, restitution, bodyType);
+        entity.add(new PhysicsComponent(chainBody.getBody()));
     }
 
     public void createChainBody(LevelStage levelStage, float x, float y, Vector2[] vertices, float angle, float restitution, BodyDef.BodyType bodyType) {
@@ -31,7 +35,7 @@ public abstract class ChainBodyObject {
             vertex.x -= centroid.x;
             vertex.y -= centroid.y;
         }
-        chainBody = new ChainBody(levelStage.getWorldScreen().getWorld(), this, vertices, restitution, bodyType, centroid);
+        chainBody = new ChainBody(levelStage.getBuildWorld(), this, vertices, restitution, bodyType, centroid);
         chainBody.getBody().setTransform(x, y, angle);
     }
 
@@ -43,4 +47,12 @@ public abstract class ChainBodyObject {
         this.chainBody = chainBody;
     }
 
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public LevelStage getLevelStage() {
+        return levelStage;
+    }
+
 }
@@ -1,19 +1,28 @@
 package com.darkgran.smc.play;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.darkgran.smc.play.components.ActorComponent;
+import com.darkgran.smc.play.components.PhysicsComponent;
 
 public class CircleActor extends Actor {
     private final LevelStage levelStage;
+    private final Entity entity = new Entity();
+    private final PhysicsComponent physics;
     private CircleBody circleBody;
-    private double radius;
+    private int handle;
 
     public CircleActor(final LevelStage levelStage, float x, float y, double radius, BodyDef.BodyType bodyType) {
         this.levelStage = levelStage;
-        circleBody = new CircleBody(levelStage.getWorldScreen().getWorld(), this, x, y, radius, bodyType);
-        this.radius = radius;
+        circleBody = new CircleBody(levelStage.getBuildWorld(), this, x, y, radius, bodyType);
+        physics = new PhysicsComponent(circleBody.getBody());
+        physics.radius = radius;
+        entity.add(physics);
+        entity.add(new ActorComponent(this));
+        handle = levelStage.getWorldScreen().getCorpses().register(this);
         refreshActorBounds();
     }
 
@@ -23,13 +32,15 @@ public class CircleActor extends Actor {
         int segments = Math.round((float) getRadius()*200);
         if (segments < 10) { segments = 10; }
         else if (segments > 100) { segments = 50; }
-        shapeRenderer.circle(getCircleBody().getBody().getPosition().x, getCircleBody().getBody().getPosition().y, (float) getRadius(), segments);
+        BodyReadback readback = levelStage.getWorldScreen().getReadback();
+        shapeRenderer.circle(readback.getX(physics), readback.getY(physics), (float) getRadius(), segments);
         shapeRenderer.setColor(Color.WHITE);
         shapeRenderer.end();
     }
 
     public void refreshActorBounds() {
-        this.setBounds(circleBody.getBody().getPosition().x-(float) radius, circleBody.getBody().getPosition().y-(float) radius, (float) radius*2, (float) radius*2);
+        BodyReadback readback = levelStage.getWorldScreen().getReadback();
+        this.setBounds(readback.getX(physics)-(float) getRadius(), readback.getY(physics)-(float) getRadius(), (float) getRadius()*2, (float) getRadius()*2);
     }
 
     public CircleBody getCircleBody() {
@@ -41,11 +52,27 @@ public class CircleActor extends Actor {
     }
 
     public double getRadius() {
-        return radius;
+        return physics.radius;
     }
 
     public void setRadius(double radius) {
-        this.radius = radius;
+        physics.radius = radius;
+    }
+
+    public int getHandle() {
+        return handle;
+    }
+
+    public void setHandle(int handle) {
+        this.handle = handle;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public PhysicsComponent getPhysics() {
+        return physics;
     }
 
     public LevelStage getLevelStage() {
@@ -1,6 +1,7 @@
 package com.darkgran.smc.play;
 
 import com.badlogic.gdx.physics.box2d.*;
+import com.darkgran.smc.NativeTracker;
 
 public class CircleBody {
     private final Body body;
@@ -9,11 +10,11 @@ public class CircleBody {
         BodyDef myBodyDef = new BodyDef();
         myBodyDef.type = bodyType;
 
-        body = world.createBody(myBodyDef);
+        body = NativeTracker.createBody(world, myBodyDef);
         body.setUserData(obj);
 
         body.setTransform(x, y, 0f);
-        CircleShape circleShape = new CircleShape();
+        CircleShape circleShape = NativeTracker.newShape(new CircleShape());
         circleShape.setRadius((float) radius);
 
         FixtureDef boxFixtureDef = new FixtureDef();
@@ -29,14 +30,14 @@ public class CircleBody {
         //md.I = 1;
         //md.center = body.getLocalCenter();
 
-        body.createFixture(boxFixtureDef);
+        NativeTracker.createFixture(body, boxFixtureDef);
 
         body.setFixedRotation(false);
         body.setGravityScale(0f);
         body.setLinearDamping(0f);
         body.setAngularDamping(0f);
 
-        circleShape.dispose();
+        NativeTracker.dispose(circleShape);
     }
 
     public Body getBody() {
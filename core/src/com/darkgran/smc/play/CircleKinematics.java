@@ -0,0 +1,141 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.MassData;
+import com.darkgran.smc.WorldScreen;
+
+import java.util.Arrays;
+
+public class CircleKinematics { //growth, constant speed & screen wrap of the circles, one kernel for the live world (CircleStepSystem) and ShadowCircles (the prediction & EnvSession)
+    public static final int RADIUS_CHANGED = 1;
+    public static final int VELOCITY_CHANGED = 2;
+    public static final int WRAPPED = 4;
+    public static final int GONE = 8; //shrank away this step
+
+    public static class State { //flat per-circle state, owners fill it from their bodies/components and apply the flags back
+        public int count = 0;
+        public float[] posX = new float[0];
+        public float[] posY = new float[0];
+        public float[] velX = new float[0];
+        public float[] velY = new float[0];
+        public double[] radius = new double[0];
+        public double[] growBuffer = new double[0];
+        public float[] speed = new float[0];
+        public boolean[] mergingAway = new boolean[0];
+        public boolean[] freshShard = new boolean[0];
+        public boolean[] gone = new boolean[0];
+        public ColorType[] colorType = new ColorType[0];
+        public int[] changed = new int[0]; //RADIUS_CHANGED | VELOCITY_CHANGED | WRAPPED | GONE, per step
+        public final MassData massData = new MassData(); //scratch for applyRadius, one per owner (EnvSessions step on several threads)
+
+        public void ensureCapacity(int size) { //keeps the contents (ShadowCircles grows mid-game)
+            if (posX.length < size) {
+                int capacity = Math.max(size, posX.length*2);
+                posX = Arrays.copyOf(posX, capacity);
+                posY = Arrays.copyOf(posY, capacity);
+                velX = Arrays.copyOf(velX, capacity);
+                velY = Arrays.copyOf(velY, capacity);
+                radius = Arrays.copyOf(radius, capacity);
+                growBuffer = Arrays.copyOf(growBuffer, capacity);
+                speed = Arrays.copyOf(speed, capacity);
+                mergingAway = Arrays.copyOf(mergingAway, capacity);
+                freshShard = Arrays.copyOf(freshShard, capacity);
+                gone = Arrays.copyOf(gone, capacity);
+                colorType = Arrays.copyOf(colorType, capacity);
+                changed = Arrays.copyOf(changed, capacity);
+            }
+        }
+    }
+
+    public static void step(State s, int from, int to) { //pure, no JNI: safe on disjoint ranges in parallel
+        for (int i = from; i < to; i++) {
+            s.changed[i] = 0;
+            if (s.gone[i]) { continue; }
+            //Size Change
+            if (s.mergingAway[i]) {
+                if (s.growBuffer[i] > 0) {
+                    s.growBuffer[i] -= LevelStage.RADIUS_CHANGE;
+                } else if (s.radius[i]-LevelStage.RADIUS_CHANGE >= LevelStage.ACTUAL_MIN_RADIUS) {
+                    s.growBuffer[i] = 0;
+                    resize(s, i, s.radius[i]-LevelStage.RADIUS_CHANGE);
+                } else {
+                    s.gone[i] = true;
+                    s.changed[i] |= GONE;
+                }
+            } else if (s.growBuffer[i] > 0) {
+                if (s.growBuffer[i] > LevelStage.RADIUS_CHANGE) {
+                    s.growBuffer[i] -= LevelStage.RADIUS_CHANGE;
+                    resize(s, i, s.radius[i]+LevelStage.RADIUS_CHANGE);
+                } else {
+                    resize(s, i, s.radius[i]+s.growBuffer[i]);
+                    s.growBuffer[i] = 0;
+                    s.freshShard[i] = false;
+                }
+            } else if (s.growBuffer[i] < 0) {
+                if (Math.abs(s.growBuffer[i]) > LevelStage.RADIUS_CHANGE) {
+                    s.growBuffer[i] += LevelStage.RADIUS_CHANGE;
+                    resize(s, i, s.radius[i]-LevelStage.RADIUS_CHANGE);
+                } else {
+                    resize(s, i, s.radius[i]+s.growBuffer[i]);
+                    s.growBuffer[i] = 0;
+                }
+            }
+            if (s.radius[i] >= s.colorType[i].getMinRadius()) {
+                s.freshShard[i] = false;
+            }
+            //Constant Speed
+            float vx = s.velX[i];
+            float vy = s.velY[i];
+            double current = Math.sqrt((double) vx*vx + (double) vy*vy);
+            if ((float) current != s.speed[i]) {
+                if (current == 0) { //no direction to keep: atan2(0, 0) turned half around, i.e. -x
+                    s.velX[i] = -s.speed[i];
+                    s.velY[i] = 0;
+                } else {
+                    double ratio = s.speed[i] / current; //same direction, new length
+                    s.velX[i] = (float) (vx * ratio);
+                    s.velY[i] = (float) (vy * ratio);
+                }
+                s.changed[i] |= VELOCITY_CHANGED;
+            }
+            //Screen Edge - in-future: rework
+            double r = s.radius[i];
+            if (s.posX[i]-r >= WorldScreen.WORLD_WIDTH) {
+                s.posX[i] = (float) -r;
+                s.changed[i] |= WRAPPED;
+            } else if (s.posX[i]+r <= 0) {
+                s.posX[i] = (float) (WorldScreen.WORLD_WIDTH+r);
+                s.changed[i] |= WRAPPED;
+            }
+            if (s.posY[i]-r >= WorldScreen.WORLD_HEIGHT) {
+                s.posY[i] = (float) -r;
+                s.changed[i] |= WRAPPED;
+            } else if (s.posY[i]+r <= 0) {
+                s.posY[i] = (float) (WorldScreen.WORLD_HEIGHT+r);
+                s.changed[i] |= WRAPPED;
+            }
+        }
+    }
+
+    private static void resize(State s, int i, double newRadius) {
+        s.radius[i] = clampRadius(newRadius, s.colorType[i], s.mergingAway[i], s.freshShard[i]);
+        s.speed[i] = ColoredCircle.getSpeedLimit(s.colorType[i].getSpeed(), s.radius[i], s.freshShard[i], s.growBuffer[i], s.colorType[i]);
+        s.changed[i] |= RADIUS_CHANGED;
+    }
+
+    public static double clampRadius(double radius, ColorType colorType, boolean mergingAway, boolean freshShard) {
+        if (radius < colorType.getMinRadius() && !mergingAway && !freshShard) { radius = colorType.getMinRadius(); }
+        else if (radius < LevelStage.ACTUAL_MIN_RADIUS) { radius = LevelStage.ACTUAL_MIN_RADIUS; }
+        return radius;
+    }
+
+    public static void applyRadius(Body body, float radius, MassData scratch) { //shape + mass (0.1*r), immediately
+        if (body.getFixtureList().size > 0) {
+            body.getFixtureList().get(0).getShape().setRadius(radius);
+        }
+        scratch.mass = 0.1f*radius;
+        BodyAccess.setMassData(body, scratch);
+        body.resetMassData();
+    }
+
+}
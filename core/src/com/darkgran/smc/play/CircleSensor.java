@@ -1,17 +1,20 @@
 package com.darkgran.smc.play;
 
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.World;
 
 public class CircleSensor {
     private final LevelStage levelStage;
     private boolean mouseFollow = false;
     private final float size;
-    private final CircleBody circleBody;
+    private final BodyDef.BodyType bodyType;
+    private CircleBody circleBody;
 
     public CircleSensor(LevelStage levelStage, float size, BodyDef.BodyType bodyType) {
         this.levelStage = levelStage;
         this.size = size;
-        circleBody = new CircleBody(levelStage.getWorldScreen().getWorld(), this, 0, 0, size, bodyType);
+        this.bodyType = bodyType;
+        circleBody = new CircleBody(levelStage.getBuildWorld(), this, 0, 0, size, bodyType);
         circleBody.getBody().getFixtureList().get(0).setSensor(true);
     }
 
@@ -21,6 +24,14 @@ public class CircleSensor {
         }
     }
 
+    public void moveTo(World world) { //follows the level into another World (standby swap)
+        if (circleBody.getBody().getWorld() != world) {
+            levelStage.getWorldScreen().destroyBody(circleBody.getBody());
+            circleBody = new CircleBody(world, this, 0, 0, size, bodyType);
+            circleBody.getBody().getFixtureList().get(0).setSensor(true);
+        }
+    }
+
     public void setMouseFollow(boolean active) {
         this.mouseFollow = active;
     }
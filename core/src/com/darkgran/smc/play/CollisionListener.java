@@ -7,6 +7,8 @@ import com.badlogic.gdx.physics.box2d.Manifold;
 
 public class CollisionListener implements ContactListener {
     private final LevelStage levelStage;
+    private final ContactIndex contactIndex = new ContactIndex();
+    private long preSolveCalls = 0; //live world (the prediction counts its own in ShadowCircles)
 
     public CollisionListener(LevelStage levelStage) {
         this.levelStage = levelStage;
@@ -14,16 +16,25 @@ public class CollisionListener implements ContactListener {
 
     @Override
     public void beginContact(Contact contact) {
-
+        if (isLive(contact)) {
+            contactIndex.begin(contact.getFixtureA(), contact.getFixtureB());
+        }
     }
 
     @Override
     public void endContact(Contact contact) {
+        if (isLive(contact)) {
+            contactIndex.end(contact.getFixtureA(), contact.getFixtureB());
+        }
+    }
 
+    private boolean isLive(Contact contact) { //only the live world should reach here (the prediction has ShadowCircles)
+        return contact.getFixtureA().getBody().getWorld() == levelStage.getWorldScreen().getWorld();
     }
 
     @Override
     public void preSolve(Contact contact, Manifold oldManifold) {
+        preSolveCalls++;
         ColoredCircle circleA = null;
         ColoredCircle circleB = null;
         if (contact.getFixtureA().getBody().getUserData() instanceof ColoredCircle) {
@@ -87,7 +98,7 @@ public class CollisionListener implements ContactListener {
         return InteractionType.NONE;
     }
 
-    private CollisionType getCollisionType(ColorType typeA, ColorType typeB, InteractionType interactionType) {
+    static CollisionType getCollisionType(ColorType typeA, ColorType typeB, InteractionType interactionType) { //ShadowCircles too
         if (interactionType == InteractionType.MERGER || interactionType == InteractionType.PASS || interactionType == InteractionType.BREAKER) {
             return CollisionType.IGNORED;
         }
@@ -126,4 +137,12 @@ public class CollisionListener implements ContactListener {
 
     }
 
+    public long getPreSolveCalls() {
+        return preSolveCalls;
+    }
+
+    public ContactIndex getContactIndex() {
+        return contactIndex;
+    }
+
 }
@@ -3,29 +3,30 @@ package com.darkgran.smc.play;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.*;
+import com.darkgran.smc.play.systems.CircleStepSystem;
 
 import static java.lang.Math.*;
 
-public class ColoredCircle extends CircleActor {
-    private ColorType colorType;
-    private float direction;
-    private float speed;
-    private double growBuffer = 0;
-    private boolean mergingAway = false;
-    private boolean gone = false;
-    private boolean freshShard = false;
-    private SimpleCounter interactionLock = new SimpleCounter(false, 30, 0);
-    private SimpleCounter breakLock = new SimpleCounter(false, 60, 0);
-    private boolean stuck = false;
+public class ColoredCircle extends CircleActor { //state lives in components, per-step logic in play.systems
+    private final ColorComponent color;
+    private final GrowthComponent growth = new GrowthComponent();
+    private final MotionComponent motion = new MotionComponent();
+    private final LockComponent lock = new LockComponent();
+    private int circleId; //stable across rewinds
 
     public ColoredCircle(final LevelStage levelStage, float x, float y, double radius, float degrees, ColorType colorType) {
         super(levelStage, x, y, radius, BodyDef.BodyType.DynamicBody);
-        this.colorType = colorType;
-        this.direction = (float) (degrees*WorldScreen.DEGREES_TO_RADIANS);
-        speed = getSpeedLimit(colorType.getSpeed(), getRadius(), freshShard, growBuffer, colorType);
-        double speedX = speed * cos(direction);
-        double speedY = speed * sin(direction);
-        getCircleBody().getBody().setLinearVelocity((float) speedX, (float) speedY);
+        color = new ColorComponent(colorType);
+        getEntity().add(color);
+        getEntity().add(growth);
+        getEntity().add(motion);
+        getEntity().add(lock);
+        float direction = (float) (degrees*WorldScreen.DEGREES_TO_RADIANS);
+        motion.speed = getSpeedLimit(colorType.getSpeed(), getRadius(), growth.freshShard, growth.growBuffer, colorType);
+        double speedX = motion.speed * cos(direction);
+        double speedY = motion.speed * sin(direction);
+        BodyAccess.setLinearVelocity(getCircleBody().getBody(), (float) speedX, (float) speedY); //directly: a new body has nothing queued, and LevelSnapshot.capture runs before the next flush
     }
 
     public void interact(ColoredCircle circle, InteractionType interactionType) {
@@ -37,19 +38,20 @@ public class ColoredCircle extends CircleActor {
                     merge(circle);
                     break;
                 case BREAKER:
-                    splitInHalf(new Vector2(circle.getCircleBody().getBody().getPosition().x, circle.getCircleBody().getBody().getPosition().y));
+                    splitInHalf(new Vector2(BodyAccess.getPosition(circle.getCircleBody().getBody()).x, BodyAccess.getPosition(circle.getCircleBody().getBody()).y));
                     break;
             }
         }
     }
 
     public void merge(ColoredCircle circle) {
-        growBuffer += circle.getRadius();
+        growth.growBuffer += circle.getRadius();
         circle.unsign();
+        getLevelStage().getEventBus().publishMerge(this, circle, color.colorType, circle.getRadius());
     }
 
     public void unsign() {
-        mergingAway = true;
+        growth.mergingAway = true;
     }
 
     private void splitInHalf(Vector2 breakPoint) {
@@ -58,87 +60,22 @@ public class ColoredCircle extends CircleActor {
             setUnbreakable(true);
             double newRadius = getRadius()/2;
             addToGrow(-(getRadius()-newRadius));
-            double angle = atan2(breakPoint.y - getCircleBody().getBody().getPosition().y, breakPoint.x-getCircleBody().getBody().getPosition().x);
+            double angle = atan2(breakPoint.y - BodyAccess.getPosition(getCircleBody().getBody()).y, breakPoint.x-BodyAccess.getPosition(getCircleBody().getBody()).x);
             angle += angle > PI ? -PI : PI;
-            double speedX = speed * cos(angle);
-            double speedY = speed * sin(angle);
-            getCircleBody().getBody().setLinearVelocity((float) speedX, (float) speedY);
-            double newAngle = atan2(breakPoint.y - getCircleBody().getBody().getPosition().y, breakPoint.x-getCircleBody().getBody().getPosition().x);
-            float newX = (float) (getCircleBody().getBody().getPosition().x + newRadius * cos(newAngle));
-            float newY = (float) (getCircleBody().getBody().getPosition().y + newRadius * sin(newAngle));
-            CircleInfo newCircle = new CircleInfo(newX, newY, (float) (getCircleBody().getBody().getAngle()/WorldScreen.DEGREES_TO_RADIANS), newRadius, colorType);
+            double speedX = motion.speed * cos(angle);
+            double speedY = motion.speed * sin(angle);
+            getLevelStage().getWorldScreen().getMutations().setLinearVelocity(getCircleBody().getBody(), (float) speedX, (float) speedY); //from preSolve: written through
+            double newAngle = atan2(breakPoint.y - BodyAccess.getPosition(getCircleBody().getBody()).y, breakPoint.x-BodyAccess.getPosition(getCircleBody().getBody()).x);
+            float newX = (float) (BodyAccess.getPosition(getCircleBody().getBody()).x + newRadius * cos(newAngle));
+            float newY = (float) (BodyAccess.getPosition(getCircleBody().getBody()).y + newRadius * sin(newAngle));
+            CircleInfo newCircle = new CircleInfo(newX, newY, (float) (getCircleBody().getBody().getAngle()/WorldScreen.DEGREES_TO_RADIANS), newRadius, color.colorType);
             getLevelStage().freshCircle(newCircle, false);
+            getLevelStage().getEventBus().publishSplit(this, color.colorType, newX, newY, newRadius);
         }
     }
 
     public boolean canSplit() {
-        return !interactionLock.isEnabled() && getRadius() >= colorType.getMinRadius()*2;
-    }
-
-    public void update() {
-        Body body = getCircleBody().getBody();
-        //Locks against interactions etc.
-        stuck = false;
-        interactionLock.update();
-        breakLock.update();
-        //Size Change
-        if (mergingAway) {
-            if (growBuffer > 0) {
-                growBuffer -= LevelStage.RADIUS_CHANGE;
-            } else if (getRadius()-LevelStage.RADIUS_CHANGE >= LevelStage.ACTUAL_MIN_RADIUS) {
-                growBuffer = 0;
-                setRadius(getRadius()-LevelStage.RADIUS_CHANGE);
-            } else {
-                gone = true;
-            }
-        } else if (growBuffer > 0) {
-            if (growBuffer > LevelStage.RADIUS_CHANGE) {
-                growBuffer -= LevelStage.RADIUS_CHANGE;
-                setRadius(getRadius()+LevelStage.RADIUS_CHANGE);
-            } else {
-                setRadius(getRadius()+growBuffer);
-                growBuffer = 0;
-                freshShard = false;
-            }
-        } else if (growBuffer < 0) {
-            if (Math.abs(growBuffer) > LevelStage.RADIUS_CHANGE) {
-                growBuffer += LevelStage.RADIUS_CHANGE;
-                setRadius(getRadius()-LevelStage.RADIUS_CHANGE);
-            } else {
-                setRadius(getRadius()+growBuffer);
-                growBuffer = 0;
-            }
-        }
-        if (getRadius() >= colorType.getMinRadius()) {
-            freshShard = false;
-        }
-        //Constant Speed
-        double currentSpeed = Math.sqrt(Math.pow(body.getLinearVelocity().x, 2) + Math.pow(body.getLinearVelocity().y, 2));
-        if ((float) currentSpeed != speed) {
-            float angle = (float) Math.atan2(body.getLinearVelocity().y, body.getLinearVelocity().x);
-            if (currentSpeed == 0) { angle += angle > PI ? -PI : PI; }
-            double speedX = speed * cos(angle);
-            double speedY = speed * sin(angle);
-            body.setLinearVelocity((float) speedX, (float) speedY);
-        }
-        //Screen Edge - in-future: rework
-        if (body.getPosition().x-getRadius() >= WorldScreen.WORLD_WIDTH || body.getPosition().x+getRadius() <= 0 || body.getPosition().y-getRadius() >= WorldScreen.WORLD_HEIGHT || body.getPosition().y+getRadius() <= 0) {
-            double newX = body.getPosition().x;
-            double newY = body.getPosition().y;
-            if (body.getPosition().x-getRadius() >= WorldScreen.WORLD_WIDTH) {
-                newX = 0-getRadius();
-            } else if (body.getPosition().x+getRadius() <= 0) {
-                newX = WorldScreen.WORLD_WIDTH+getRadius();
-            }
-            if (body.getPosition().y-getRadius() >= WorldScreen.WORLD_HEIGHT) {
-                newY = 0-getRadius();
-            } else if (body.getPosition().y+getRadius() <= 0) {
-                newY = WorldScreen.WORLD_HEIGHT+getRadius();
-            }
-            body.setTransform((float) newX, (float) newY, body.getAngle());
-        }
-        //Actor
-        refreshActorBounds();
+        return !lock.interactionLock.isEnabled() && getRadius() >= color.colorType.getMinRadius()*2;
     }
 
     public static float getSpeedLimit(float baseSpeed, double radius, boolean bufferToo, double buffer, ColorType colorType) {
@@ -149,85 +86,85 @@ public class ColoredCircle extends CircleActor {
 
     @Override
     public void refreshActorBounds() {
-        this.setBounds((getCircleBody().getBody().getPosition().x-((float) (getRadius()+LevelStage.COMFORT_RADIUS))), (getCircleBody().getBody().getPosition().y-((float) (getRadius()+LevelStage.COMFORT_RADIUS))), (((float) (getRadius()+LevelStage.COMFORT_RADIUS))*2), (((float) (getRadius()+LevelStage.COMFORT_RADIUS))*2));
+        BodyReadback readback = getLevelStage().getWorldScreen().getReadback();
+        this.setBounds((readback.getX(getPhysics())-((float) (getRadius()+LevelStage.COMFORT_RADIUS))), (readback.getY(getPhysics())-((float) (getRadius()+LevelStage.COMFORT_RADIUS))), (((float) (getRadius()+LevelStage.COMFORT_RADIUS))*2), (((float) (getRadius()+LevelStage.COMFORT_RADIUS))*2));
     }
 
     @Override
     public void setRadius(double radius) {
-        if (radius < colorType.getMinRadius() && !mergingAway && !freshShard) { radius = colorType.getMinRadius(); }
-        else if (radius < LevelStage.ACTUAL_MIN_RADIUS) { radius = LevelStage.ACTUAL_MIN_RADIUS; }
-        super.setRadius(radius);
-        if (getCircleBody().getBody().getFixtureList().size > 0) {
-            Shape shape = getCircleBody().getBody().getFixtureList().get(0).getShape();
-            shape.setRadius((float) radius);
-        }
-        MassData md = new MassData();
-        md.mass = 0.1f*(float) radius;
-        getCircleBody().getBody().setMassData(md);
-        getCircleBody().getBody().resetMassData();
+        CircleStepSystem.applyRadius(getEntity(), radius, getLevelStage().getWorldScreen().getMutations());
         refreshActorBounds();
-        speed = getSpeedLimit(colorType.getSpeed(), getRadius(), freshShard, growBuffer, colorType);
     }
 
     public void addToGrow(double grow) {
-        growBuffer += grow;
-    }
-
-    private Vector2 getTravelPoint(Vector2 startPos, Vector2 startVel, float step) {
-        float t = getLevelStage().getWorldScreen().getSTEP_TIME();
-        Vector2 stepVel = new Vector2(startVel.x * t, startVel.y * t);
-        return new Vector2(startPos.x + step * stepVel.x, startPos.y + step * stepVel.y);
+        growth.growBuffer += grow;
     }
 
     public boolean isLockedFromInteractions() {
-        return interactionLock.isEnabled();
+        return lock.interactionLock.isEnabled();
     }
 
     public void setLockedFromInteractions(boolean lockedFromInteractions) {
-        this.interactionLock.setEnabled(lockedFromInteractions);
+        lock.interactionLock.setEnabled(lockedFromInteractions);
     }
 
     public boolean isUnbreakable() {
-        return breakLock.isEnabled();
+        return lock.breakLock.isEnabled();
     }
 
     public void setUnbreakable(boolean unbreakable) {
-        breakLock.setEnabled(unbreakable);
+        lock.breakLock.setEnabled(unbreakable);
     }
 
     public ColorType getColorType() {
-        return colorType;
+        return color.colorType;
     }
 
     public boolean isDisabled() {
-        return isLockedFromInteractions() || mergingAway || gone;
+        return isLockedFromInteractions() || growth.mergingAway || growth.gone;
     }
 
     public boolean isGone() {
-        return gone;
+        return growth.gone;
     }
 
     public boolean isMergingAway() {
-        return mergingAway;
+        return growth.mergingAway;
     }
 
     public boolean isFreshShard() {
-        return freshShard;
+        return growth.freshShard;
     }
 
     public void setFreshShard(boolean freshShard) {
-        this.freshShard = freshShard;
+        growth.freshShard = freshShard;
     }
 
     public double getGrowBuffer() {
-        return growBuffer;
+        return growth.growBuffer;
+    }
+
+    public float getSpeed() {
+        return motion.speed;
+    }
+
+    public LockComponent getLock() {
+        return lock;
+    }
+
+    public int getCircleId() {
+        return circleId;
+    }
+
+    public void setCircleId(int circleId) {
+        this.circleId = circleId;
     }
 
     public boolean isStuck() {
-        return stuck;
+        return motion.stuck;
     }
 
     public void setStuck(boolean stuck) {
-        this.stuck = stuck;
+        motion.stuck = stuck;
     }
 }
@@ -0,0 +1,109 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+public class ContactIndex { //touching fixtures per body in the live world, fed by CollisionListener (stores fixtures since libGDX reuses Contact objects)
+    private static final Array<Fixture> NONE = new Array<>(0);
+    private final ObjectMap<Body, Touching> touching = new ObjectMap<>();
+    private final Pool<Touching> lists = new Pool<Touching>() {
+        @Override
+        protected Touching newObject() {
+            return new Touching();
+        }
+    };
+
+    private static class Touching { //a chain loop (walls, beams) touches with one contact per edge: the fixture stays until the last one ends
+        final Array<Fixture> fixtures = new Array<>(false, 4);
+        final IntArray contacts = new IntArray(false, 4);
+
+        void removeIndex(int i) {
+            fixtures.removeIndex(i);
+            contacts.removeIndex(i);
+        }
+
+        void clear() {
+            fixtures.clear();
+            contacts.clear();
+        }
+    }
+
+    public void begin(Fixture fixtureA, Fixture fixtureB) {
+        add(fixtureA.getBody(), fixtureB);
+        add(fixtureB.getBody(), fixtureA);
+    }
+
+    public void end(Fixture fixtureA, Fixture fixtureB) {
+        remove(fixtureA.getBody(), fixtureB);
+        remove(fixtureB.getBody(), fixtureA);
+    }
+
+    private void add(Body body, Fixture other) {
+        Touching list = touching.get(body);
+        if (list == null) {
+            list = lists.obtain();
+            touching.put(body, list);
+        }
+        int i = list.fixtures.indexOf(other, true);
+        if (i < 0) {
+            list.fixtures.add(other);
+            list.contacts.add(1);
+        } else {
+            list.contacts.incr(i, 1);
+        }
+    }
+
+    private void remove(Body body, Fixture other) {
+        Touching list = touching.get(body);
+        if (list != null) {
+            int i = list.fixtures.indexOf(other, true);
+            if (i < 0) { return; }
+            if (list.contacts.get(i) > 1) {
+                list.contacts.incr(i, -1);
+            } else {
+                list.removeIndex(i);
+            }
+        }
+    }
+
+    public void forget(Body body) { //call before destroying the body (libGDX pools Body/Fixture objects)
+        Touching list = touching.remove(body);
+        if (list != null) {
+            for (int i = 0; i < list.fixtures.size; i++) {
+                Touching others = touching.get(list.fixtures.get(i).getBody());
+                if (others != null) {
+                    for (Fixture fixture : body.getFixtureList()) {
+                        int j = others.fixtures.indexOf(fixture, true);
+                        if (j >= 0) {
+                            others.removeIndex(j);
+                        }
+                    }
+                }
+            }
+            list.clear();
+            lists.free(list);
+        }
+    }
+
+    public Array<Fixture> getTouching(Body body) { //read-only, iterate by index
+        Touching list = touching.get(body);
+        return list != null ? list.fixtures : NONE;
+    }
+
+    public boolean isTouching(Body body) {
+        return getTouching(body).size > 0;
+    }
+
+    public void clear() {
+        for (Touching list : touching.values()) {
+            list.clear();
+            lists.free(list);
+        }
+        touching.clear();
+    }
+
+}
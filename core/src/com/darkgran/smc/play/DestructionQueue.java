@@ -0,0 +1,110 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+public class DestructionQueue<T> { //generational handles for objects that own bodies; queued ones are destroyed in one batch after world.step
+    public static final int NO_HANDLE = 0;
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (32 - INDEX_BITS)) - 1;
+    private Object[] objects = new Object[64];
+    private int[] generations = new int[64];
+    private int slots = 0;
+    private final IntArray freeSlots = new IntArray();
+    private final BitSet queued = new BitSet();
+    private IntArray pending = new IntArray();
+    private IntArray reaping = new IntArray();
+
+    public int register(T object) {
+        int index;
+        if (freeSlots.size > 0) {
+            index = freeSlots.pop();
+        } else {
+            index = slots++;
+            if (index > INDEX_MASK) {
+                throw new IllegalStateException("DestructionQueue: out of handles");
+            }
+            if (index >= objects.length) {
+                objects = Arrays.copyOf(objects, objects.length * 2);
+                generations = Arrays.copyOf(generations, generations.length * 2);
+            }
+            generations[index] = 1; //so no live handle equals NO_HANDLE
+        }
+        objects[index] = object;
+        return (generations[index] << INDEX_BITS) | index;
+    }
+
+    public boolean isAlive(int handle) {
+        int index = handle & INDEX_MASK;
+        return handle != NO_HANDLE && index < slots && objects[index] != null && generations[index] == (handle >>> INDEX_BITS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int handle) { //null once the handle went stale
+        return isAlive(handle) ? (T) objects[handle & INDEX_MASK] : null;
+    }
+
+    public void enqueue(int handle) { //repeated or stale requests are ignored
+        if (isAlive(handle)) {
+            int index = handle & INDEX_MASK;
+            if (!queued.get(index)) {
+                queued.set(index);
+                pending.add(index);
+            }
+        }
+    }
+
+    public boolean isQueued(int handle) {
+        return isAlive(handle) && queued.get(handle & INDEX_MASK);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void flush(Consumer<T> reaper) { //O(queued)
+        IntArray batch = pending;
+        pending = reaping;
+        reaping = batch;
+        for (int i = 0; i < batch.size; i++) {
+            int index = batch.get(i);
+            T object = (T) objects[index];
+            free(index);
+            reaper.accept(object);
+        }
+        batch.clear();
+    }
+
+    public void release(int handle) { //destroyed elsewhere (level clear, hot-reload)
+        if (isAlive(handle)) {
+            int index = handle & INDEX_MASK;
+            if (queued.get(index)) {
+                pending.removeValue(index);
+            }
+            free(index);
+        }
+    }
+
+    private void free(int index) {
+        objects[index] = null;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (generations[index] == 0) { generations[index] = 1; }
+        queued.clear(index);
+        freeSlots.add(index);
+    }
+
+    public void releaseAll() {
+        for (int index = 0; index < slots; index++) {
+            if (objects[index] != null) {
+                free(index);
+            }
+        }
+        pending.clear();
+    }
+
+    public int getPending() {
+        return pending.size;
+    }
+
+}
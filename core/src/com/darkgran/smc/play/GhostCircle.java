@@ -5,7 +5,7 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.utils.Array;
 import com.darkgran.smc.WorldScreen;
 
@@ -73,17 +73,13 @@ public class GhostCircle extends CircleSensor {
     }
 
     private boolean couldBeSpawnedNow() {
-        Array<Contact> contacts = getLevelStage().getWorldScreen().getWorld().getContactList();
-        for (Contact contact : contacts) {
-            if (contact.getFixtureA().getBody() == getCircleBody().getBody() || contact.getFixtureB().getBody() == getCircleBody().getBody()) {
-                if (contact.isTouching()) {
-                    Body other = getCircleBody().getBody() == contact.getFixtureA().getBody() ? contact.getFixtureB().getBody() : contact.getFixtureA().getBody();
-                    if (other.getUserData() instanceof BareDoor) {
-                        return !((BareDoor) other.getUserData()).isEnabled();
-                    } else {
-                        return false;
-                    }
-                }
+        Array<Fixture> touching = getLevelStage().getWorldScreen().getContactIndex().getTouching(getCircleBody().getBody()); //sensor contacts touch only on exact shape overlap
+        for (int i = 0; i < touching.size; i++) {
+            Body other = touching.get(i).getBody();
+            if (other.getUserData() instanceof BareDoor) {
+                return !((BareDoor) other.getUserData()).isEnabled();
+            } else {
+                return false;
             }
         }
         return true;
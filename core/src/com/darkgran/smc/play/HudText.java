@@ -0,0 +1,70 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.utils.Align;
+
+public class HudText { //glyph vertices are laid out only when the text changes, fades only touch vertex colors
+    private final BitmapFontCache cache;
+    private final int align;
+    private CharSequence text;
+    private int number;
+    private boolean numeric = false;
+    private float x;
+    private float y;
+    private float alpha = 1;
+
+    public HudText(BitmapFont font, int align) {
+        this.cache = font.newFontCache();
+        this.align = align;
+    }
+
+    public void setText(CharSequence newText, float newX, float newY) {
+        if (numeric || newX != x || newY != y || (text == null ? newText != null : !text.equals(newText))) {
+            numeric = false;
+            text = newText;
+            layout(newX, newY);
+        }
+    }
+
+    public void setNumber(int newNumber, float newX, float newY) {
+        if (!numeric || newNumber != number || newX != x || newY != y) {
+            numeric = true;
+            number = newNumber;
+            text = String.valueOf(newNumber);
+            layout(newX, newY);
+        }
+    }
+
+    private void layout(float newX, float newY) {
+        x = newX;
+        y = newY;
+        cache.clear();
+        if (text != null) {
+            cache.setText(text, x, y, 0, align, false);
+            cache.setAlphas(alpha);
+        }
+    }
+
+    public void setAlpha(float newAlpha) {
+        if (newAlpha != alpha) {
+            alpha = newAlpha;
+            cache.setAlphas(alpha);
+        }
+    }
+
+    public void draw(Batch batch) {
+        if (text != null) {
+            cache.draw(batch);
+        }
+    }
+
+    public static HudText centered(BitmapFont font) {
+        return new HudText(font, Align.center);
+    }
+
+    public static HudText leftAligned(BitmapFont font) {
+        return new HudText(font, Align.left);
+    }
+}
@@ -0,0 +1,116 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+public class LevelDiff { //changed indices per list (incl. added and removed ones) between two versions of the same level
+    private final int levelId;
+    private final LevelInfo oldLevel;
+    private final LevelInfo newLevel;
+    private final IntArray circles = new IntArray();
+    private final IntArray walls = new IntArray();
+    private final IntArray beams = new IntArray();
+    private final IntArray rotatables = new IntArray();
+    private final IntArray switches = new IntArray();
+    private final boolean introChanged;
+
+    public LevelDiff(LevelInfo oldLevel, LevelInfo newLevel) {
+        this.levelId = newLevel.getId();
+        this.oldLevel = oldLevel;
+        this.newLevel = newLevel;
+        diff(oldLevel.getCircles(), newLevel.getCircles(), circles, LevelDiff::sameCircle);
+        diff(oldLevel.getWalls(), newLevel.getWalls(), walls, LevelDiff::sameWall);
+        diff(oldLevel.getBeams(), newLevel.getBeams(), beams, LevelDiff::sameBeam);
+        diff(oldLevel.getRotatables(), newLevel.getRotatables(), rotatables, LevelDiff::sameRotatable);
+        diff(oldLevel.getSwitches(), newLevel.getSwitches(), switches, LevelDiff::sameSwitch);
+        //switches hold references to their beams/rotatables, so rebuilt targets drag their switches along
+        for (int i = 0; i < newLevel.getSwitches().size(); i++) {
+            if (!switches.contains(i) && (referencesAny(newLevel.getSwitches().get(i).getBeams(), beams) || referencesAny(newLevel.getSwitches().get(i).getRotatables(), rotatables))) {
+                switches.add(i);
+            }
+        }
+        introChanged = oldLevel.getIntro() == null ? newLevel.getIntro() != null : !oldLevel.getIntro().equals(newLevel.getIntro());
+    }
+
+    private static <T> void diff(ArrayList<T> oldList, ArrayList<T> newList, IntArray out, BiPredicate<T, T> same) {
+        int max = Math.max(oldList.size(), newList.size());
+        for (int i = 0; i < max; i++) {
+            if (i >= oldList.size() || i >= newList.size() || !same.test(oldList.get(i), newList.get(i))) {
+                out.add(i);
+            }
+        }
+    }
+
+    private static boolean referencesAny(int[] indices, IntArray changed) {
+        for (int index : indices) {
+            if (changed.contains(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameCircle(CircleInfo a, CircleInfo b) {
+        return a.getX() == b.getX() && a.getY() == b.getY() && a.getRadius() == b.getRadius() && a.getAngle() == b.getAngle() && a.getType() == b.getType();
+    }
+
+    private static boolean sameWall(WallInfo a, WallInfo b) {
+        return a.getX() == b.getX() && a.getY() == b.getY() && a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight() && a.getAngle() == b.getAngle() && a.getType() == b.getType();
+    }
+
+    private static boolean sameBeam(BeamInfo a, BeamInfo b) {
+        return sameWall(a, b) && a.getColorType() == b.getColorType() && a.isActive() == b.isActive();
+    }
+
+    private static boolean sameSwitch(SwitchInfo a, SwitchInfo b) {
+        return sameWall(a, b) && a.getSwitchType() == b.getSwitchType() && Arrays.equals(a.getBeams(), b.getBeams()) && Arrays.equals(a.getRotatables(), b.getRotatables());
+    }
+
+    private static boolean sameRotatable(RotatableInfo a, RotatableInfo b) {
+        return a.getX() == b.getX() && a.getY() == b.getY() && a.getAngle() == b.getAngle() && a.getType() == b.getType() && a.getPolygon() == b.getPolygon() && Arrays.equals(a.getVertices(), b.getVertices());
+    }
+
+    public boolean isEmpty() {
+        return circles.size == 0 && walls.size == 0 && beams.size == 0 && rotatables.size == 0 && switches.size == 0 && !introChanged;
+    }
+
+    public int getLevelId() {
+        return levelId;
+    }
+
+    public LevelInfo getOldLevel() {
+        return oldLevel;
+    }
+
+    public LevelInfo getNewLevel() {
+        return newLevel;
+    }
+
+    public IntArray getCircles() {
+        return circles;
+    }
+
+    public IntArray getWalls() {
+        return walls;
+    }
+
+    public IntArray getBeams() {
+        return beams;
+    }
+
+    public IntArray getRotatables() {
+        return rotatables;
+    }
+
+    public IntArray getSwitches() {
+        return switches;
+    }
+
+    @Override
+    public String toString() {
+        return "circles=" + circles.size + ", walls=" + walls.size + ", beams=" + beams.size + ", rotatables=" + rotatables.size + ", switches=" + switches.size + (introChanged ? ", intro" : "");
+    }
+}
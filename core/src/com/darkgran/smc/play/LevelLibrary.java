@@ -12,24 +12,36 @@ public class LevelLibrary {
         levels = json.fromJson(Array.class, LevelInfo.class, Gdx.files.internal(path) );
     }
 
-    public LevelInfo getLevel(int id) {
+    public static Array<LevelInfo> parse(String levelsJson) {
+        Json json = new Json();
+        return json.fromJson(Array.class, LevelInfo.class, levelsJson);
+    }
+
+    public static LevelInfo findLevel(Array<LevelInfo> levels, int id) {
         if (id >= 0) {
-            for (LevelInfo levelInfo : levels) {
-                if (levelInfo.getId() == id) {
-                    return levelInfo;
+            for (int i = 0; i < levels.size; i++) { //indexed: may run on the LevelWatcher thread (Array's iterators are shared)
+                if (levels.get(i).getId() == id) {
+                    return levels.get(i);
                 }
             }
         }
         return null;
     }
 
+    public LevelInfo getLevel(int id) {
+        return findLevel(levels, id);
+    }
+
     public boolean levelExists(int id) {
-        for (LevelInfo levelInfo : levels) {
-            if (levelInfo.getId() == id) {
-                return true;
-            }
-        }
-        return false;
+        return findLevel(levels, id) != null;
+    }
+
+    public Array<LevelInfo> getLevels() {
+        return levels;
+    }
+
+    public void setLevels(Array<LevelInfo> levels) {
+        this.levels = levels;
     }
 
 }
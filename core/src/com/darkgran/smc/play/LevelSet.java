@@ -0,0 +1,53 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.concurrent.Future;
+
+public class LevelSet { //one built level in its own World: the active one is in the engine & stage, standby ones wait outside (see LevelStage.swapTo)
+    public static final int NONE = -1;
+    final World world;
+    final HashMap<ColorType, ArrayList<ColoredCircle>> circles = new HashMap<>();
+    final EnumMap<ColorType, Double> colorPowers = new EnumMap<>(ColorType.class);
+    final ArrayList<ColoredCircle> levelCircles = new ArrayList<>(); //by LevelInfo index (null when type NONE)
+    final ArrayList<Wall> walls = new ArrayList<>();
+    final ArrayList<Beam> beams = new ArrayList<>();
+    final ArrayList<RotatableChainObject> rotatables = new ArrayList<>();
+    final ArrayList<StandardSwitch> switches = new ArrayList<>();
+    final LevelSnapshot snapshot = new LevelSnapshot();
+    //Standby only (the active set lives in the engine & stage)
+    final ArrayList<Entity> entities = new ArrayList<>();
+    final ArrayList<Actor> actors = new ArrayList<>();
+    //Build (decoded on the LevelDecoder, then sliced)
+    Future<LevelInfo> decoding;
+    LevelInfo building;
+    int buildPhase = 0;
+    int buildIndex = 0;
+    int buildDone = 0;
+    int buildTotal = 0;
+    int levelNum = NONE;
+    LevelInfo loadedLevel;
+    boolean played = false; //was active since the build: needs restartLevel before it's fresh again
+
+    public LevelSet(World world) {
+        this.world = world;
+    }
+
+    public boolean holds(int levelNum) {
+        return this.levelNum == levelNum && levelNum != NONE;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getLevelNum() {
+        return levelNum;
+    }
+
+}
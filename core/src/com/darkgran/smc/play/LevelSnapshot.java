@@ -0,0 +1,152 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.darkgran.smc.play.components.GrowthComponent;
+import com.darkgran.smc.play.components.LockComponent;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.MotionComponent;
+import com.darkgran.smc.play.systems.CircleStepSystem;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+public class LevelSnapshot { //post-load state of a level in one buffer, restored into the same objects on restart
+    private static final int CIRCLE_BYTES = 1 + 6*4 + 2*8 + 1 + 4 + 2*4; //presence, transform+velocity+speed, radius+buffer, flags, angular velocity, lock timers
+    private static final int BEAM_BYTES = 2;
+    private static final int ROTATABLE_BYTES = 5*4;
+    private static final int FLAG_MERGING_AWAY = 1;
+    private static final int FLAG_GONE = 2;
+    private static final int FLAG_FRESH_SHARD = 4;
+    private static final int FLAG_STUCK = 8;
+    private static final int FLAG_INTERACTION_LOCK = 16;
+    private static final int FLAG_BREAK_LOCK = 32;
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+    private int levelId = -1;
+    private LevelInfo levelInfo;
+
+    public void capture(int levelId, LevelInfo levelInfo, ArrayList<ColoredCircle> circles, ArrayList<Beam> beams, ArrayList<RotatableChainObject> rotatables, EnumMap<ColorType, Double> colorPowers) {
+        this.levelId = levelId;
+        this.levelInfo = levelInfo;
+        int size = circles.size()*CIRCLE_BYTES + beams.size()*BEAM_BYTES + rotatables.size()*ROTATABLE_BYTES + COLOR_TYPES.length*8;
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.clear();
+        for (ColoredCircle circle : circles) {
+            if (circle == null) {
+                buffer.put((byte) 0);
+                buffer.position(buffer.position() + CIRCLE_BYTES - 1);
+                continue;
+            }
+            buffer.put((byte) 1);
+            Body body = circle.getCircleBody().getBody();
+            GrowthComponent growth = Mappers.GROWTH.get(circle.getEntity());
+            MotionComponent motion = Mappers.MOTION.get(circle.getEntity());
+            LockComponent lock = Mappers.LOCK.get(circle.getEntity());
+            buffer.putFloat(body.getPosition().x).putFloat(body.getPosition().y).putFloat(body.getAngle());
+            buffer.putFloat(body.getLinearVelocity().x).putFloat(body.getLinearVelocity().y).putFloat(motion.speed);
+            buffer.putDouble(circle.getRadius()).putDouble(growth.growBuffer);
+            int flags = (growth.mergingAway ? FLAG_MERGING_AWAY : 0) | (growth.gone ? FLAG_GONE : 0) | (growth.freshShard ? FLAG_FRESH_SHARD : 0) | (motion.stuck ? FLAG_STUCK : 0)
+                    | (lock.interactionLock.isEnabled() ? FLAG_INTERACTION_LOCK : 0) | (lock.breakLock.isEnabled() ? FLAG_BREAK_LOCK : 0);
+            buffer.put((byte) flags);
+            buffer.putFloat(body.getAngularVelocity());
+            buffer.putInt(lock.interactionLock.getTimer()).putInt(lock.breakLock.getTimer());
+        }
+        for (Beam beam : beams) {
+            buffer.put((byte) (beam != null && beam.isEnabled() ? 1 : 0));
+            buffer.put((byte) (beam != null ? beam.getColorType().ordinal() : 0));
+        }
+        for (RotatableChainObject rotatable : rotatables) {
+            Body body = rotatable != null ? rotatable.getChainBody().getBody() : null;
+            buffer.putFloat(body != null ? body.getPosition().x : 0).putFloat(body != null ? body.getPosition().y : 0);
+            buffer.putFloat(body != null ? body.getAngle() : 0).putFloat(body != null ? body.getAngularVelocity() : 0);
+            buffer.putFloat(rotatable != null ? rotatable.getAngle() : 0);
+        }
+        for (ColorType colorType : COLOR_TYPES) {
+            Double power = colorPowers.get(colorType);
+            buffer.putDouble(power != null ? power : -1);
+        }
+        buffer.flip();
+    }
+
+    public boolean matches(int levelId, LevelInfo levelInfo) {
+        return this.levelId == levelId && this.levelInfo == levelInfo;
+    }
+
+    public void restore(ArrayList<ColoredCircle> circles, ArrayList<Beam> beams, ArrayList<RotatableChainObject> rotatables, EnumMap<ColorType, Double> colorPowers) { //same lists as captured, circles already back in the world
+        buffer.rewind();
+        for (int i = 0; i < circles.size(); i++) { //indexed, no iterators
+            ColoredCircle circle = circles.get(i);
+            if (buffer.get() == 0) {
+                buffer.position(buffer.position() + CIRCLE_BYTES - 1);
+                continue;
+            }
+            Body body = circle.getCircleBody().getBody();
+            GrowthComponent growth = Mappers.GROWTH.get(circle.getEntity());
+            MotionComponent motion = Mappers.MOTION.get(circle.getEntity());
+            LockComponent lock = Mappers.LOCK.get(circle.getEntity());
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            body.setTransform(x, y, buffer.getFloat());
+            float velX = buffer.getFloat();
+            float velY = buffer.getFloat();
+            body.setLinearVelocity(velX, velY);
+            float speed = buffer.getFloat();
+            double radius = buffer.getDouble();
+            growth.growBuffer = buffer.getDouble();
+            int flags = buffer.get();
+            growth.mergingAway = (flags & FLAG_MERGING_AWAY) != 0;
+            growth.gone = (flags & FLAG_GONE) != 0;
+            growth.freshShard = (flags & FLAG_FRESH_SHARD) != 0;
+            motion.stuck = (flags & FLAG_STUCK) != 0;
+            body.setAngularVelocity(buffer.getFloat());
+            lock.interactionLock.setEnabled((flags & FLAG_INTERACTION_LOCK) != 0);
+            lock.interactionLock.setTimer(buffer.getInt());
+            lock.breakLock.setEnabled((flags & FLAG_BREAK_LOCK) != 0);
+            lock.breakLock.setTimer(buffer.getInt());
+            CircleStepSystem.applyRadius(circle.getEntity(), radius);
+            motion.speed = speed;
+            circle.refreshActorBounds();
+        }
+        for (int i = 0; i < beams.size(); i++) {
+            Beam beam = beams.get(i);
+            boolean closed = buffer.get() == 1;
+            ColorType colorType = COLOR_TYPES[buffer.get()];
+            if (beam != null) {
+                beam.setEnabled(closed);
+                beam.setType(colorType);
+            }
+        }
+        for (int i = 0; i < rotatables.size(); i++) {
+            RotatableChainObject rotatable = rotatables.get(i);
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            float angle = buffer.getFloat();
+            float angularVelocity = buffer.getFloat();
+            float targetAngle = buffer.getFloat();
+            if (rotatable != null) {
+                Body body = rotatable.getChainBody().getBody();
+                body.setTransform(x, y, angle);
+                body.setAngularVelocity(angularVelocity);
+                rotatable.setAngle(targetAngle);
+            }
+        }
+        for (int i = 0; i < COLOR_TYPES.length; i++) {
+            ColorType colorType = COLOR_TYPES[i];
+            double power = buffer.getDouble();
+            if (power >= 0) {
+                Double current = colorPowers.get(colorType);
+                if (current == null || current != power) { colorPowers.put(colorType, power); } //usually unchanged, skips the boxing
+            } else {
+                colorPowers.remove(colorType);
+            }
+        }
+    }
+
+    public int getSize() {
+        return buffer.limit();
+    }
+
+}
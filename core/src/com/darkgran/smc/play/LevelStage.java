@@ -1,25 +1,43 @@
 package com.darkgran.smc.play;
 
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.physics.box2d.MassData;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.viewport.Viewport;
+import com.darkgran.smc.NativeTracker;
 import com.darkgran.smc.SaveMeCircles;
+import com.darkgran.smc.WorldAssets;
 import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.*;
+import com.darkgran.smc.play.events.GameEventBus;
+import com.darkgran.smc.play.systems.*;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class LevelStage extends Stage {
     public static final double COMFORT_RADIUS = 0.1;
@@ -28,17 +46,45 @@ public class LevelStage extends Stage {
     public static final double MIN_RADIUS_CHANGE = 0.001;
     public static final double PC_SIZE = 0.2;
     public static final LevelLibrary LEVEL_LIBRARY = new LevelLibrary();
+    public static final String LEVELS_PATH = "content/levels.json";
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
     private final WorldScreen worldScreen;
     private final Stage UIStage;
-    private final HashMap<ColorType, ArrayList<ColoredCircle>> circles = new HashMap<>();
     private final HashMap<CircleInfo, Boolean> circlesToAdd = new HashMap<>();
-    private final EnumMap<ColorType, Double> colorPowers = new EnumMap<>(ColorType.class);
-    private final ArrayList<Wall> walls = new ArrayList<>();
-    private final ArrayList<Beam> beams = new ArrayList<>();
-    private final ArrayList<StandardSwitch> switches = new ArrayList<>();
-    private final ArrayList<RotatableChainObject> rotatables = new ArrayList<>();
+    //Active level (aliases of active's lists, see useSet)
+    private LevelSet active;
+    private HashMap<ColorType, ArrayList<ColoredCircle>> circles;
+    private EnumMap<ColorType, Double> colorPowers;
+    private ArrayList<ColoredCircle> levelCircles; //by LevelInfo index (null when type NONE)
+    private ArrayList<Wall> walls;
+    private ArrayList<Beam> beams;
+    private ArrayList<RotatableChainObject> rotatables;
+    private ArrayList<StandardSwitch> switches;
+    private LevelSnapshot snapshot;
+    //Standby: currentLevel±1 prebuilt in their own Worlds during idle frames, so Continue/LEFT/RIGHT only swap sets
+    private final LevelSet[] standby = new LevelSet[2];
+    private static final long STANDBY_SLICE_NANOS = (long) (Float.parseFloat(System.getProperty("smc.standbySliceMs", "2")) * 1000000); //0 disables
+    private final Array<Body> bodyScratch = new Array<>();
+    private LevelSet buildTarget; //set whose World new bodies go to (see getBuildWorld)
+    private final Engine engine = new Engine();
+    private final ImmutableArray<Entity> bodyEntities = engine.getEntitiesFor(Family.all(PhysicsComponent.class).get());
+    private final ImmutableArray<Entity> actorEntities = engine.getEntitiesFor(Family.all(ActorComponent.class).get());
+    private final ImmutableArray<Entity> spriteEntities = engine.getEntitiesFor(Family.all(SpriteComponent.class).exclude(StaticLayerComponent.class).get());
+    private final StaticLayer staticLayer = new StaticLayer(engine.getEntitiesFor(StaticLayer.FAMILY));
+    private final GameEventBus eventBus = new GameEventBus();
+    private int nextCircleId = 0;
+    private final IntMap<ColoredCircle> levelById = new IntMap<>(); //restart/rewind lookups, rebuilt once per restore
+    private final IntMap<ColoredCircle> liveById = new IntMap<>();
+    private static final int BUILD_IDLE = 0, BUILD_DECODING = 1, BUILD_CIRCLES = 2, BUILD_WALLS = 3, BUILD_BEAMS = 4, BUILD_ROTATABLES = 5, BUILD_SWITCHES = 6;
+    private static final long BUILD_SLICE_NANOS = (long) (Float.parseFloat(System.getProperty("smc.buildSliceMs", "4")) * 1000000);
+    private final ExecutorService levelDecoder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LevelDecoder");
+        thread.setDaemon(true);
+        return thread;
+    });
     private ColoredCircle lastTouch;
     private int currentLevel = -1;
+    private LevelWatcher levelWatcher;
     private boolean completed = false;
     private float timer = 0;
     private int frameCounter = 0;
@@ -46,195 +92,423 @@ public class LevelStage extends Stage {
     private String introMessage;
     private PlayerCircle playerCircle = null;
     private final GhostCircle ghostCircle;
-    private final Texture texWall = new Texture("images/wall.png"); //in-future: move to atlas
-    private final Texture texWallW = new Texture("images/wallW.png");
-    private final Texture texWallB = new Texture("images/wallB.png");
-    private final Texture texWallG = new Texture("images/wallG.png");
-    private final Texture texMediumWall = new Texture("images/mediumWall.png");
-    private final Texture texMediumWallW = new Texture("images/mediumWallW.png");
-    private final Texture texMediumWallB = new Texture("images/mediumWallB.png");
-    private final Texture texMediumWallG = new Texture("images/mediumWallG.png");
-    private final Texture texBigWall = new Texture("images/bigWall.png");
-    private final Texture texBigWallW = new Texture("images/bigWallW.png");
-    private final Texture texBigWallB = new Texture("images/bigWallB.png");
-    private final Texture texBigWallG = new Texture("images/bigWallG.png");
-    private final Texture texTriangle = new Texture("images/triangle.png");
-    private final Texture soTex = new Texture("images/switch_over.png");
-    private final Texture pcTex = new Texture("images/circle.png");
+    private final HudText introText;
+    private final HudText timerText;
+    private final Texture texWall; //in-future: move to atlas
+    private final Texture texWallW;
+    private final Texture texWallB;
+    private final Texture texWallG;
+    private final Texture texMediumWall;
+    private final Texture texMediumWallW;
+    private final Texture texMediumWallB;
+    private final Texture texMediumWallG;
+    private final Texture texBigWall;
+    private final Texture texBigWallW;
+    private final Texture texBigWallB;
+    private final Texture texBigWallG;
+    private final Texture texTriangle;
+    private final Texture soTex;
+    private final Texture pcTex;
 
     public LevelStage(final WorldScreen worldScreen, final Stage UIStage, Viewport viewport) {
         super(viewport);
+        NativeTracker.track(this, NativeTracker.Kind.RENDERER);
         this.worldScreen = worldScreen;
         this.UIStage = UIStage;
+        useSet(new LevelSet(worldScreen.getWorld()));
+        WorldAssets assets = worldScreen.getAssets();
+        texWall = assets.getTexture(WorldAssets.WALL);
+        texWallW = assets.getTexture(WorldAssets.WALL_W);
+        texWallB = assets.getTexture(WorldAssets.WALL_B);
+        texWallG = assets.getTexture(WorldAssets.WALL_G);
+        texMediumWall = assets.getTexture(WorldAssets.MEDIUM_WALL);
+        texMediumWallW = assets.getTexture(WorldAssets.MEDIUM_WALL_W);
+        texMediumWallB = assets.getTexture(WorldAssets.MEDIUM_WALL_B);
+        texMediumWallG = assets.getTexture(WorldAssets.MEDIUM_WALL_G);
+        texBigWall = assets.getTexture(WorldAssets.BIG_WALL);
+        texBigWallW = assets.getTexture(WorldAssets.BIG_WALL_W);
+        texBigWallB = assets.getTexture(WorldAssets.BIG_WALL_B);
+        texBigWallG = assets.getTexture(WorldAssets.BIG_WALL_G);
+        texTriangle = assets.getTexture(WorldAssets.TRIANGLE);
+        soTex = assets.getTexture(WorldAssets.SWITCH_OVER);
+        pcTex = assets.getTexture(WorldAssets.PLAYER_CIRCLE);
         ghostCircle = new GhostCircle(this, (float) PC_SIZE, 3, 40);
-        LEVEL_LIBRARY.loadLocal("content/levels.json");
+        introText = HudText.centered(worldScreen.getFont());
+        timerText = HudText.leftAligned(worldScreen.getFont());
+        setupSystems();
+        engine.addEntityListener(StaticLayer.FAMILY, staticLayer);
+        if (LEVEL_LIBRARY.getLevels() == null) { //normally parsed while the intro plays
+            LEVEL_LIBRARY.loadLocal(LEVELS_PATH);
+        }
+        if (Boolean.getBoolean(LevelWatcher.HOT_RELOAD_PROPERTY)) {
+            levelWatcher = new LevelWatcher(this, LEVELS_PATH);
+            levelWatcher.start();
+        }
+    }
+
+    private void setupSystems() { //priority = order within a step
+        engine.addSystem(new CorpseSystem(this, 0));
+        engine.addSystem(new LockSystem(1));
+        engine.addSystem(new CircleStepSystem(2, worldScreen.getMutations(), worldScreen.getReadback()));
+        engine.addSystem(new RotationSystem(3, worldScreen.getMutations()));
+        engine.addSystem(new ActorBoundsSystem(4));
+        engine.addSystem(new SpriteSyncSystem(5, worldScreen.getReadback()));
     }
 
     public void loadLevel(int levelNum) {
         if (levelNum >= 0) {
-            clearLevel();
-            timer = 0;
-            frameCounter = 0;
-            seconds = 0;
-            completed = false;
-            System.out.println("Launching Level: " + levelNum);
-            currentLevel = levelNum;
-            LevelInfo levelInfo = LEVEL_LIBRARY.getLevel(levelNum);
-            if (levelInfo != null) {
-                //Circles
-                ArrayList<ColoredCircle> whites = new ArrayList<>();
-                double whitePower = 0;
-                ArrayList<ColoredCircle> blues = new ArrayList<>();
-                double bluePower = 0;
-                ArrayList<ColoredCircle> greens = new ArrayList<>();
-                double greenPower = 0;
-                ArrayList<ColoredCircle> reds = new ArrayList<>();
-                double redPower = 0;
-                for (CircleInfo circleInfo : levelInfo.getCircles()) {
-                    switch (circleInfo.getType()) {
-                        case WHITE:
-                            whites.add(new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), circleInfo.getRadius(), circleInfo.getAngle(), ColorType.WHITE));
-                            whitePower += Math.max(circleInfo.getRadius(), ColorType.WHITE.getMinRadius());
-                            break;
-                        case BLUE:
-                            blues.add(new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), circleInfo.getRadius(), circleInfo.getAngle(), ColorType.BLUE));
-                            bluePower += Math.max(circleInfo.getRadius(), ColorType.BLUE.getMinRadius());
-                            break;
-                        case GREEN:
-                            greens.add(new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), circleInfo.getRadius(), circleInfo.getAngle(), ColorType.GREEN));
-                            greenPower += Math.max(circleInfo.getRadius(), ColorType.GREEN.getMinRadius());
-                            break;
-                        case RED:
-                            reds.add(new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), circleInfo.getRadius(), circleInfo.getAngle(), ColorType.RED));
-                            redPower += Math.max(circleInfo.getRadius(), ColorType.RED.getMinRadius());
-                            break;
-                    }
-                }
-                if (whitePower > 0 && whites.size() > 0) {
-                    circles.put(ColorType.WHITE, whites);
-                    colorPowers.put(ColorType.WHITE, whitePower);
+            startLoading(levelNum, () -> LEVEL_LIBRARY.getLevel(levelNum));
+        }
+    }
+
+    public void loadLevel(int levelNum, String levelJson) { //generated/community level: the json is parsed on the decoder thread too
+        if (levelNum >= 0) {
+            startLoading(levelNum, () -> LevelLibrary.findLevel(LevelLibrary.parse(levelJson), levelNum));
+        }
+    }
+
+    //Loading: decoded on a worker, then built a few entities per frame (see continueLoading)
+    private void startLoading(int levelNum, Callable<LevelInfo> decode) {
+        clearLevel();
+        eventBus.clear();
+        worldScreen.getRewindBuffer().clear();
+        timer = 0;
+        frameCounter = 0;
+        seconds = 0;
+        completed = false;
+        System.out.println("Launching Level: " + levelNum);
+        currentLevel = levelNum;
+        beginBuild(active, levelNum, decode);
+    }
+
+    private void beginBuild(LevelSet set, int levelNum, Callable<LevelInfo> decode) {
+        if (set.decoding != null) {
+            set.decoding.cancel(true); //superseded
+        }
+        set.levelNum = levelNum;
+        set.played = false;
+        set.building = null;
+        set.buildPhase = BUILD_DECODING;
+        set.buildDone = 0;
+        set.buildTotal = 0;
+        set.decoding = levelDecoder.submit(decode);
+    }
+
+    public boolean continueLoading() { //true once the level is complete; spends at most one build slice per call
+        return continueBuild(active, BUILD_SLICE_NANOS);
+    }
+
+    private boolean continueBuild(LevelSet set, long sliceNanos) {
+        if (set.buildPhase == BUILD_DECODING) {
+            if (!set.decoding.isDone()) {
+                return false;
+            }
+            try {
+                set.building = set.decoding.get();
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                set.building = null;
+            }
+            set.decoding = null;
+            if (set.building == null) {
+                System.out.println("Level-Loading Error!");
+                set.buildPhase = BUILD_IDLE;
+                if (set != active) { set.levelNum = LevelSet.NONE; }
+                return true;
+            }
+            set.loadedLevel = set.building;
+            set.buildTotal = set.building.getCircles().size() + set.building.getWalls().size() + set.building.getBeams().size() + set.building.getRotatables().size() + set.building.getSwitches().size();
+            set.buildPhase = BUILD_CIRCLES;
+            set.buildIndex = 0;
+        }
+        long deadline = System.nanoTime() + sliceNanos;
+        buildTarget = set;
+        while (set.buildPhase != BUILD_IDLE && System.nanoTime() < deadline) {
+            buildNext(set);
+        }
+        buildTarget = null;
+        return set.buildPhase == BUILD_IDLE;
+    }
+
+    private void buildNext(LevelSet set) { //one entity, in the order loadLevel always used (switches need beams & rotatables)
+        LevelInfo building = set.building;
+        switch (set.buildPhase) {
+            case BUILD_CIRCLES:
+                if (set.buildIndex < building.getCircles().size()) {
+                    set.levelCircles.add(createLevelCircle(set, building.getCircles().get(set.buildIndex++)));
+                    set.buildDone++;
+                    return;
                 }
-                if (bluePower > 0 && blues.size() > 0) {
-                    circles.put(ColorType.BLUE, blues);
-                    colorPowers.put(ColorType.BLUE, bluePower);
+                break;
+            case BUILD_WALLS:
+                if (set.buildIndex < building.getWalls().size()) {
+                    set.walls.add(createWall(set, building.getWalls().get(set.buildIndex++)));
+                    set.buildDone++;
+                    return;
                 }
-                if (greenPower > 0 && greens.size() > 0) {
-                    circles.put(ColorType.GREEN, greens);
-                    colorPowers.put(ColorType.GREEN, greenPower);
+                break;
+            case BUILD_BEAMS:
+                if (set.buildIndex < building.getBeams().size()) {
+                    set.beams.add(createBeam(set, building.getBeams().get(set.buildIndex++)));
+                    set.buildDone++;
+                    return;
                 }
-                if (redPower > 0 && reds.size() > 0) {
-                    circles.put(ColorType.RED, reds);
-                    colorPowers.put(ColorType.RED, redPower);
+                break;
+            case BUILD_ROTATABLES:
+                if (set.buildIndex < building.getRotatables().size()) {
+                    set.rotatables.add(createRotatable(set, building.getRotatables().get(set.buildIndex++)));
+                    set.buildDone++;
+                    return;
                 }
-                setupActors();
-                //Obstacles
-                for (WallInfo wallInfo : levelInfo.getWalls()) { //Wall Textures (in-future: move to atlas manager)
-                    Texture tex = texWall;
-                    if (wallInfo.getHeight() < 5) {
-                        switch (wallInfo.getType()) {
-                            case WHITE:
-                                tex = texWallW;
-                                break;
-                            case BLUE:
-                                tex = texWallB;
-                                break;
-                            case GREEN:
-                                tex = texWallG;
-                                break;
-                        }
-                    } else if (wallInfo.getHeight() < 10) {
-                        switch (wallInfo.getType()) {
-                            default:
-                                tex = texMediumWall;
-                                break;
-                            case WHITE:
-                                tex = texMediumWallW;
-                                break;
-                            case BLUE:
-                                tex = texMediumWallB;
-                                break;
-                            case GREEN:
-                                tex = texMediumWallG;
-                                break;
-                        }
-                    } else {
-                        switch (wallInfo.getType()) {
-                            default:
-                                tex = texBigWall;
-                                break;
-                            case WHITE:
-                                tex = texBigWallW;
-                                break;
-                            case BLUE:
-                                tex = texBigWallB;
-                                break;
-                            case GREEN:
-                                tex = texBigWallG;
-                                break;
-                        }
-                    }
-                    walls.add(new Wall(this, wallInfo.getX(), wallInfo.getY(), wallInfo.getWidth()/2, wallInfo.getHeight()/2, (float) (wallInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS), wallInfo.getType(), tex));
+                break;
+            case BUILD_SWITCHES:
+                if (set.buildIndex < building.getSwitches().size()) {
+                    set.switches.add(createSwitch(set, building.getSwitches().get(set.buildIndex++)));
+                    set.buildDone++;
+                    return;
                 }
-                for (BeamInfo beamInfo : levelInfo.getBeams()) {
-                    beams.add(new Beam(this, beamInfo.getX(), beamInfo.getY(), beamInfo.getWidth()/2, beamInfo.getHeight()/2, beamInfo.getAngle(), beamInfo.getColorType(), beamInfo.isActive()));
+                //Finish
+                if (set == active) { introMessage = building.getIntro(); }
+                set.snapshot.capture(set.levelNum, building, set.levelCircles, set.beams, set.rotatables, set.colorPowers);
+                set.building = null;
+                set.buildPhase = BUILD_IDLE;
+                return;
+        }
+        set.buildPhase++;
+        set.buildIndex = 0;
+    }
+
+    public boolean isLoading() {
+        return active.buildPhase != BUILD_IDLE;
+    }
+
+    public float getLoadingProgress() { //0 while decoding
+        return active.buildTotal == 0 ? 0 : (float) active.buildDone / active.buildTotal;
+    }
+
+    public World getBuildWorld() { //where new bodies go: a standby's World while it's being built, the live one otherwise
+        return (buildTarget != null ? buildTarget : active).world;
+    }
+
+    private void attach(LevelSet set, Entity entity, Actor actor) { //standby sets keep their entities & actors until swapTo
+        if (set == active) {
+            engine.addEntity(entity);
+            if (actor != null) { addActor(actor); }
+        } else {
+            set.entities.add(entity);
+            if (actor != null) { set.actors.add(actor); }
+        }
+    }
+
+    private ColoredCircle createLevelCircle(LevelSet set, CircleInfo circleInfo) {
+        if (circleInfo.getType() == ColorType.NONE) {
+            return null;
+        }
+        ColoredCircle circle = new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), circleInfo.getRadius(), circleInfo.getAngle(), circleInfo.getType());
+        circle.setCircleId(nextCircleId++);
+        if (!set.circles.containsKey(circle.getColorType())) {
+            set.circles.put(circle.getColorType(), new ArrayList<>());
+            set.colorPowers.put(circle.getColorType(), 0d);
+        }
+        set.circles.get(circle.getColorType()).add(circle);
+        set.colorPowers.put(circle.getColorType(), set.colorPowers.get(circle.getColorType())+getInfoPower(circleInfo));
+        attach(set, circle.getEntity(), circle);
+        addCircleClicks(circle);
+        return circle;
+    }
+
+    private static double getInfoPower(CircleInfo circleInfo) {
+        return Math.max(circleInfo.getRadius(), circleInfo.getType().getMinRadius());
+    }
+
+    private Wall createWall(LevelSet set, WallInfo wallInfo) {
+        Wall wall = new Wall(this, wallInfo.getX(), wallInfo.getY(), wallInfo.getWidth()/2, wallInfo.getHeight()/2, (float) (wallInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS), wallInfo.getType(), getWallTexture(wallInfo));
+        attach(set, wall.getEntity(), null);
+        return wall;
+    }
+
+    private Texture getWallTexture(WallInfo wallInfo) { //in-future: move to atlas manager
+        Texture tex = texWall;
+        if (wallInfo.getHeight() < 5) {
+            switch (wallInfo.getType()) {
+                case WHITE:
+                    tex = texWallW;
+                    break;
+                case BLUE:
+                    tex = texWallB;
+                    break;
+                case GREEN:
+                    tex = texWallG;
+                    break;
+            }
+        } else if (wallInfo.getHeight() < 10) {
+            switch (wallInfo.getType()) {
+                default:
+                    tex = texMediumWall;
+                    break;
+                case WHITE:
+                    tex = texMediumWallW;
+                    break;
+                case BLUE:
+                    tex = texMediumWallB;
+                    break;
+                case GREEN:
+                    tex = texMediumWallG;
+                    break;
+            }
+        } else {
+            switch (wallInfo.getType()) {
+                default:
+                    tex = texBigWall;
+                    break;
+                case WHITE:
+                    tex = texBigWallW;
+                    break;
+                case BLUE:
+                    tex = texBigWallB;
+                    break;
+                case GREEN:
+                    tex = texBigWallG;
+                    break;
+            }
+        }
+        return tex;
+    }
+
+    private Beam createBeam(LevelSet set, BeamInfo beamInfo) {
+        Beam beam = new Beam(this, beamInfo.getX(), beamInfo.getY(), beamInfo.getWidth()/2, beamInfo.getHeight()/2, beamInfo.getAngle(), beamInfo.getColorType(), beamInfo.isActive());
+        attach(set, beam.getEntity(), null);
+        return beam;
+    }
+
+    private RotatableChainObject createRotatable(LevelSet set, RotatableInfo rotatableInfo) {
+        switch (rotatableInfo.getPolygon()) {
+            case TRIANGLE:
+                RotatableTriangle triangle = new RotatableTriangle(this, rotatableInfo.getX(), rotatableInfo.getY(), rotatableInfo.getVertices(), (float) (rotatableInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS), texTriangle);
+                attach(set, triangle.getEntity(), null);
+                return triangle;
+        }
+        return null;
+    }
+
+    private StandardSwitch createSwitch(LevelSet set, SwitchInfo switchInfo) {
+        Switchable[] b = new Switchable[switchInfo.getBeams().length];
+        for (int i = 0; i < b.length; i++) {
+            if (set.beams.get(switchInfo.getBeams()[i]) != null) {
+                b[i] = set.beams.get(switchInfo.getBeams()[i]);
+            }
+        }
+        Switchable[] r = new Switchable[switchInfo.getRotatables().length];
+        for (int i = 0; i < r.length; i++) {
+            if (set.rotatables.get(switchInfo.getRotatables()[i]) != null) {
+                r[i] = set.rotatables.get(switchInfo.getRotatables()[i]);
+            }
+        }
+        StandardSwitch standardSwitch = new StandardSwitch(this, switchInfo.getX(), switchInfo.getY(), switchInfo.getWidth()/2, switchInfo.getHeight()/2, switchInfo.getAngle(), b, r, switchInfo.getSwitchType(), soTex);
+        attach(set, standardSwitch.getEntity(), standardSwitch);
+        standardSwitch.addListener(new ClickListener() {
+            @Override
+            public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
+                if (event.getTarget() instanceof StandardSwitch) {
+                    ((StandardSwitch) event.getTarget()).click();
                 }
-                for (RotatableInfo rotatableInfo : levelInfo.getRotatables()) {
-                    switch (rotatableInfo.getPolygon()) {
-                        case TRIANGLE:
-                            rotatables.add(new RotatableTriangle(this, rotatableInfo.getX(), rotatableInfo.getY(), rotatableInfo.getVertices(), (float) (rotatableInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS), texTriangle));
-                            break;
+                return true;
+            }
+            @Override
+            public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
+                lastTouch = null;
+            }
+        });
+        return standardSwitch;
+    }
+
+    public void applyLevelDiff(LevelDiff diff) { //hot-reload: patches only the changed parts of the running level
+        if (isLoading() || diff.getLevelId() != currentLevel || diff.getOldLevel() != active.loadedLevel) {
+            return;
+        }
+        LevelInfo levelInfo = diff.getNewLevel();
+        active.loadedLevel = levelInfo;
+        worldScreen.getRewindBuffer().clear(); //recorded frames describe the old layout
+        //Circles
+        IntArray changed = diff.getCircles();
+        for (int n = 0; n < changed.size; n++) {
+            int i = changed.get(n);
+            if (i < levelCircles.size()) {
+                ColoredCircle old = levelCircles.get(i);
+                if (old != null) { //live or parked
+                    if (circles.containsKey(old.getColorType())) {
+                        circles.get(old.getColorType()).remove(old);
                     }
+                    if (old == lastTouch) { lastTouch = null; }
+                    destroyEntity(old.getEntity());
                 }
-                for (SwitchInfo switchInfo : levelInfo.getSwitches()) {
-                    Switchable[] b = new Switchable[switchInfo.getBeams().length];
-                    for (int i = 0; i < b.length; i++) {
-                        if (beams.get(switchInfo.getBeams()[i]) != null) {
-                            b[i] = beams.get(switchInfo.getBeams()[i]);
-                        }
+                if (i < diff.getOldLevel().getCircles().size()) {
+                    CircleInfo oldInfo = diff.getOldLevel().getCircles().get(i);
+                    if (colorPowers.containsKey(oldInfo.getType())) {
+                        colorPowers.put(oldInfo.getType(), colorPowers.get(oldInfo.getType())-getInfoPower(oldInfo));
                     }
-                    Switchable[] r = new Switchable[switchInfo.getRotatables().length];
-                    for (int i = 0; i < r.length; i++) {
-                        if (rotatables.get(switchInfo.getRotatables()[i]) != null) {
-                            r[i] = rotatables.get(switchInfo.getRotatables()[i]);
-                        }
-                    }
-                    StandardSwitch standardSwitch = new StandardSwitch(this, switchInfo.getX(), switchInfo.getY(), switchInfo.getWidth()/2, switchInfo.getHeight()/2, switchInfo.getAngle(), b, r, switchInfo.getSwitchType(), soTex);
-                    switches.add(standardSwitch);
-                    this.addActor(standardSwitch);
-                    standardSwitch.addListener(new ClickListener() {
-                        @Override
-                        public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
-                            if (event.getTarget() instanceof StandardSwitch) {
-                                ((StandardSwitch) event.getTarget()).click();
-                            }
-                            return true;
-                        }
-                        @Override
-                        public void touchUp(InputEvent event, float x, float y, int pointer, int button) {
-                            lastTouch = null;
-                        }
-                    });
                 }
-                //Finish
-                introMessage = levelInfo.getIntro();
-            } else {
-                System.out.println("Level-Loading Error!");
+            }
+        }
+        patchList(levelCircles, levelInfo.getCircles(), changed, info -> createLevelCircle(active, info), null);
+        //Obstacles
+        patchList(walls, levelInfo.getWalls(), diff.getWalls(), info -> createWall(active, info), wall -> destroyEntity(wall.getEntity()));
+        patchList(beams, levelInfo.getBeams(), diff.getBeams(), info -> createBeam(active, info), beam -> destroyEntity(beam.getEntity()));
+        patchList(rotatables, levelInfo.getRotatables(), diff.getRotatables(), info -> createRotatable(active, info), rotatable -> destroyEntity(rotatable.getEntity()));
+        patchList(switches, levelInfo.getSwitches(), diff.getSwitches(), info -> createSwitch(active, info), standardSwitch -> destroyEntity(standardSwitch.getEntity()));
+        introMessage = levelInfo.getIntro();
+        System.out.println("Level " + currentLevel + " hot-reloaded: " + diff);
+    }
+
+    private <I, O> void patchList(ArrayList<O> live, ArrayList<I> infos, IntArray changed, Function<I, O> create, Consumer<O> destroy) {
+        for (int n = 0; n < changed.size; n++) {
+            int i = changed.get(n);
+            if (i < live.size() && destroy != null && live.get(i) != null) {
+                destroy.accept(live.get(i));
+            }
+        }
+        while (live.size() > infos.size()) {
+            live.remove(live.size()-1);
+        }
+        for (int n = 0; n < changed.size; n++) {
+            int i = changed.get(n);
+            if (i < infos.size()) {
+                O created = create.apply(infos.get(i));
+                if (i < live.size()) {
+                    live.set(i, created);
+                } else {
+                    while (live.size() < i) { live.add(null); }
+                    live.add(created);
+                }
             }
         }
     }
 
+    private void destroyEntity(Entity entity) {
+        ActorComponent actorComponent = Mappers.ACTOR.get(entity);
+        if (actorComponent != null) {
+            if (actorComponent.actor.getListeners().size > 0) {
+                actorComponent.actor.removeListener(actorComponent.actor.getListeners().get(0));
+            }
+            actorComponent.actor.remove();
+            if (actorComponent.actor instanceof CircleActor) {
+                worldScreen.getCorpses().release(((CircleActor) actorComponent.actor).getHandle());
+            }
+        }
+        worldScreen.destroyBody(Mappers.PHYSICS.get(entity).body);
+        engine.removeEntity(entity);
+    }
+
     public void addCircle(CircleInfo circleInfo, boolean additive) {
         if (circleInfo.getRadius() >= ACTUAL_MIN_RADIUS) {
             ColoredCircle circle = new ColoredCircle(this, circleInfo.getX(), circleInfo.getY(), ACTUAL_MIN_RADIUS, circleInfo.getAngle(), circleInfo.getType());
+            circle.setCircleId(nextCircleId++);
             circle.setFreshShard(true);
             circle.addToGrow(circleInfo.getRadius()-ACTUAL_MIN_RADIUS);
             circle.setLockedFromInteractions(true);
             circle.setUnbreakable(true);
-            MassData md = new MassData();
-            md.mass = 0.1f*(float) ACTUAL_MIN_RADIUS;
-            circle.getCircleBody().getBody().setMassData(md);
-            circle.getCircleBody().getBody().resetMassData();
+            worldScreen.getMutations().setMass(circle.getCircleBody().getBody(), 0.1f*(float) ACTUAL_MIN_RADIUS);
             circles.get(circle.getColorType()).add(circle);
+            engine.addEntity(circle.getEntity());
             if (additive) { colorPowers.put(circle.getColorType(), colorPowers.get(circle.getColorType())+(float) circle.getRadius()); }
             addActor(circle);
             addCircleClicks(circle);
@@ -243,15 +517,6 @@ public class LevelStage extends Stage {
         }
     }
 
-    private void setupActors() {
-        for (Map.Entry<ColorType, ArrayList<ColoredCircle>> entry : circles.entrySet()) {
-            for (ColoredCircle circle : entry.getValue()) {
-                this.addActor(circle);
-                addCircleClicks(circle);
-            }
-        }
-    }
-
     private void addCircleClicks(ColoredCircle circle) {
         circle.addListener(new ClickListener() {
             @Override
@@ -271,12 +536,13 @@ public class LevelStage extends Stage {
     public void spawnPlayerCircle(float x, float y) {
         if (playerCircle == null) {
             playerCircle = new PlayerCircle(this, x, y, (float) PC_SIZE, pcTex);
+            engine.addEntity(playerCircle.getEntity());
             addActor(playerCircle);
             playerCircle.addListener(new ClickListener() {
                 @Override
                 public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
                     lastTouch = null;
-                    worldScreen.getCorpses().add(playerCircle);
+                    worldScreen.getCorpses().enqueue(playerCircle.getHandle()); //a second click before the reap is ignored
                     ghostCircle.getLock().setEnabled(true);
                     return true;
                 }
@@ -289,54 +555,407 @@ public class LevelStage extends Stage {
         }
     }
 
+    public boolean restartLevel() { //in place from the post-load snapshot; false when only a full reload will do (e.g. after a hot-reload)
+        if (isLoading() || !snapshot.matches(currentLevel, active.loadedLevel)) {
+            return false;
+        }
+        disableContinue();
+        eventBus.clear();
+        worldScreen.getRewindBuffer().clear();
+        circlesToAdd.clear();
+        lastTouch = null;
+        if (playerCircle != null) {
+            destroyEntity(playerCircle.getEntity());
+            playerCircle = null;
+        }
+        removeGhost();
+        indexLevelCircles();
+        //shards go, the level's own circles come back (merged ones were parked by the reaper)
+        for (int c = 0; c < COLOR_TYPES.length; c++) {
+            ArrayList<ColoredCircle> list = circles.get(COLOR_TYPES[c]);
+            if (list != null) {
+                for (int i = list.size()-1; i >= 0; i--) {
+                    if (levelById.get(list.get(i).getCircleId()) != list.get(i)) {
+                        destroyEntity(list.get(i).getEntity());
+                    }
+                }
+                list.clear();
+            }
+        }
+        for (int i = 0; i < levelCircles.size(); i++) {
+            ColoredCircle circle = levelCircles.get(i);
+            if (circle != null) {
+                reviveCircle(circle);
+                circles.get(circle.getColorType()).add(circle);
+            }
+        }
+        worldScreen.getMutations().discard();
+        snapshot.restore(levelCircles, beams, rotatables, colorPowers);
+        timer = 0;
+        frameCounter = 0;
+        seconds = 0;
+        completed = false;
+        introMessage = active.loadedLevel.getIntro();
+        return true;
+    }
+
+    private void indexLevelCircles() {
+        levelById.clear();
+        for (int i = 0; i < levelCircles.size(); i++) {
+            if (levelCircles.get(i) != null) {
+                levelById.put(levelCircles.get(i).getCircleId(), levelCircles.get(i));
+            }
+        }
+    }
+
+    public boolean isLevelCircle(ColoredCircle circle) {
+        return levelCircles.contains(circle);
+    }
+
+    public void parkCircle(ColoredCircle circle) { //level circles are deactivated instead of destroyed, so restart/rewind can bring them back
+        circle.remove();
+        worldScreen.getContactIndex().forget(circle.getCircleBody().getBody());
+        circle.getCircleBody().getBody().setActive(false);
+        engine.removeEntity(circle.getEntity());
+    }
+
+    private void reviveCircle(ColoredCircle circle) {
+        if (!circle.getCircleBody().getBody().isActive()) {
+            circle.getCircleBody().getBody().setActive(true);
+            engine.addEntity(circle.getEntity());
+            addActor(circle);
+        }
+        if (!worldScreen.getCorpses().isAlive(circle.getHandle()) || worldScreen.getCorpses().isQueued(circle.getHandle())) {
+            worldScreen.getCorpses().release(circle.getHandle()); //drops a pending reap too
+            circle.setHandle(worldScreen.getCorpses().register(circle));
+        }
+    }
+
+    //Rewind
+    public void captureFrame(RewindFrame frame) {
+        frame.step = eventBus.getStep();
+        frame.timer = timer;
+        frame.seconds = seconds;
+        frame.completed = completed;
+        frame.player = playerCircle != null;
+        BodyReadback readback = worldScreen.getReadback();
+        frame.playerX = playerCircle != null ? readback.getX(playerCircle.getPhysics()) : 0;
+        frame.playerY = playerCircle != null ? readback.getY(playerCircle.getPhysics()) : 0;
+        int count = 0;
+        for (int c = 0; c < COLOR_TYPES.length; c++) {
+            ArrayList<ColoredCircle> list = circles.get(COLOR_TYPES[c]);
+            count += list != null ? list.size() : 0;
+        }
+        frame.ensureCircles(count);
+        frame.circleCount = 0;
+        for (int c = 0; c < COLOR_TYPES.length; c++) {
+            ArrayList<ColoredCircle> list = circles.get(COLOR_TYPES[c]);
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    frame.readCircle(frame.circleCount++, list.get(i));
+                }
+            }
+        }
+        frame.ensureObstacles(beams.size(), rotatables.size());
+        frame.beamCount = beams.size();
+        for (int i = 0; i < beams.size(); i++) {
+            Beam beam = beams.get(i);
+            frame.beamState[i] = beam != null ? (beam.isEnabled() ? 1 : 0) | (beam.getColorType().ordinal() << 1) : 0;
+        }
+        frame.rotatableCount = rotatables.size();
+        for (int i = 0; i < rotatables.size(); i++) {
+            RotatableChainObject rotatable = rotatables.get(i);
+            if (rotatable != null) {
+                frame.rotatableAngle[i] = readback.getAngle(Mappers.PHYSICS.get(rotatable.getEntity()));
+                frame.rotatableVelocity[i] = rotatable.getChainBody().getBody().getAngularVelocity();
+                frame.rotatableTarget[i] = rotatable.getAngle();
+            }
+        }
+    }
+
+    public void applyFrame(RewindFrame frame) { //frame must be indexed (RewindBuffer does that)
+        worldScreen.getMutations().discard();
+        circlesToAdd.clear();
+        lastTouch = null;
+        removeGhost();
+        indexLevelCircles();
+        liveById.clear();
+        for (int c = 0; c < COLOR_TYPES.length; c++) {
+            ArrayList<ColoredCircle> list = circles.get(COLOR_TYPES[c]);
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    liveById.put(list.get(i).getCircleId(), list.get(i));
+                }
+            }
+        }
+        //Circles: drop the ones that didn't exist yet, bring back or recreate the rest
+        for (int c = 0; c < COLOR_TYPES.length; c++) {
+            ArrayList<ColoredCircle> list = circles.get(COLOR_TYPES[c]);
+            if (list != null) {
+                for (int i = list.size()-1; i >= 0; i--) {
+                    ColoredCircle circle = list.get(i);
+                    if (frame.indexOf(circle.getCircleId()) < 0) {
+                        list.remove(i);
+                        if (levelById.get(circle.getCircleId()) == circle) {
+                            parkCircle(circle);
+                            worldScreen.getCorpses().release(circle.getHandle());
+                        } else {
+                            destroyEntity(circle.getEntity());
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < frame.circleCount; i++) {
+            ColoredCircle circle = liveById.get(frame.id[i]); //gone ones were absent from the frame, so never asked for
+            if (circle == null) {
+                circle = levelById.get(frame.id[i]);
+                if (circle == null) { //a shard that was reaped since
+                    circle = new ColoredCircle(this, frame.x[i], frame.y[i], frame.radius[i], 0, frame.getColorType(i));
+                    circle.setCircleId(frame.id[i]);
+                    engine.addEntity(circle.getEntity());
+                    addActor(circle);
+                    addCircleClicks(circle);
+                } else {
+                    reviveCircle(circle);
+                }
+                if (!circles.containsKey(circle.getColorType())) {
+                    circles.put(circle.getColorType(), new ArrayList<>());
+                }
+                circles.get(circle.getColorType()).add(circle);
+            } else {
+                reviveCircle(circle);
+            }
+            frame.writeCircle(i, circle);
+        }
+        liveById.clear(); //holds destroyed shards otherwise
+        //PlayerCircle
+        if (playerCircle != null && (!frame.player || playerCircle.getCircleBody().getBody().getPosition().x != frame.playerX || playerCircle.getCircleBody().getBody().getPosition().y != frame.playerY)) {
+            destroyEntity(playerCircle.getEntity());
+            playerCircle = null;
+        }
+        if (frame.player && playerCircle == null) {
+            spawnPlayerCircle(frame.playerX, frame.playerY);
+        }
+        //Obstacles
+        for (int i = 0; i < frame.beamCount && i < beams.size(); i++) {
+            if (beams.get(i) != null) {
+                beams.get(i).setEnabled((frame.beamState[i] & 1) != 0);
+                beams.get(i).setType(COLOR_TYPES[frame.beamState[i] >> 1]);
+            }
+        }
+        for (int i = 0; i < frame.rotatableCount && i < rotatables.size(); i++) {
+            RotatableChainObject rotatable = rotatables.get(i);
+            if (rotatable != null) {
+                Body body = rotatable.getChainBody().getBody();
+                body.setTransform(body.getPosition(), frame.rotatableAngle[i]);
+                body.setAngularVelocity(frame.rotatableVelocity[i]);
+                rotatable.setAngle(frame.rotatableTarget[i]);
+            }
+        }
+        //Timer
+        timer = frame.timer;
+        seconds = frame.seconds;
+        if (completed && !frame.completed) {
+            disableContinue();
+        } else if (!completed && frame.completed) {
+            enableContinue();
+        }
+        completed = frame.completed;
+    }
+
     public void switchLevel(int currentLevelID) {
         if (LEVEL_LIBRARY.levelExists(currentLevelID)) {
             disableContinue();
-            clearLevel();
             worldScreen.setCurrentLevelID(currentLevelID);
-            loadLevel(currentLevelID);
+            LevelSet warm = findStandby(currentLevelID);
+            if (warm == null || warm.buildPhase != BUILD_IDLE || !swapTo(warm)) {
+                clearLevel();
+                loadLevel(currentLevelID);
+            }
+        }
+    }
+
+    //Standby
+    private void useSet(LevelSet set) {
+        active = set;
+        circles = set.circles;
+        colorPowers = set.colorPowers;
+        levelCircles = set.levelCircles;
+        walls = set.walls;
+        beams = set.beams;
+        rotatables = set.rotatables;
+        switches = set.switches;
+        snapshot = set.snapshot;
+    }
+
+    private boolean swapTo(LevelSet warm) { //the active set goes standby as it is (restarted from its snapshot if it comes back), false when a full load is needed after all
+        //Out
+        lastTouch = null;
+        circlesToAdd.clear();
+        if (playerCircle != null) {
+            destroyEntity(playerCircle.getEntity());
+            playerCircle = null;
+        }
+        for (Entity entity : engine.getEntities()) {
+            active.entities.add(entity);
+        }
+        for (Entity entity : actorEntities) {
+            Actor actor = Mappers.ACTOR.get(entity).actor;
+            if (actor.getStage() != null) {
+                active.actors.add(actor);
+                actor.remove();
+            }
+        }
+        engine.removeAllEntities();
+        worldScreen.getCorpses().releaseAll(); //handles belong to the active level only
+        active.played = true;
+        if (active.buildPhase != BUILD_IDLE) { //swapped away mid-load: only good for recycling
+            active.levelNum = LevelSet.NONE;
+        }
+        for (int i = 0; i < standby.length; i++) {
+            if (standby[i] == warm) {
+                standby[i] = active;
+            }
+        }
+        //In
+        useSet(warm);
+        worldScreen.swapWorld(warm.world);
+        ghostCircle.moveTo(warm.world);
+        removeGhost();
+        for (int i = 0; i < warm.entities.size(); i++) {
+            engine.addEntity(warm.entities.get(i));
+        }
+        for (int i = 0; i < warm.actors.size(); i++) {
+            addActor(warm.actors.get(i));
+        }
+        warm.entities.clear();
+        warm.actors.clear();
+        for (int i = 0; i < levelCircles.size(); i++) {
+            ColoredCircle circle = levelCircles.get(i);
+            if (circle != null && !worldScreen.getCorpses().isAlive(circle.getHandle())) {
+                circle.setHandle(worldScreen.getCorpses().register(circle));
+            }
+        }
+        System.out.println("Switching to Level: " + warm.levelNum + (warm.played ? " (warm, restarted)" : " (warm)"));
+        currentLevel = warm.levelNum;
+        eventBus.clear();
+        worldScreen.getRewindBuffer().clear();
+        timer = 0;
+        frameCounter = 0;
+        seconds = 0;
+        completed = false;
+        introMessage = warm.loadedLevel.getIntro();
+        return !warm.played || restartLevel();
+    }
+
+    private LevelSet findStandby(int levelNum) {
+        for (LevelSet set : standby) {
+            if (set != null && set.holds(levelNum)) {
+                if (set.buildPhase == BUILD_IDLE && set.loadedLevel != LEVEL_LIBRARY.getLevel(levelNum)) { //hot-reloaded since
+                    clearStandby(set);
+                    return null;
+                }
+                return set;
+            }
+        }
+        return null;
+    }
+
+    public void buildStandby() { //idle time after a frame: one slice towards currentLevel+1 (Continue) first, then currentLevel-1
+        if (isLoading() || STANDBY_SLICE_NANOS <= 0) {
+            return;
+        }
+        for (int n = 0; n < 2; n++) {
+            final int levelNum = n == 0 ? currentLevel+1 : currentLevel-1;
+            if (LEVEL_LIBRARY.levelExists(levelNum)) {
+                LevelSet set = findStandby(levelNum);
+                if (set == null) {
+                    set = recycleStandby();
+                    beginBuild(set, levelNum, () -> LEVEL_LIBRARY.getLevel(levelNum));
+                }
+                if (set.buildPhase != BUILD_IDLE) {
+                    continueBuild(set, STANDBY_SLICE_NANOS);
+                    return;
+                }
+            }
+        }
+    }
+
+    private LevelSet recycleStandby() { //a set that holds neither neighbour, emptied (its World is kept)
+        for (int i = 0; i < standby.length; i++) {
+            if (standby[i] == null) {
+                standby[i] = new LevelSet(NativeTracker.newWorld(new Vector2(0, 0), false));
+                return standby[i];
+            }
+        }
+        int i = standby[0].holds(currentLevel-1) || standby[0].holds(currentLevel+1) ? 1 : 0;
+        clearStandby(standby[i]);
+        return standby[i];
+    }
+
+    private void clearStandby(LevelSet set) {
+        if (set.decoding != null) {
+            set.decoding.cancel(true);
+            set.decoding = null;
+        }
+        for (int i = 0; i < set.entities.size(); i++) {
+            ActorComponent actorComponent = Mappers.ACTOR.get(set.entities.get(i));
+            if (actorComponent != null && actorComponent.actor instanceof CircleActor) {
+                worldScreen.getCorpses().release(((CircleActor) actorComponent.actor).getHandle());
+            }
         }
+        set.world.getBodies(bodyScratch);
+        for (int i = 0; i < bodyScratch.size; i++) {
+            worldScreen.destroyBody(bodyScratch.get(i));
+        }
+        bodyScratch.clear();
+        set.entities.clear();
+        set.actors.clear();
+        set.circles.clear();
+        set.colorPowers.clear();
+        set.levelCircles.clear();
+        set.walls.clear();
+        set.beams.clear();
+        set.rotatables.clear();
+        set.switches.clear();
+        set.building = null;
+        set.loadedLevel = null;
+        set.buildPhase = BUILD_IDLE;
+        set.levelNum = LevelSet.NONE;
+        set.played = false;
     }
 
     private void clearLevel() {
         introMessage = null;
         lastTouch = null;
-        for (Map.Entry<ColorType, ArrayList<ColoredCircle>> entry : circles.entrySet()) {
-            for (ColoredCircle circle : entry.getValue()) {
-                if (circle.getListeners().size > 0) {
-                    circle.removeListener(circle.getListeners().get(0));
-                }
-                circle.remove();
+        for (Entity entity : actorEntities) {
+            Actor actor = Mappers.ACTOR.get(entity).actor;
+            if (actor.getListeners().size > 0) {
+                actor.removeListener(actor.getListeners().get(0));
+            }
+            actor.remove();
+        }
+        for (Entity entity : bodyEntities) {
+            worldScreen.destroyBody(Mappers.PHYSICS.get(entity).body);
+        }
+        for (ColoredCircle circle : levelCircles) {
+            if (circle != null && !circle.getCircleBody().getBody().isActive()) { //parked, not in the engine
                 worldScreen.destroyBody(circle.getCircleBody().getBody());
             }
         }
+        worldScreen.getCorpses().releaseAll(); //every handle from this level is stale now
+        engine.removeAllEntities();
         circles.clear();
         colorPowers.clear();
         circlesToAdd.clear();
-        for (Wall wall : walls) {
-            worldScreen.destroyBody(wall.getChainBody().getBody());
-        }
+        levelCircles.clear();
         walls.clear();
-        for (Beam beam : beams) {
-            worldScreen.destroyBody(beam.getChainBody().getBody());
-        }
         beams.clear();
-        for (StandardSwitch standardSwitch : switches) {
-            if (standardSwitch.getListeners().size > 0) {
-                standardSwitch.removeListener(standardSwitch.getListeners().get(0));
-            }
-            standardSwitch.remove();
-            worldScreen.destroyBody(standardSwitch.getChainBody().getBody());
-        }
-        switches.clear();
-        for (RotatableChainObject rotatable : rotatables) {
-            worldScreen.destroyBody(rotatable.getChainBody().getBody());
-        }
         rotatables.clear();
-        if (playerCircle != null) {
-            worldScreen.destroyBody(playerCircle.getCircleBody().getBody());
-            playerCircle = null;
-        }
+        switches.clear();
+        active.loadedLevel = null;
+        playerCircle = null;
         removeGhost();
     }
 
@@ -349,6 +968,11 @@ public class LevelStage extends Stage {
         }
     }
 
+    public int getCircleCount(ColorType colorType) {
+        ArrayList<ColoredCircle> list = circles.get(colorType);
+        return list != null ? list.size() : 0;
+    }
+
     private boolean checkCompletion() {
         for (Map.Entry<ColorType, ArrayList<ColoredCircle>> entry : circles.entrySet()) {
             if (entry.getValue().size() > 1) {
@@ -370,7 +994,7 @@ public class LevelStage extends Stage {
             @Override
             public void clicked(InputEvent event, float x, float y)
             {
-                switchLevel(currentLevel+1);
+                worldScreen.requestLevel(currentLevel+1); //swapped in at the start of the next frame
                 disableContinue();
             }
         });
@@ -422,6 +1046,7 @@ public class LevelStage extends Stage {
         if (checkCompletion() && !completed) {
             completed = true;
             enableContinue();
+            eventBus.publishCompletion(currentLevel, seconds);
         }
         //Play Input
         if (!completed) {
@@ -437,27 +1062,7 @@ public class LevelStage extends Stage {
             }
         }
         //Updates
-        for (Map.Entry<ColorType, ArrayList<ColoredCircle>> entry : circles.entrySet()) {
-            for (ColoredCircle circle : entry.getValue()) {
-                if (!circle.isGone()) {
-                    circle.update();
-                } else {
-                    worldScreen.getCorpses().add(circle);
-                }
-            }
-        }
-        for (Wall wall : walls) {
-            wall.updateSprite();
-        }
-        for (StandardSwitch standardSwitch : switches) {
-            standardSwitch.updateSprite();
-        }
-        for (RotatableChainObject rotatable : rotatables) {
-            rotatable.update();
-            if (rotatable instanceof Spriter) {
-                ((Spriter) rotatable).updateSprite();
-            }
-        }
+        engine.update(worldScreen.getSTEP_TIME());
         //New Circles
         if (circlesToAdd.size() > 0) {
             for (Map.Entry<CircleInfo, Boolean> entry : circlesToAdd.entrySet()) {
@@ -545,35 +1150,29 @@ public class LevelStage extends Stage {
         }
         //Timer
         if (currentLevel != 0) {
-            drawText(worldScreen.getFont(), batch, String.valueOf(seconds), SaveMeCircles.SW * 9 / 10, SaveMeCircles.SH / 7.5f, Color.WHITE);
-        }
-        //Obstacles
-        for (Wall wall : walls) {
-            wall.getSprite().draw(batch);
+            timerText.setNumber(seconds, SaveMeCircles.SW * 9 / 10, SaveMeCircles.SH / 7.5f);
+            timerText.draw(batch);
         }
-        for (StandardSwitch standardSwitch : switches) {
-            standardSwitch.getSprite().draw(batch);
-        }
-        for (RotatableChainObject rotatable : rotatables) {
-            if (rotatable instanceof Spriter) {
-                ((Spriter) rotatable).getSprite().draw(batch);
-            }
-        }
-        //PlayerCircle
-        if (playerCircle != null) {
-            playerCircle.getSprite().draw(batch);
+        //Rotatables & PlayerCircle (walls & switches are in the StaticLayer)
+        for (Entity entity : spriteEntities) {
+            Mappers.SPRITE.get(entity).sprite.draw(batch);
         }
     }
 
+    public void drawStaticLayer(Matrix4 projection) {
+        if (isLoading()) { return; } //would re-bake after every slice
+        staticLayer.draw(projection);
+    }
+
     private void drawLevelIntro(SpriteBatch batch, float time) {
         if (introMessage != null) {
-            GlyphLayout layout = new GlyphLayout();
-            layout.setText(worldScreen.getFont(), introMessage);
             float alpha = 1;
             if (time > 200) {
                 alpha = ((250 - time) * 2) / 100;
             }
-            drawText(worldScreen.getFont(), batch, introMessage, SaveMeCircles.SW/2-layout.width/2, (SaveMeCircles.SH / 5), new Color(1, 1, 1, alpha));
+            introText.setText(introMessage, SaveMeCircles.SW/2, (SaveMeCircles.SH / 5));
+            introText.setAlpha(alpha);
+            introText.draw(batch);
         }
     }
 
@@ -583,22 +1182,19 @@ public class LevelStage extends Stage {
     }
 
     public void dispose() {
-        disableContinue();
-        texBigWall.dispose();
-        texBigWallW.dispose();
-        texBigWallB.dispose();
-        texBigWallG.dispose();
-        texWall.dispose();
-        texWallW.dispose();
-        texWallB.dispose();
-        texWallG.dispose();
-        texMediumWall.dispose();
-        texMediumWallW.dispose();
-        texMediumWallB.dispose();
-        texMediumWallG.dispose();
-        texTriangle.dispose();
-        soTex.dispose();
-        pcTex.dispose();
+        if (levelWatcher != null) {
+            levelWatcher.stop();
+        }
+        levelDecoder.shutdownNow();
+        for (LevelSet set : standby) {
+            if (set != null) {
+                NativeTracker.dispose(set.world); //the active World is the WorldScreen's
+            }
+        }
+        disableContinue(); //textures are owned by WorldAssets
+        staticLayer.dispose();
+        NativeTracker.release(this, NativeTracker.Kind.RENDERER);
+        super.dispose(); //own SpriteBatch
     }
 
     public WorldScreen getWorldScreen() {
@@ -613,6 +1209,14 @@ public class LevelStage extends Stage {
         this.lastTouch = lastTouch;
     }
 
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public ImmutableArray<Entity> getBodyEntities() {
+        return bodyEntities;
+    }
+
     public PlayerCircle getPlayerCircle() {
         return playerCircle;
     }
@@ -625,6 +1229,18 @@ public class LevelStage extends Stage {
         return ghostCircle;
     }
 
+    public LevelInfo getLoadedLevel() {
+        return active.loadedLevel;
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public GameEventBus getEventBus() {
+        return eventBus;
+    }
+
     public boolean isCompleted() {
         return completed;
     }
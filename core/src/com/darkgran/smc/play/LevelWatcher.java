@@ -0,0 +1,95 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+
+import static com.darkgran.smc.play.LevelStage.LEVEL_LIBRARY;
+
+public class LevelWatcher implements Runnable { //dev-only: re-parses the level file on change (off the render thread) and patches the running level
+    public static final String HOT_RELOAD_PROPERTY = "smc.hotReload";
+    private static final long SETTLE_MILLIS = 50; //editors tend to write in several chunks
+    private final LevelStage levelStage;
+    private final Path file;
+    private WatchService watchService;
+    private Thread thread;
+    private Array<LevelInfo> levels;
+
+    public LevelWatcher(LevelStage levelStage, String path) {
+        this.levelStage = levelStage;
+        this.file = Gdx.files.internal(path).file().getAbsoluteFile().toPath();
+        this.levels = LEVEL_LIBRARY.getLevels();
+    }
+
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            thread = new Thread(this, "LevelWatcher");
+            thread.setDaemon(true);
+            thread.start();
+            System.out.println("Watching levels: " + file);
+        } catch (IOException e) {
+            System.out.println("Level-Watching Error: " + e.getMessage());
+        }
+    }
+
+    public void stop() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException ignored) { }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path && file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+                if (touched) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) { }
+    }
+
+    private void reload() {
+        Array<LevelInfo> newLevels;
+        try {
+            newLevels = LevelLibrary.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            System.out.println("Level-Reloading Error: " + e.getMessage());
+            return;
+        }
+        ArrayList<LevelDiff> diffs = new ArrayList<>();
+        for (LevelInfo newLevel : newLevels) {
+            LevelInfo oldLevel = LevelLibrary.findLevel(levels, newLevel.getId());
+            if (oldLevel != null) {
+                LevelDiff diff = new LevelDiff(oldLevel, newLevel);
+                if (!diff.isEmpty()) {
+                    diffs.add(diff);
+                }
+            }
+        }
+        levels = newLevels;
+        Gdx.app.postRunnable(() -> {
+            LEVEL_LIBRARY.setLevels(newLevels);
+            for (LevelDiff diff : diffs) {
+                levelStage.applyLevelDiff(diff);
+            }
+        });
+    }
+}
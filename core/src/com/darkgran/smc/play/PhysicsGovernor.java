@@ -0,0 +1,109 @@
+package com.darkgran.smc.play;
+
+public class PhysicsGovernor { //solver iterations for one world: drops a rung when its steps run over budget, climbs back with headroom (one per world, live & prediction)
+    public static final int[][] LADDER = {{15, 12}, {12, 10}, {10, 8}, {8, 3}, {6, 2}, {4, 2}}; //velocity, position; rung 0 = the full quality the game shipped with
+    public static final int LOWEST = LADDER.length-1;
+    private static final float SMOOTHING = 0.1f;
+    private static final float HEADROOM = 0.6f; //climb only if the next rung up is expected to stay under this share of the budget
+    private static final float SURGE = 1.5f; //contacts jumping this far over their average drop a rung before the cost shows it
+    private static final int COOLDOWN = 30; //samples between changes, so a single spike doesn't flap it
+    private final int minRung; //lowest quality allowed (highest index)
+    private long budgetNanos;
+    private float costNanos = 0; //smoothed cost of one step
+    private float contacts = 0; //smoothed contact count
+    private int rung = 0;
+    private int cooldown = 0;
+    private long lowered = 0;
+    private long raised = 0;
+
+    public PhysicsGovernor(float budgetMillis, int minRung) {
+        this.minRung = Math.max(0, Math.min(LOWEST, minRung));
+        setBudgetMillis(budgetMillis);
+    }
+
+    public void sample(long stepNanos, int contactCount) { //once per step (or per prediction, with the cost of one of its steps)
+        costNanos = costNanos <= 0 ? stepNanos : costNanos + (stepNanos - costNanos) * SMOOTHING;
+        boolean surge = contacts > 0 && contactCount > contacts * SURGE;
+        contacts = contacts <= 0 ? contactCount : contacts + (contactCount - contacts) * SMOOTHING;
+        if (budgetNanos <= 0 || minRung == 0) { return; } //pinned to full quality
+        if (surge && rung < minRung && costNanos > budgetNanos * HEADROOM) { //more contacts means more solver work right away
+            lower();
+            return;
+        }
+        if (cooldown > 0) {
+            cooldown--;
+            return;
+        }
+        if (costNanos > budgetNanos && rung < minRung) {
+            lower();
+        } else if (rung > 0 && costNanos * work(rung-1) / work(rung) < budgetNanos * HEADROOM) {
+            costNanos = costNanos * work(rung-1) / work(rung); //expect the dearer steps, so it doesn't climb twice on the old average
+            rung--;
+            raised++;
+            cooldown = COOLDOWN;
+        }
+    }
+
+    private void lower() {
+        costNanos = costNanos * work(rung+1) / work(rung);
+        rung++;
+        lowered++;
+        cooldown = COOLDOWN;
+    }
+
+    private static float work(int rung) { //solver work is roughly linear in the iterations (times the contacts, same on both sides)
+        return LADDER[rung][0] + LADDER[rung][1];
+    }
+
+    public void reset() { //new level: start from full quality again
+        rung = 0;
+        cooldown = 0;
+        costNanos = 0;
+        contacts = 0;
+    }
+
+    public int getVelocityIterations() {
+        return LADDER[rung][0];
+    }
+
+    public int getPositionIterations() {
+        return LADDER[rung][1];
+    }
+
+    public void setBudgetMillis(float budgetMillis) {
+        this.budgetNanos = (long) (budgetMillis * 1000000);
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public float getBudgetMillis() {
+        return budgetNanos / 1000000f;
+    }
+
+    public float getCostMillis() {
+        return costNanos / 1000000f;
+    }
+
+    public float getContacts() {
+        return contacts;
+    }
+
+    public int getRung() {
+        return rung;
+    }
+
+    public int getMinRung() {
+        return minRung;
+    }
+
+    public long getLowered() {
+        return lowered;
+    }
+
+    public long getRaised() {
+        return raised;
+    }
+
+}
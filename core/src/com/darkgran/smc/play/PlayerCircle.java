@@ -3,7 +3,9 @@ package com.darkgran.smc.play;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.components.StaticComponent;
+import com.darkgran.smc.play.systems.SpriteSyncSystem;
 
 public class PlayerCircle extends CircleActor implements Spriter {
     private final Sprite sprite;
@@ -11,13 +13,14 @@ public class PlayerCircle extends CircleActor implements Spriter {
     public PlayerCircle(LevelStage levelStage, float x, float y, float radius, Texture tex) {
         super(levelStage, x, y, radius, BodyDef.BodyType.StaticBody);
         sprite = new Sprite(tex);
+        getEntity().add(new SpriteComponent(sprite));
+        getEntity().add(new StaticComponent());
         updateSprite();
     }
 
     @Override
     public void updateSprite() {
-        sprite.setPosition(getCircleBody().getBody().getPosition().x* WorldScreen.PPM-sprite.getWidth()/2, getCircleBody().getBody().getPosition().y*WorldScreen.PPM-sprite.getHeight()/2);
-        sprite.setRotation((float) (getCircleBody().getBody().getAngle() / WorldScreen.DEGREES_TO_RADIANS));
+        SpriteSyncSystem.sync(sprite, getCircleBody().getBody());
     }
 
     @Override
@@ -0,0 +1,290 @@
+package com.darkgran.smc.play;
+
+import java.util.Arrays;
+
+public class RewindBuffer { //per-step level states in a fixed byte ring: keyframes every KEYFRAME_INTERVAL steps, the rest as varint deltas against them
+    public static final int DEFAULT_BYTES = 2 * 1024 * 1024;
+    public static final int MAX_FRAMES = 30 * 60; //30s at 60Hz
+    private static final int KEYFRAME_INTERVAL = 30;
+    private final byte[] ring;
+    private final int[] offset = new int[MAX_FRAMES];
+    private final int[] length = new int[MAX_FRAMES];
+    private final long[] keySeq = new long[MAX_FRAMES];
+    private long oldest = 0; //stored frames are [oldest, next)
+    private long next = 0;
+    private long lastKey = -1;
+    private int writePos = 0;
+    private final RewindFrame key = new RewindFrame(); //decoded keyframe, base for both encoding and decoding
+    private long cachedKey = -1;
+    private byte[] scratch = new byte[4096];
+    private int pos;
+    private int readPos;
+    private long dropped = 0;
+
+    public RewindBuffer(int capacityBytes) {
+        ring = new byte[capacityBytes];
+    }
+
+    public void clear() {
+        oldest = 0;
+        next = 0;
+        lastKey = -1;
+        writePos = 0;
+        cachedKey = -1;
+    }
+
+    //Recording
+    public void record(RewindFrame frame) {
+        boolean keyframe = lastKey < oldest || next - lastKey >= KEYFRAME_INTERVAL;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            encode(frame, keyframe ? null : loadKey(lastKey));
+            if (pos > ring.length / 4) { //would thrash the whole ring
+                dropped++;
+                clear();
+                return;
+            }
+            int start = writePos + pos > ring.length ? 0 : writePos;
+            evict(start, pos);
+            if (!keyframe && lastKey < oldest) { //our base just got overwritten
+                keyframe = true;
+                continue;
+            }
+            System.arraycopy(scratch, 0, ring, start, pos);
+            int slot = slot(next);
+            offset[slot] = start;
+            length[slot] = pos;
+            keySeq[slot] = keyframe ? next : lastKey;
+            if (keyframe) {
+                lastKey = next;
+                key.copyFrom(frame);
+                cachedKey = next;
+            }
+            writePos = start + pos;
+            next++;
+            return;
+        }
+    }
+
+    private void evict(int start, int size) {
+        if (start < writePos) { //wrapped: the previous lap's tail (at or after writePos) is older than anything at the front, it goes first
+            while (next > oldest && offset[slot(oldest)] >= writePos) {
+                oldest++;
+            }
+        }
+        while (next > oldest && (next - oldest >= MAX_FRAMES || overlaps(slot(oldest), start, size))) {
+            oldest++;
+        }
+        while (next > oldest && keySeq[slot(oldest)] < oldest) { //deltas whose keyframe is gone
+            oldest++;
+        }
+    }
+
+    private boolean overlaps(int slot, int start, int size) {
+        return offset[slot] < start + size && offset[slot] + length[slot] > start;
+    }
+
+    //Reading
+    public boolean canRewind(int steps) {
+        return next - 1 - steps >= oldest;
+    }
+
+    public boolean rewind(int steps, RewindFrame out) { //drops everything after the restored step
+        long target = next - 1 - steps;
+        if (target < oldest) {
+            return false;
+        }
+        decode(target, out);
+        int slot = slot(target);
+        next = target + 1;
+        writePos = offset[slot] + length[slot];
+        lastKey = keySeq[slot];
+        if (cachedKey > target) { cachedKey = -1; }
+        return true;
+    }
+
+    public boolean peek(int stepsBack, RewindFrame out) { //replay debugging, leaves the timeline alone
+        long target = next - 1 - stepsBack;
+        if (target < oldest) {
+            return false;
+        }
+        decode(target, out);
+        return true;
+    }
+
+    private void decode(long seq, RewindFrame out) {
+        int slot = slot(seq);
+        if (keySeq[slot] == seq) {
+            decodeRecord(slot, null, out);
+        } else {
+            decodeRecord(slot, loadKey(keySeq[slot]), out);
+        }
+        out.indexCircles();
+    }
+
+    private RewindFrame loadKey(long seq) {
+        if (cachedKey != seq) {
+            decodeRecord(slot(seq), null, key);
+            key.indexCircles();
+            cachedKey = seq;
+        }
+        return key;
+    }
+
+    private static int slot(long seq) {
+        return (int) (seq % MAX_FRAMES);
+    }
+
+    //Encoding (floats/doubles as zigzag varints of the bit difference to the keyframe value, 0 when unchanged)
+    private void encode(RewindFrame f, RewindFrame base) {
+        pos = 0;
+        putLong(f.step);
+        putFloat(f.timer, base != null ? base.timer : 0);
+        putInt(f.seconds);
+        putInt((f.completed ? 1 : 0) | (f.player ? 2 : 0));
+        putFloat(f.playerX, base != null ? base.playerX : 0);
+        putFloat(f.playerY, base != null ? base.playerY : 0);
+        putInt(f.circleCount);
+        for (int i = 0; i < f.circleCount; i++) {
+            int b = base != null ? base.indexOf(f.id[i]) : -1;
+            putInt(f.id[i]);
+            putInt(f.color[i]);
+            putInt(f.flags[i]);
+            putFloat(f.x[i], b >= 0 ? base.x[b] : 0);
+            putFloat(f.y[i], b >= 0 ? base.y[b] : 0);
+            putFloat(f.angle[i], b >= 0 ? base.angle[b] : 0);
+            putFloat(f.velX[i], b >= 0 ? base.velX[b] : 0);
+            putFloat(f.velY[i], b >= 0 ? base.velY[b] : 0);
+            putFloat(f.speed[i], b >= 0 ? base.speed[b] : 0);
+            putFloat(f.angularVelocity[i], b >= 0 ? base.angularVelocity[b] : 0);
+            putDouble(f.radius[i], b >= 0 ? base.radius[b] : 0);
+            putDouble(f.growBuffer[i], b >= 0 ? base.growBuffer[b] : 0);
+            putInt(f.interactionTimer[i]);
+            putInt(f.breakTimer[i]);
+        }
+        putInt(f.beamCount);
+        for (int i = 0; i < f.beamCount; i++) {
+            putInt(f.beamState[i]);
+        }
+        putInt(f.rotatableCount);
+        for (int i = 0; i < f.rotatableCount; i++) {
+            boolean b = base != null && i < base.rotatableCount;
+            putFloat(f.rotatableAngle[i], b ? base.rotatableAngle[i] : 0);
+            putFloat(f.rotatableVelocity[i], b ? base.rotatableVelocity[i] : 0);
+            putFloat(f.rotatableTarget[i], b ? base.rotatableTarget[i] : 0);
+        }
+    }
+
+    private void decodeRecord(int slot, RewindFrame base, RewindFrame f) {
+        readPos = offset[slot];
+        f.step = getLong();
+        f.timer = getFloat(base != null ? base.timer : 0);
+        f.seconds = getInt();
+        int flags = getInt();
+        f.completed = (flags & 1) != 0;
+        f.player = (flags & 2) != 0;
+        f.playerX = getFloat(base != null ? base.playerX : 0);
+        f.playerY = getFloat(base != null ? base.playerY : 0);
+        f.circleCount = 0;
+        int circles = getInt();
+        f.ensureCircles(circles);
+        for (int i = 0; i < circles; i++) {
+            f.id[i] = getInt();
+            int b = base != null ? base.indexOf(f.id[i]) : -1;
+            f.color[i] = getInt();
+            f.flags[i] = getInt();
+            f.x[i] = getFloat(b >= 0 ? base.x[b] : 0);
+            f.y[i] = getFloat(b >= 0 ? base.y[b] : 0);
+            f.angle[i] = getFloat(b >= 0 ? base.angle[b] : 0);
+            f.velX[i] = getFloat(b >= 0 ? base.velX[b] : 0);
+            f.velY[i] = getFloat(b >= 0 ? base.velY[b] : 0);
+            f.speed[i] = getFloat(b >= 0 ? base.speed[b] : 0);
+            f.angularVelocity[i] = getFloat(b >= 0 ? base.angularVelocity[b] : 0);
+            f.radius[i] = getDouble(b >= 0 ? base.radius[b] : 0);
+            f.growBuffer[i] = getDouble(b >= 0 ? base.growBuffer[b] : 0);
+            f.interactionTimer[i] = getInt();
+            f.breakTimer[i] = getInt();
+        }
+        f.circleCount = circles;
+        int beams = getInt();
+        f.ensureObstacles(beams, 0);
+        for (int i = 0; i < beams; i++) {
+            f.beamState[i] = getInt();
+        }
+        f.beamCount = beams;
+        int rotatables = getInt();
+        f.ensureObstacles(0, rotatables);
+        for (int i = 0; i < rotatables; i++) {
+            boolean b = base != null && i < base.rotatableCount;
+            f.rotatableAngle[i] = getFloat(b ? base.rotatableAngle[i] : 0);
+            f.rotatableVelocity[i] = getFloat(b ? base.rotatableVelocity[i] : 0);
+            f.rotatableTarget[i] = getFloat(b ? base.rotatableTarget[i] : 0);
+        }
+        f.rotatableCount = rotatables;
+    }
+
+    private void putFloat(float value, float base) {
+        int delta = Float.floatToRawIntBits(value) - Float.floatToRawIntBits(base);
+        putInt((delta << 1) ^ (delta >> 31));
+    }
+
+    private void putDouble(double value, double base) {
+        long delta = Double.doubleToRawLongBits(value) - Double.doubleToRawLongBits(base);
+        putLong((delta << 1) ^ (delta >> 63));
+    }
+
+    private void putInt(int value) {
+        putLong(value & 0xFFFFFFFFL);
+    }
+
+    private void putLong(long value) { //unsigned varint
+        if (pos + 10 > scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            scratch[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        scratch[pos++] = (byte) value;
+    }
+
+    private float getFloat(float base) {
+        int zigzag = getInt();
+        int delta = (zigzag >>> 1) ^ -(zigzag & 1);
+        return Float.intBitsToFloat(Float.floatToRawIntBits(base) + delta);
+    }
+
+    private double getDouble(double base) {
+        long zigzag = getLong();
+        long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+        return Double.longBitsToDouble(Double.doubleToRawLongBits(base) + delta);
+    }
+
+    private int getInt() {
+        return (int) getLong();
+    }
+
+    private long getLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = ring[readPos++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    public int getFrameCount() {
+        return (int) (next - oldest);
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getCapacityBytes() {
+        return ring.length;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.darkgran.smc.play.components.GrowthComponent;
+import com.darkgran.smc.play.components.LockComponent;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.MotionComponent;
+import com.darkgran.smc.play.components.PhysicsComponent;
+import com.darkgran.smc.play.systems.CircleStepSystem;
+
+import java.util.Arrays;
+
+public class RewindFrame { //one step of level state in flat arrays (decoded form of a RewindBuffer record, also readable for replay debugging)
+    public static final int FLAG_MERGING_AWAY = 1;
+    public static final int FLAG_GONE = 2;
+    public static final int FLAG_FRESH_SHARD = 4;
+    public static final int FLAG_STUCK = 8;
+    public static final int FLAG_INTERACTION_LOCK = 16;
+    public static final int FLAG_BREAK_LOCK = 32;
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
+    //Level
+    public long step;
+    public float timer;
+    public int seconds;
+    public boolean completed;
+    public boolean player;
+    public float playerX;
+    public float playerY;
+    //Circles
+    public int circleCount;
+    public int[] id = new int[16];
+    public int[] color = new int[16];
+    public int[] flags = new int[16];
+    public float[] x = new float[16];
+    public float[] y = new float[16];
+    public float[] angle = new float[16];
+    public float[] velX = new float[16];
+    public float[] velY = new float[16];
+    public float[] speed = new float[16];
+    public float[] angularVelocity = new float[16];
+    public double[] radius = new double[16];
+    public double[] growBuffer = new double[16];
+    public int[] interactionTimer = new int[16];
+    public int[] breakTimer = new int[16];
+    private final IntIntMap indexById = new IntIntMap();
+    //Obstacles
+    public int beamCount;
+    public int[] beamState = new int[8]; //closed | color << 1
+    public int rotatableCount;
+    public float[] rotatableAngle = new float[8];
+    public float[] rotatableVelocity = new float[8];
+    public float[] rotatableTarget = new float[8];
+
+    public void readCircle(int i, ColoredCircle circle) {
+        Body body = circle.getCircleBody().getBody();
+        GrowthComponent growth = Mappers.GROWTH.get(circle.getEntity());
+        MotionComponent motion = Mappers.MOTION.get(circle.getEntity());
+        LockComponent lock = Mappers.LOCK.get(circle.getEntity());
+        id[i] = circle.getCircleId();
+        color[i] = circle.getColorType().ordinal();
+        flags[i] = (growth.mergingAway ? FLAG_MERGING_AWAY : 0) | (growth.gone ? FLAG_GONE : 0) | (growth.freshShard ? FLAG_FRESH_SHARD : 0) | (motion.stuck ? FLAG_STUCK : 0)
+                | (lock.interactionLock.isEnabled() ? FLAG_INTERACTION_LOCK : 0) | (lock.breakLock.isEnabled() ? FLAG_BREAK_LOCK : 0);
+        BodyReadback readback = circle.getLevelStage().getWorldScreen().getReadback();
+        PhysicsComponent physics = circle.getPhysics();
+        x[i] = readback.getX(physics);
+        y[i] = readback.getY(physics);
+        angle[i] = readback.getAngle(physics);
+        velX[i] = readback.getVelocityX(physics);
+        velY[i] = readback.getVelocityY(physics);
+        speed[i] = motion.speed;
+        angularVelocity[i] = body.getAngularVelocity();
+        radius[i] = circle.getRadius();
+        growBuffer[i] = growth.growBuffer;
+        interactionTimer[i] = lock.interactionLock.getTimer();
+        breakTimer[i] = lock.breakLock.getTimer();
+    }
+
+    public void writeCircle(int i, ColoredCircle circle) {
+        Body body = circle.getCircleBody().getBody();
+        GrowthComponent growth = Mappers.GROWTH.get(circle.getEntity());
+        MotionComponent motion = Mappers.MOTION.get(circle.getEntity());
+        LockComponent lock = Mappers.LOCK.get(circle.getEntity());
+        body.setTransform(x[i], y[i], angle[i]);
+        body.setLinearVelocity(velX[i], velY[i]);
+        body.setAngularVelocity(angularVelocity[i]);
+        growth.growBuffer = growBuffer[i];
+        growth.mergingAway = (flags[i] & FLAG_MERGING_AWAY) != 0;
+        growth.gone = (flags[i] & FLAG_GONE) != 0;
+        growth.freshShard = (flags[i] & FLAG_FRESH_SHARD) != 0;
+        motion.stuck = (flags[i] & FLAG_STUCK) != 0;
+        lock.interactionLock.setEnabled((flags[i] & FLAG_INTERACTION_LOCK) != 0);
+        lock.interactionLock.setTimer(interactionTimer[i]);
+        lock.breakLock.setEnabled((flags[i] & FLAG_BREAK_LOCK) != 0);
+        lock.breakLock.setTimer(breakTimer[i]);
+        CircleStepSystem.applyRadius(circle.getEntity(), radius[i]);
+        motion.speed = speed[i];
+        circle.refreshActorBounds();
+    }
+
+    public ColorType getColorType(int i) {
+        return COLOR_TYPES[color[i]];
+    }
+
+    public void indexCircles() {
+        indexById.clear();
+        for (int i = 0; i < circleCount; i++) {
+            indexById.put(id[i], i);
+        }
+    }
+
+    public int indexOf(int circleId) { //-1 if absent, needs indexCircles()
+        return indexById.get(circleId, -1);
+    }
+
+    public void copyFrom(RewindFrame other) {
+        step = other.step;
+        timer = other.timer;
+        seconds = other.seconds;
+        completed = other.completed;
+        player = other.player;
+        playerX = other.playerX;
+        playerY = other.playerY;
+        ensureCircles(other.circleCount);
+        circleCount = other.circleCount;
+        System.arraycopy(other.id, 0, id, 0, circleCount);
+        System.arraycopy(other.color, 0, color, 0, circleCount);
+        System.arraycopy(other.flags, 0, flags, 0, circleCount);
+        System.arraycopy(other.x, 0, x, 0, circleCount);
+        System.arraycopy(other.y, 0, y, 0, circleCount);
+        System.arraycopy(other.angle, 0, angle, 0, circleCount);
+        System.arraycopy(other.velX, 0, velX, 0, circleCount);
+        System.arraycopy(other.velY, 0, velY, 0, circleCount);
+        System.arraycopy(other.speed, 0, speed, 0, circleCount);
+        System.arraycopy(other.angularVelocity, 0, angularVelocity, 0, circleCount);
+        System.arraycopy(other.radius, 0, radius, 0, circleCount);
+        System.arraycopy(other.growBuffer, 0, growBuffer, 0, circleCount);
+        System.arraycopy(other.interactionTimer, 0, interactionTimer, 0, circleCount);
+        System.arraycopy(other.breakTimer, 0, breakTimer, 0, circleCount);
+        ensureObstacles(other.beamCount, other.rotatableCount);
+        beamCount = other.beamCount;
+        rotatableCount = other.rotatableCount;
+        System.arraycopy(other.beamState, 0, beamState, 0, beamCount);
+        System.arraycopy(other.rotatableAngle, 0, rotatableAngle, 0, rotatableCount);
+        System.arraycopy(other.rotatableVelocity, 0, rotatableVelocity, 0, rotatableCount);
+        System.arraycopy(other.rotatableTarget, 0, rotatableTarget, 0, rotatableCount);
+        indexCircles();
+    }
+
+    public void ensureCircles(int size) {
+        if (size <= id.length) { return; }
+        int n = Math.max(size, id.length*2);
+        id = Arrays.copyOf(id, n);
+        color = Arrays.copyOf(color, n);
+        flags = Arrays.copyOf(flags, n);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        angle = Arrays.copyOf(angle, n);
+        velX = Arrays.copyOf(velX, n);
+        velY = Arrays.copyOf(velY, n);
+        speed = Arrays.copyOf(speed, n);
+        angularVelocity = Arrays.copyOf(angularVelocity, n);
+        radius = Arrays.copyOf(radius, n);
+        growBuffer = Arrays.copyOf(growBuffer, n);
+        interactionTimer = Arrays.copyOf(interactionTimer, n);
+        breakTimer = Arrays.copyOf(breakTimer, n);
+    }
+
+    public void ensureObstacles(int beams, int rotatables) {
+        if (beams > beamState.length) {
+            beamState = Arrays.copyOf(beamState, Math.max(beams, beamState.length*2));
+        }
+        if (rotatables > rotatableAngle.length) {
+            int n = Math.max(rotatables, rotatableAngle.length*2);
+            rotatableAngle = Arrays.copyOf(rotatableAngle, n);
+            rotatableVelocity = Arrays.copyOf(rotatableVelocity, n);
+            rotatableTarget = Arrays.copyOf(rotatableTarget, n);
+        }
+    }
+
+}
@@ -3,42 +3,37 @@ package com.darkgran.smc.play;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.RotationComponent;
+import com.darkgran.smc.play.components.SwitchableComponent;
+import com.darkgran.smc.play.systems.RotationSystem;
 
 public abstract class RotatableChainObject extends ChainBodyObject implements Switchable {
-    private float angle;
+    private final RotationComponent rotation;
 
     public RotatableChainObject(LevelStage levelStage, float x, float y, Vector2[] vertices, float angle, float restitution) {
         super(levelStage, x, y, vertices, angle, restitution, BodyDef.BodyType.KinematicBody);
-        this.angle = angle;
-    }
-
-    public void update() {
-        if (!closeEnough()) {
-            getChainBody().getBody().setAngularVelocity(-1f);
-        } else {
-            getChainBody().getBody().setAngularVelocity(0f);
-            getChainBody().getBody().setTransform(getChainBody().getBody().getPosition(), angle);
-        }
+        rotation = new RotationComponent(angle);
+        getEntity().add(rotation);
+        getEntity().add(new SwitchableComponent(this));
     }
 
     public boolean closeEnough() {
-        double maxDif = WorldScreen.DEGREES_TO_RADIANS;
-        return getChainBody().getBody().getAngle() >= angle-maxDif && getChainBody().getBody().getAngle() <= angle+maxDif;
+        return RotationSystem.closeEnough(getChainBody().getBody().getAngle(), rotation.targetAngle);
     }
 
     @Override
     public void switchState() {
         if (closeEnough()) {
-            angle -= (float) (90* WorldScreen.DEGREES_TO_RADIANS);
+            rotation.targetAngle -= (float) (90* WorldScreen.DEGREES_TO_RADIANS);
         }
     }
 
     public float getAngle() {
-        return angle;
+        return rotation.targetAngle;
     }
 
     public void setAngle(float angle) {
-        this.angle = angle;
+        rotation.targetAngle = angle;
     }
 
     @Override
@@ -4,7 +4,8 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.systems.SpriteSyncSystem;
 
 public class RotatableTriangle extends RotatableChainObject implements Spriter {
     private final Sprite sprite;
@@ -12,6 +13,7 @@ public class RotatableTriangle extends RotatableChainObject implements Spriter {
     public RotatableTriangle(LevelStage levelStage, float x, float y, Vector2[] vertices, float angle, Texture texture) {
         super(levelStage, x, y, vertices, angle, 0f);
         sprite = new Sprite(texture);
+        getEntity().add(new SpriteComponent(sprite));
         updateSprite();
     }
 
@@ -31,7 +33,7 @@ public class RotatableTriangle extends RotatableChainObject implements Spriter {
                 vertex.x -= boxMid.x;
                 vertex.y -= boxMid.y;
             }
-            setChainBody(new ChainBody(levelStage.getWorldScreen().getWorld(), this, vertices, restitution, bodyType, boxMid));
+            setChainBody(new ChainBody(levelStage.getBuildWorld(), this, vertices, restitution, bodyType, boxMid));
             getChainBody().getBody().setTransform(x, y, angle);
         } else {
             super.createChainBody(levelStage, x, y, vertices, angle, restitution, bodyType);
@@ -40,8 +42,7 @@ public class RotatableTriangle extends RotatableChainObject implements Spriter {
 
     @Override
     public void updateSprite() {
-        sprite.setPosition(getChainBody().getBody().getPosition().x*WorldScreen.PPM-sprite.getWidth()/2, getChainBody().getBody().getPosition().y*WorldScreen.PPM-sprite.getHeight()/2);
-        sprite.setRotation((float) (getChainBody().getBody().getAngle() / WorldScreen.DEGREES_TO_RADIANS));
+        SpriteSyncSystem.sync(sprite, getChainBody().getBody());
     }
 
     @Override
@@ -0,0 +1,481 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.darkgran.smc.NativeTracker;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.events.GameEventBus;
+
+import java.util.Arrays;
+
+public class ShadowCircles implements ContactListener { //primitive circles + the game rules on them (CollisionListener, ColoredCircle, LockSystem, LevelStage's growth): the prediction's copies of the live circles, and all of EnvSession's circles
+    private static final int INTERACTION_LOCK_CAP = 30; //same caps as LockComponent
+    private static final int BREAK_LOCK_CAP = 60;
+    private static final int SHARD_ROOM = 16; //shards a prediction may spawn beyond one per circle before anything has to grow
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
+    public static final Obstacles GAME_OBSTACLES = new Obstacles() { //Beam & Wall, as CollisionListener
+        @Override
+        public boolean isOpen(Object userData, ColorType colorType) {
+            return userData instanceof Beam && ((Beam) userData).getColorType() != colorType;
+        }
+
+        @Override
+        public boolean isSoft(Object userData, ColorType colorType) {
+            return userData instanceof Wall && ((Wall) userData).getColorType() == colorType;
+        }
+    };
+    private final CircleKinematics.State s = new CircleKinematics.State();
+    private final BodyDef bodyDef = new BodyDef();
+    private final FixtureDef fixtureDef = new FixtureDef();
+    private final CircleShape shape = NativeTracker.newShape(new CircleShape());
+    private final MassData massData = new MassData();
+    private World world;
+    private Obstacles obstacles = GAME_OBSTACLES;
+    private GameEventBus eventBus; //optional: merges/splits as the game publishes them (EnvSession)
+    private Shadow[] shadows = new Shadow[0]; //body userData, reused across predictions
+    private Body[] bodies = new Body[0];
+    private int[] interactionLock = new int[0]; //-1 = off, else the counter (SimpleCounter)
+    private int[] breakLock = new int[0];
+    private int capacity = 0;
+    private float[] pending = new float[0]; //shards waiting for the next step: x, y, degrees, radius, color
+    private int pendingCount = 0;
+    private long preSolveCalls = 0;
+
+    public static class Shadow {
+        public final int index;
+
+        Shadow(int index) {
+            this.index = index;
+        }
+    }
+
+    public interface Obstacles { //what a circle does to a non-circle body, by the body's userData
+        boolean isOpen(Object userData, ColorType colorType); //passes through (a beam of another color)
+        boolean isSoft(Object userData, ColorType colorType); //doesn't bounce off (a wall of the same color)
+    }
+
+    public ShadowCircles() {
+        bodyDef.type = BodyDef.BodyType.DynamicBody; //CircleBody
+        fixtureDef.shape = shape;
+        fixtureDef.density = 0.1f;
+        fixtureDef.friction = 0f;
+        fixtureDef.restitution = 1f;
+    }
+
+    //Load
+    public void clear(World world, int liveCircles) { //room for every live circle and its shards, so a prediction never has to grow anything
+        this.world = world;
+        ensureCapacity(liveCircles*2 + SHARD_ROOM);
+        for (int i = 0; i < s.count; i++) {
+            bodies[i] = null;
+        }
+        s.count = 0;
+        pendingCount = 0;
+    }
+
+    public Shadow add(Body body, ColoredCircle circle) { //clone of a live circle, body already copied into the prediction world
+        ensureCapacity(s.count + 1);
+        int i = s.count++;
+        bodies[i] = body;
+        s.radius[i] = circle.getRadius();
+        s.growBuffer[i] = circle.getGrowBuffer();
+        s.speed[i] = circle.getSpeed();
+        s.mergingAway[i] = circle.isMergingAway();
+        s.freshShard[i] = circle.isFreshShard();
+        s.gone[i] = circle.isGone() || circle.isStuck(); //stuck ones only pass through, as before
+        s.colorType[i] = circle.getColorType();
+        interactionLock[i] = lockValue(circle.getLock().interactionLock);
+        breakLock[i] = lockValue(circle.getLock().breakLock);
+        if (circle.isStuck()) {
+            body.getFixtureList().get(0).setSensor(true);
+        }
+        return shadows[i];
+    }
+
+    public Shadow add(Body body, double radius, float speed, ColorType colorType) { //a plain settled circle, for harnesses without live ColoredCircles
+        ensureCapacity(s.count + 1);
+        int i = s.count++;
+        bodies[i] = body;
+        s.radius[i] = radius;
+        s.growBuffer[i] = 0;
+        s.speed[i] = speed;
+        s.mergingAway[i] = false;
+        s.freshShard[i] = false;
+        s.gone[i] = false;
+        s.colorType[i] = colorType;
+        interactionLock[i] = -1;
+        breakLock[i] = -1;
+        return shadows[i];
+    }
+
+    public int create(float x, float y, float degrees, double radius, ColorType colorType) { //LevelStage.createLevelCircle, body made here (EnvSession)
+        return createCircle(x, y, degrees, radius, colorType, false);
+    }
+
+    private static int lockValue(SimpleCounter counter) {
+        return counter.isEnabled() ? counter.getTimer() : -1;
+    }
+
+    //Step (LevelStage.update order: locks, circles, new shards; then the world steps)
+    public void step() {
+        for (int i = 0; i < s.count; i++) {
+            if (!s.gone[i]) {
+                interactionLock[i] = tick(interactionLock[i], INTERACTION_LOCK_CAP);
+                breakLock[i] = tick(breakLock[i], BREAK_LOCK_CAP);
+            }
+            Body body = bodies[i];
+            Vector2 position = BodyAccess.getPosition(body);
+            s.posX[i] = position.x;
+            s.posY[i] = position.y;
+            Vector2 velocity = BodyAccess.getLinearVelocity(body);
+            s.velX[i] = velocity.x;
+            s.velY[i] = velocity.y;
+        }
+        CircleKinematics.step(s, 0, s.count);
+        for (int i = 0; i < s.count; i++) {
+            int changed = s.changed[i];
+            if (changed == 0) { continue; }
+            Body body = bodies[i];
+            if ((changed & CircleKinematics.GONE) != 0) { //stops colliding, reap() removes it where the world keeps running
+                body.getFixtureList().get(0).setSensor(true);
+                continue;
+            }
+            if ((changed & CircleKinematics.RADIUS_CHANGED) != 0) {
+                CircleKinematics.applyRadius(body, (float) s.radius[i], s.massData);
+            }
+            if ((changed & CircleKinematics.VELOCITY_CHANGED) != 0) {
+                BodyAccess.setLinearVelocity(body, s.velX[i], s.velY[i]);
+            }
+            if ((changed & CircleKinematics.WRAPPED) != 0) {
+                BodyAccess.setTransform(body, s.posX[i], s.posY[i], body.getAngle());
+            }
+        }
+        for (int p = 0; p < pendingCount; p += 5) {
+            createCircle(pending[p], pending[p+1], pending[p+2], pending[p+3], COLOR_TYPES[(int) pending[p+4]], true);
+        }
+        pendingCount = 0;
+    }
+
+    private static int tick(int lock, int cap) { //SimpleCounter.update
+        if (lock < 0) { return lock; }
+        return lock > cap ? -1 : lock+1;
+    }
+
+    public void reap() { //destroys the gone circles and closes the gaps (swap-remove), after the world step; the prediction leaves them as sensors instead
+        for (int i = s.count-1; i >= 0; i--) {
+            if (!s.gone[i]) { continue; }
+            NativeTracker.destroyBody(bodies[i]);
+            int last = --s.count;
+            if (i != last) {
+                bodies[i] = bodies[last];
+                bodies[i].setUserData(shadows[i]);
+                s.radius[i] = s.radius[last];
+                s.growBuffer[i] = s.growBuffer[last];
+                s.speed[i] = s.speed[last];
+                s.mergingAway[i] = s.mergingAway[last];
+                s.freshShard[i] = s.freshShard[last];
+                s.gone[i] = s.gone[last];
+                s.colorType[i] = s.colorType[last];
+                interactionLock[i] = interactionLock[last];
+                breakLock[i] = breakLock[last];
+            }
+            bodies[last] = null;
+        }
+    }
+
+    private int createCircle(float x, float y, float degrees, double startRadius, ColorType colorType, boolean shard) { //shard: LevelStage.addCircle, starts at the minimum and grows into its radius
+        if (shard && startRadius < LevelStage.ACTUAL_MIN_RADIUS) { return -1; }
+        ensureCapacity(s.count + 1);
+        int i = s.count++;
+        double radius = shard ? LevelStage.ACTUAL_MIN_RADIUS : startRadius;
+        shape.setRadius((float) radius);
+        Body body = NativeTracker.createBody(world, bodyDef);
+        body.setUserData(shadows[i]);
+        NativeTracker.createFixture(body, fixtureDef);
+        massData.mass = 0.1f*(float) radius;
+        BodyAccess.setMassData(body, massData);
+        body.resetMassData();
+        body.setGravityScale(0f);
+        float speed = ColoredCircle.getSpeedLimit(colorType.getSpeed(), radius, false, 0, colorType); //the constructor's, before it becomes a fresh shard
+        double direction = degrees*WorldScreen.DEGREES_TO_RADIANS;
+        BodyAccess.setTransform(body, x, y, 0f);
+        BodyAccess.setLinearVelocity(body, (float) (speed*Math.cos(direction)), (float) (speed*Math.sin(direction)));
+        bodies[i] = body;
+        s.radius[i] = radius;
+        s.growBuffer[i] = shard ? startRadius - LevelStage.ACTUAL_MIN_RADIUS : 0;
+        s.speed[i] = speed;
+        s.mergingAway[i] = false;
+        s.freshShard[i] = shard;
+        s.gone[i] = false;
+        s.colorType[i] = colorType;
+        interactionLock[i] = shard ? 0 : -1;
+        breakLock[i] = shard ? 0 : -1;
+        return i;
+    }
+
+    //Rules (CollisionListener)
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        preSolveCalls++;
+        Object userA = contact.getFixtureA().getBody().getUserData();
+        Object userB = contact.getFixtureB().getBody().getUserData();
+        int a = userA instanceof Shadow ? ((Shadow) userA).index : -1;
+        int b = userB instanceof Shadow ? ((Shadow) userB).index : -1;
+        if (a < 0 && b < 0) { return; }
+        if (a < 0 || b < 0) {
+            int circle = a >= 0 ? a : b;
+            Object other = a >= 0 ? userB : userA;
+            if (obstacles.isOpen(other, s.colorType[circle])) {
+                contact.setEnabled(false);
+            } else if (obstacles.isSoft(other, s.colorType[circle])) {
+                contact.setRestitution(0f);
+            }
+            return;
+        }
+        InteractionType interactionType = getInteractionType(a, b);
+        switch (CollisionListener.getCollisionType(s.colorType[a], s.colorType[b], interactionType)) {
+            case IGNORED:
+                contact.setEnabled(false);
+                break;
+            case SOFT:
+                contact.setRestitution(0f);
+                break;
+        }
+        if (!isDisabled(a) && !isDisabled(b)) {
+            if (s.radius[a] > s.radius[b]) {
+                interact(a, b, interactionType);
+            } else {
+                interact(b, a, interactionType);
+            }
+        }
+    }
+
+    private InteractionType getInteractionType(int a, int b) {
+        if ((breakLock[a] >= 0 && s.colorType[b] == ColorType.RED) || (breakLock[b] >= 0 && s.colorType[a] == ColorType.RED)) {
+            return InteractionType.PASS;
+        }
+        if (interactionLock[a] >= 0 || interactionLock[b] >= 0) {
+            return InteractionType.NONE;
+        }
+        if (s.colorType[a] == s.colorType[b]) {
+            return InteractionType.MERGER;
+        }
+        if ((s.colorType[a] == ColorType.RED && s.radius[a] < s.radius[b] && canSplit(b)) || (s.colorType[b] == ColorType.RED && s.radius[b] < s.radius[a] && canSplit(a))) {
+            return InteractionType.BREAKER;
+        }
+        return InteractionType.NONE;
+    }
+
+    private void interact(int i, int other, InteractionType interactionType) { //ColoredCircle.interact
+        switch (interactionType) {
+            case MERGER:
+                s.growBuffer[i] += s.radius[other];
+                s.mergingAway[other] = true;
+                if (eventBus != null) { eventBus.publishMerge(null, null, s.colorType[i], s.radius[other]); }
+                break;
+            case BREAKER:
+                Vector2 breakPoint = BodyAccess.getPosition(bodies[other]);
+                splitInHalf(i, breakPoint.x, breakPoint.y);
+                break;
+        }
+    }
+
+    private void splitInHalf(int i, float breakX, float breakY) { //ColoredCircle.splitInHalf, with the direction as a unit vector instead of atan2/cos/sin
+        if (!canSplit(i) || pendingCount + 5 > pending.length) { return; }
+        interactionLock[i] = Math.max(interactionLock[i], 0);
+        breakLock[i] = Math.max(breakLock[i], 0);
+        double newRadius = s.radius[i]/2;
+        s.growBuffer[i] += -(s.radius[i]-newRadius);
+        Body body = bodies[i];
+        Vector2 position = BodyAccess.getPosition(body);
+        float x = position.x;
+        float y = position.y;
+        double dx = breakX - x;
+        double dy = breakY - y;
+        double length = Math.sqrt(dx*dx + dy*dy);
+        if (length == 0) { //atan2(0, 0)
+            dx = 1;
+            dy = 0;
+        } else {
+            dx /= length;
+            dy /= length;
+        }
+        BodyAccess.setLinearVelocity(body, (float) (-dx*s.speed[i]), (float) (-dy*s.speed[i])); //away from the break point, for the running step
+        pending[pendingCount++] = (float) (x + newRadius*dx);
+        pending[pendingCount++] = (float) (y + newRadius*dy);
+        pending[pendingCount++] = (float) (body.getAngle()/WorldScreen.DEGREES_TO_RADIANS);
+        pending[pendingCount++] = (float) newRadius;
+        pending[pendingCount++] = s.colorType[i].ordinal();
+        if (eventBus != null) { eventBus.publishSplit(null, s.colorType[i], pending[pendingCount-5], pending[pendingCount-4], newRadius); }
+    }
+
+    boolean canSplit(int i) {
+        return interactionLock[i] < 0 && s.radius[i] >= s.colorType[i].getMinRadius()*2;
+    }
+
+    public boolean isDisabled(int i) {
+        return interactionLock[i] >= 0 || s.mergingAway[i] || s.gone[i];
+    }
+
+    @Override
+    public void beginContact(Contact contact) { }
+
+    @Override
+    public void endContact(Contact contact) { }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) { }
+
+    //Player Input (LevelStage)
+    public void distributedSizeChange(int chosen) { //LevelStage.distributedSizeChange: grows the chosen circle at the expense of the rest of its color
+        ColorType colorType = s.colorType[chosen];
+        double minRadius = colorType.getMinRadius();
+        int sameColor = 0;
+        double power = 0;
+        for (int i = 0; i < s.count; i++) {
+            if (s.colorType[i] == colorType && !s.gone[i]) {
+                sameColor++;
+                power += s.radius[i];
+            }
+        }
+        if (sameColor <= 1) { return; }
+        double maxRadius = power - (sameColor - 1) * minRadius;
+        if (s.radius[chosen] + LevelStage.RADIUS_CHANGE > maxRadius) { return; }
+        int eligibles = 0;
+        double changeSpace = 0;
+        for (int i = 0; i < s.count; i++) {
+            if (isEligible(i, chosen)) {
+                eligibles++;
+                changeSpace += s.radius[i] - minRadius;
+            }
+        }
+        if (changeSpace < LevelStage.RADIUS_CHANGE || eligibles == 0) { return; }
+        double changeDown = LevelStage.RADIUS_CHANGE / eligibles;
+        double spareChange = 0;
+        int n = 0;
+        for (int i = 0; i < s.count; i++) {
+            if (isEligible(i, chosen)) {
+                if (s.radius[i] - changeDown >= minRadius) {
+                    setRadius(i, s.radius[i] - changeDown);
+                } else {
+                    spareChange = changeDown - (s.radius[i] - minRadius);
+                    setRadius(i, minRadius);
+                }
+                if (spareChange > 0) {
+                    changeDown += spareChange / (eligibles - n + 1);
+                } else {
+                    spareChange = 0;
+                }
+                n++;
+            }
+        }
+        setRadius(chosen, s.radius[chosen] + LevelStage.RADIUS_CHANGE);
+    }
+
+    private boolean isEligible(int i, int chosen) {
+        return i != chosen && s.colorType[i] == s.colorType[chosen] && !s.gone[i] && s.radius[i] - LevelStage.MIN_RADIUS_CHANGE >= s.colorType[i].getMinRadius();
+    }
+
+    private void setRadius(int i, double radius) { //ColoredCircle.setRadius: shape, mass & speed right away
+        ColorType colorType = s.colorType[i];
+        s.radius[i] = CircleKinematics.clampRadius(radius, colorType, s.mergingAway[i], s.freshShard[i]);
+        s.speed[i] = ColoredCircle.getSpeedLimit(colorType.getSpeed(), s.radius[i], s.freshShard[i], s.growBuffer[i], colorType);
+        CircleKinematics.applyRadius(bodies[i], (float) s.radius[i], s.massData);
+    }
+
+    public boolean isComplete() { //LevelStage.checkCompletion: one circle (at most) per color
+        for (int i = 0; i < s.count; i++) {
+            if (s.gone[i]) { continue; }
+            for (int j = i+1; j < s.count; j++) {
+                if (!s.gone[j] && s.colorType[j] == s.colorType[i]) { return false; }
+            }
+        }
+        return true;
+    }
+
+    //Drawing
+    public void draw(ShapeRenderer shapeRenderer, boolean limitedDraw, Vector2 mouse) { //a dot per circle at its current predicted position
+        for (int i = 0; i < s.count; i++) {
+            if (s.freshShard[i] || s.mergingAway[i] || s.gone[i]) { continue; }
+            float dx = s.posX[i] - mouse.x;
+            float dy = s.posY[i] - mouse.y;
+            if (!limitedDraw || dx*dx + dy*dy < 4f) {
+                Color color = s.colorType[i].getColor();
+                shapeRenderer.setColor(color.r, color.g, color.b, 0.7f);
+                shapeRenderer.circle(s.posX[i], s.posY[i], 0.01f, 10);
+            }
+        }
+    }
+
+    //Queries (SteadyState, AnalyticPredictor, EnvSession)
+    public boolean isSettled(int i) { //nothing about it changes on its own: no growth, no merge in progress
+        return !s.mergingAway[i] && s.growBuffer[i] == 0;
+    }
+
+    public boolean isFree(int i) { //settled, unlocked & full-sized: only collisions change it (AnalyticPredictor)
+        return isSettled(i) && !s.freshShard[i] && !s.gone[i] && interactionLock[i] < 0 && breakLock[i] < 0;
+    }
+
+    public boolean isVisible(int i) {
+        return !s.freshShard[i] && !s.mergingAway[i] && !s.gone[i];
+    }
+
+    public Body getBody(int i) {
+        return bodies[i];
+    }
+
+    public double getRadius(int i) {
+        return s.radius[i];
+    }
+
+    public float getSpeed(int i) {
+        return s.speed[i];
+    }
+
+    public ColorType getColorType(int i) {
+        return s.colorType[i];
+    }
+
+    public int getCount() {
+        return s.count;
+    }
+
+    public long getPreSolveCalls() {
+        return preSolveCalls;
+    }
+
+    public Obstacles getObstacles() {
+        return obstacles;
+    }
+
+    public void setObstacles(Obstacles obstacles) {
+        this.obstacles = obstacles;
+    }
+
+    public void setEventBus(GameEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    private void ensureCapacity(int size) { //keeps the contents
+        if (capacity >= size) { return; }
+        int grown = Math.max(size, capacity*2);
+        s.ensureCapacity(grown);
+        Shadow[] records = Arrays.copyOf(shadows, grown);
+        for (int i = capacity; i < grown; i++) {
+            records[i] = new Shadow(i);
+        }
+        shadows = records;
+        bodies = Arrays.copyOf(bodies, grown);
+        interactionLock = Arrays.copyOf(interactionLock, grown);
+        breakLock = Arrays.copyOf(breakLock, grown);
+        pending = Arrays.copyOf(pending, grown*5); //a split per circle per step at most
+        capacity = grown;
+    }
+
+    public void dispose() {
+        NativeTracker.dispose(shape);
+    }
+
+}
@@ -8,7 +8,9 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
+import com.darkgran.smc.NativeTracker;
 import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.PhysicsComponent;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -17,64 +19,188 @@ import java.util.Map;
 import static java.lang.Math.*;
 
 public class SimulationManager {
+    public static final int MAX_HORIZON = 180; //steps (3s at 60Hz)
+    public static final int MIN_HORIZON = 30;
+    public static final float DEFAULT_BUDGET_MILLIS = 4f;
+    private static final float COST_SMOOTHING = 0.1f;
+    private static final int STEADY_CHECK_INTERVAL = 10; //steps between steady-state checks
+    private static final boolean ANALYTIC = Boolean.getBoolean("smc.analyticPrediction"); //opt-in until PredictorAgreement is clean on every level
+    private static final int ANALYTIC_HORIZON = Integer.getInteger("smc.analyticHorizon", AnalyticPredictor.DEFAULT_HORIZON);
     private final WorldScreen worldScreen;
-    private final int VELOCITY_ITERATIONS;
-    private final int POSITION_ITERATIONS;
+    private final PhysicsGovernor governor; //iterations of the predicted steps, its own floor (smc.predictionMinRung)
     private final float STEP_TIME;
     private World worldSimulation;
+    //Frame Budget
+    private long budgetNanos = (long) (DEFAULT_BUDGET_MILLIS * 1000000);
+    private float stepCostNanos = 0; //smoothed cost of one predicted step (incl. drawing)
+    private float resetCostNanos = 0; //smoothed cost of copying the live world
+    private int lastHorizon = MAX_HORIZON;
+    private long predictions = 0;
+    private long budgetHits = 0;
+    //Steady State
+    private final SteadyState steadyState = new SteadyState();
+    private final Array<Body> bodies = new Array<>();
+    //Shadow Circles (the prediction's own circle state & rules)
+    private final ShadowCircles shadows = new ShadowCircles();
+    private final BodyDef bodyDef = new BodyDef();
+    private final FixtureDef fixtureDef = new FixtureDef();
+    private final MassData massData = new MassData();
+    private long stepsPredicted = 0;
+    private long stepsExtrapolated = 0;
+    //Analytic (free flight between exact events, Box2D after the first merge/break/rotation)
+    private final AnalyticPredictor analytic;
+    private long stepsAnalytic = 0;
 
-    public SimulationManager(WorldScreen worldScreen, World worldSimulation, int VELOCITY_ITERATIONS, int POSITION_ITERATIONS, float STEP_TIME) {
+    public SimulationManager(WorldScreen worldScreen, World worldSimulation, PhysicsGovernor governor, float STEP_TIME) {
         this.worldScreen = worldScreen;
         this.worldSimulation = worldSimulation;
-        this.VELOCITY_ITERATIONS = VELOCITY_ITERATIONS;
-        this.POSITION_ITERATIONS = POSITION_ITERATIONS;
+        this.governor = governor;
         this.STEP_TIME = STEP_TIME;
+        analytic = new AnalyticPredictor(STEP_TIME);
     }
 
-    public void resetSimulation(CollisionListener collisionListener, World copyWorld) {
-        worldSimulation = new World(new Vector2(0, 0), false);;
-        worldSimulation.setContactListener(collisionListener);
-        Array<Body> bodies = new Array<>();
+    public void resetSimulation(World copyWorld) {
+        resetSimulation(copyWorld, worldScreen.getReadback(), null);
+    }
+
+    public void resetSimulation(World copyWorld, BodyReadback readback, ShadowCircles source) { //source: copyWorld is run by ShadowCircles instead of the game (EnvSession; PredictorAgreement)
+        NativeTracker.dispose(worldSimulation); //the previous copy is done with
+        worldSimulation = NativeTracker.newWorld(new Vector2(0, 0), false);
+        worldSimulation.setContactListener(shadows);
+        shadows.setObstacles(source != null ? source.getObstacles() : ShadowCircles.GAME_OBSTACLES);
+        bodies.clear();
         copyWorld.getBodies(bodies);
+        shadows.clear(worldSimulation, bodies.size);
         for (Body body : bodies) {
-            copyBody(body, worldSimulation);
+            if (body.isActive()) { //parked level circles stay out
+                Body copy = copyBody(body, worldSimulation, readback);
+                if (body.getUserData() instanceof ColoredCircle) { //live circles are only read here, the prediction works on the shadow
+                    copy.setUserData(shadows.add(copy, (ColoredCircle) body.getUserData()));
+                } else if (source != null && body.getUserData() instanceof ShadowCircles.Shadow) {
+                    int i = ((ShadowCircles.Shadow) body.getUserData()).index;
+                    copy.setUserData(shadows.add(copy, source.getRadius(i), source.getSpeed(i), source.getColorType(i)));
+                }
+            }
         }
+        bodies.clear();
     }
 
-    public void drawSimulation(ShapeRenderer shapeRenderer, CollisionListener collisionListener, World copyWorld, boolean limitedDraw, Box2DDebugRenderer debugRenderer, Camera debugCamera) {
-        resetSimulation(collisionListener, copyWorld);
-        Array<Body> bodies;
+    public void drawSimulation(ShapeRenderer shapeRenderer, World copyWorld, boolean limitedDraw, Box2DDebugRenderer debugRenderer, Camera debugCamera) {
+        long start = System.nanoTime();
+        markStuckCircles(); //before the copy, the shadows take it over
+        resetSimulation(copyWorld);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        markStuckCircles();
-        for (int i = 0; i <= 180; i++) {
-            bodies = new Array<>();
-            worldSimulation.getBodies(bodies);
-            for (Body body : bodies) {
-                float rad = 2f;
-                if (body.getUserData() instanceof ColoredCircle) {
-                    ColoredCircle circle = (ColoredCircle) body.getUserData();
-                    if (!circle.isStuck()) {
-                        applyCircleUpdate(circle, body);
-                        if (!limitedDraw || Math.pow((body.getPosition().x - worldScreen.getMouseInWorld2D().x), 2) + Math.pow((body.getPosition().y - worldScreen.getMouseInWorld2D().y), 2) < Math.pow(rad, 2)) {
-                            if (i % 10 == 0 && !circle.isFreshShard() && !circle.isMergingAway() && !circle.isGone()) {
-                                shapeRenderer.setColor(circle.getColorType().getColor().r, circle.getColorType().getColor().g, circle.getColorType().getColor().b, 0.7f);
-                                shapeRenderer.circle(body.getPosition().x, body.getPosition().y, 0.01f, 10);
-                            }
-                        }
-                    } else {
-                        body.getFixtureList().get(0).setSensor(true);
-                    }
-                }
+        long resetEnd = System.nanoTime();
+        resetCostNanos = smooth(resetCostNanos, resetEnd - start);
+        int horizon = chooseHorizon();
+        int stepped = 0;
+        int velocityIterations = governor.getVelocityIterations();
+        int positionIterations = governor.getPositionIterations();
+        Vector2 mouse = worldScreen.getMouseInWorld2D();
+        int from = 0;
+        long stepsStart = System.nanoTime(); //the analytic pass is part of the prediction's step cost
+        if (ANALYTIC && analytic.load(worldSimulation, shadows)) {
+            from = analytic.run(Math.max(horizon, ANALYTIC_HORIZON), 10); //bodies are left at the handover step
+            analytic.draw(shapeRenderer, limitedDraw, mouse);
+            horizon = Math.max(horizon, from - 1); //past the budget horizon only while it stays analytic
+            stepsAnalytic += Math.min(from, horizon); //over the same horizon as stepsPredicted, so the share stays within 100%
+        }
+        for (int i = from; i <= horizon; i++) {
+            shadows.step();
+            if (i % 10 == 0) {
+                shadows.draw(shapeRenderer, limitedDraw, mouse);
             }
-            worldSimulation.step(STEP_TIME, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+            if (i % STEADY_CHECK_INTERVAL == 0 && i < horizon && steadyState.capture(worldSimulation, shadows, horizon - i, STEP_TIME)) { //nothing left to collide with: finish the dots analytically
+                steadyState.extrapolate(shapeRenderer, i, horizon, STEP_TIME, limitedDraw, worldScreen.getMouseInWorld2D());
+                stepsExtrapolated += horizon - i;
+                break;
+            }
+            worldSimulation.step(STEP_TIME, velocityIterations, positionIterations);
+            stepped++;
         }
         shapeRenderer.setColor(Color.WHITE);
         shapeRenderer.end();
+        long end = System.nanoTime();
+        stepsPredicted += horizon;
+        float stepNanos = (float) (end - stepsStart) / (stepped + 1);
+        stepCostNanos = smooth(stepCostNanos, stepNanos); //cost of a real step, so early exits don't inflate the next horizon
+        governor.setBudgetNanos((long) ((budgetNanos - resetCostNanos) / (MAX_HORIZON + 1))); //cheaper steps first, a shorter horizon only once the floor is reached
+        governor.sample((long) stepNanos, worldSimulation.getContactCount());
+        lastHorizon = horizon;
+        predictions++;
+        if (end - start <= budgetNanos) { budgetHits++; }
         //debugRenderer.setDrawBodies(true);
         //debugRenderer.render(worldSimulation, new Matrix4(debugCamera.combined));
     }
 
+    public PhysicsGovernor getGovernor() {
+        return governor;
+    }
+
+    public ShadowCircles getShadows() {
+        return shadows;
+    }
+
+    public World getWorld() {
+        return worldSimulation;
+    }
+
+    public void dispose() {
+        NativeTracker.dispose(worldSimulation);
+        worldSimulation = null;
+        shadows.dispose();
+    }
+
+    private int chooseHorizon() { //small levels keep the full preview, heavy ones shorten it instead of dropping frames
+        if (stepCostNanos <= 0) {
+            return MAX_HORIZON;
+        }
+        float affordable = (budgetNanos - resetCostNanos) / stepCostNanos - 1;
+        return (int) Math.max(MIN_HORIZON, Math.min(MAX_HORIZON, affordable));
+    }
+
+    private static float smooth(float average, float sample) {
+        return average <= 0 ? sample : average + (sample - average) * COST_SMOOTHING;
+    }
+
+    public void setBudgetMillis(float budgetMillis) {
+        this.budgetNanos = (long) (budgetMillis * 1000000);
+    }
+
+    public float getBudgetMillis() {
+        return budgetNanos / 1000000f;
+    }
+
+    public int getLastHorizon() {
+        return lastHorizon;
+    }
+
+    public float getStepCostMillis() {
+        return stepCostNanos / 1000000f;
+    }
+
+    public float getBudgetHitRate() {
+        return predictions == 0 ? 1 : (float) budgetHits / predictions;
+    }
+
+    public float getExtrapolatedShare() {
+        return stepsPredicted == 0 ? 0 : (float) stepsExtrapolated / stepsPredicted;
+    }
+
+    public float getAnalyticShare() {
+        return stepsPredicted == 0 ? 0 : (float) stepsAnalytic / stepsPredicted;
+    }
+
+    public void resetMetrics() {
+        predictions = 0;
+        budgetHits = 0;
+        stepsPredicted = 0;
+        stepsExtrapolated = 0;
+        stepsAnalytic = 0;
+    }
+
     private void markStuckCircles() {
+        BodyReadback readback = worldScreen.getReadback();
         HashMap<ColoredCircle, ArrayList<Vector2>> circles = new HashMap<>();
         for (Contact contact : worldScreen.getWorld().getContactList()) {
             if (contact.isTouching() && contact.getFixtureA().getBody().getUserData() != contact.getFixtureB().getBody().getUserData()) {
@@ -84,7 +210,7 @@ public class SimulationManager {
                     //if (manifold.getPoints().length > 0) {
                         ColoredCircle circle = contact.getFixtureA().getBody().getUserData() instanceof ColoredCircle ? (ColoredCircle) contact.getFixtureA().getBody().getUserData() : (ColoredCircle) contact.getFixtureB().getBody().getUserData();
                         if (!circle.isStuck()) {
-                            Vector2[] checkPoints = getExtendedMidPoints(circle.getCircleBody().getBody().getPosition(), (float) circle.getRadius() / 4);
+                            Vector2[] checkPoints = getExtendedMidPoints(new Vector2(readback.getX(circle.getPhysics()), readback.getY(circle.getPhysics())), (float) circle.getRadius() / 4);
                             Body otherBody = circle.getCircleBody().getBody() == contact.getFixtureA().getBody() ? contact.getFixtureB().getBody() : contact.getFixtureA().getBody();
                             Array<Vector2> polygon = new Array();
                             if (otherBody.getUserData() instanceof PlayerCircle) {
@@ -97,10 +223,12 @@ public class SimulationManager {
                                 circle.setStuck(overlap);
                             } else if (!otherBody.getFixtureList().get(0).isSensor() && otherBody.getUserData() instanceof ChainBoxBodyObject) {
                                 ChainBoxBodyObject cbo = (ChainBoxBodyObject) otherBody.getUserData();
-                                polygon.add(new Vector2(otherBody.getPosition().x - cbo.getWidth(), otherBody.getPosition().y - cbo.getHeight()));
-                                polygon.add(new Vector2(otherBody.getPosition().x - cbo.getWidth(), otherBody.getPosition().y + cbo.getHeight()));
-                                polygon.add(new Vector2(otherBody.getPosition().x + cbo.getWidth(), otherBody.getPosition().y + cbo.getHeight()));
-                                polygon.add(new Vector2(otherBody.getPosition().x + cbo.getWidth(), otherBody.getPosition().y - cbo.getHeight()));
+                                float otherX = readback.getX(otherBody);
+                                float otherY = readback.getY(otherBody);
+                                polygon.add(new Vector2(otherX - cbo.getWidth(), otherY - cbo.getHeight()));
+                                polygon.add(new Vector2(otherX - cbo.getWidth(), otherY + cbo.getHeight()));
+                                polygon.add(new Vector2(otherX + cbo.getWidth(), otherY + cbo.getHeight()));
+                                polygon.add(new Vector2(otherX + cbo.getWidth(), otherY - cbo.getHeight()));
                                 for (Vector2 checkPoint : checkPoints) {
                                     if (Intersector.isPointInPolygon(polygon, checkPoint)) {
                                         circle.setStuck(true);
@@ -133,8 +261,9 @@ public class SimulationManager {
             if (!circle.isStuck() && worldScreen.getLevelStage().getPlayerCircle() != null) {
                 //in-future: check for other bodies than PlayerCircle that may get "teleported" inside a circle
                 //in-future: precise compare? (instead of AABBs comparison?)
-                Rectangle cR = new Rectangle((float) (circle.getCircleBody().getBody().getPosition().x-circle.getRadius()), (float) (circle.getCircleBody().getBody().getPosition().y-circle.getRadius()), (float) circle.getRadius()*2, (float) circle.getRadius()*2);
-                if (cR.contains(worldScreen.getLevelStage().getPlayerCircle().getCircleBody().getBody().getPosition().x, worldScreen.getLevelStage().getPlayerCircle().getCircleBody().getBody().getPosition().y)) {
+                Rectangle cR = new Rectangle((float) (readback.getX(circle.getPhysics())-circle.getRadius()), (float) (readback.getY(circle.getPhysics())-circle.getRadius()), (float) circle.getRadius()*2, (float) circle.getRadius()*2);
+                PhysicsComponent player = worldScreen.getLevelStage().getPlayerCircle().getPhysics();
+                if (cR.contains(readback.getX(player), readback.getY(player))) {
                     circle.setStuck(true);
                 }
             }
@@ -151,7 +280,7 @@ public class SimulationManager {
                     if (polygon.size == 2) {
                         polygon = rectFromLine(polygon, 0.05f);
                     }
-                    Vector2[] checkPoints = getExtendedMidPoints(circle.getCircleBody().getBody().getPosition(), (float) circle.getRadius() / 4);
+                    Vector2[] checkPoints = getExtendedMidPoints(new Vector2(readback.getX(circle.getPhysics()), readback.getY(circle.getPhysics())), (float) circle.getRadius() / 4);
                     for (Vector2 checkPoint : checkPoints) {
                         if (Intersector.isPointInPolygon(polygon, checkPoint)) {
                             circle.setStuck(true);
@@ -172,31 +301,29 @@ public class SimulationManager {
         return checkPoints;
     }
 
-    private void copyBody(Body body, World world) {
+    private Body copyBody(Body body, World world, BodyReadback readback) {
         Object obj = body.getUserData();
 
-        BodyDef bodyDef = new BodyDef();
         bodyDef.type = obj instanceof GhostCircle ? BodyDef.BodyType.StaticBody : body.getType();
 
-        Body newBody = world.createBody(bodyDef);
+        Body newBody = NativeTracker.createBody(world, bodyDef);
         newBody.setUserData(obj);
-        newBody.setTransform(body.getPosition(), body.getAngle());
-        newBody.setLinearVelocity(body.getLinearVelocity());
+        BodyAccess.setTransform(newBody, readback.getX(body), readback.getY(body), readback.getAngle(body)); //live bodies as of the last step
+        BodyAccess.setLinearVelocity(newBody, readback.getVelocityX(body), readback.getVelocityY(body));
 
         Fixture fixture = body.getFixtureList().get(0);
-        FixtureDef fixtureDef = new FixtureDef();
         fixtureDef.shape = fixture.getShape();
         fixtureDef.density = fixture.getDensity();
         fixtureDef.restitution = fixture.getRestitution();
         fixtureDef.friction = fixture.getFriction();
 
-        newBody.createFixture(fixtureDef);
+        NativeTracker.createFixture(newBody, fixtureDef);
+        fixtureDef.shape = null; //not ours to keep
 
         newBody.getFixtureList().get(0).setDensity(body.getFixtureList().get(0).getDensity());
         newBody.resetMassData();
-        MassData md = new MassData();
-        md.mass = body.getMassData().mass;
-        newBody.setMassData(md);
+        massData.mass = body.getMassData().mass;
+        BodyAccess.setMassData(newBody, massData);
 
         newBody.getFixtureList().get(0).setSensor(!(body.getUserData() instanceof GhostCircle) && body.getFixtureList().get(0).isSensor());
 
@@ -204,85 +331,7 @@ public class SimulationManager {
         newBody.setGravityScale(body.getGravityScale());
         newBody.setLinearDamping(body.getLinearDamping());
         newBody.setAngularDamping(body.getAngularDamping());
-    }
-
-    private double applyBodyRadius(Body body, double radius, boolean mergingAway, boolean freshShard, ColorType colorType) {
-        if (radius < colorType.getMinRadius() && !mergingAway && !freshShard) { radius = colorType.getMinRadius(); }
-        else if (radius < LevelStage.ACTUAL_MIN_RADIUS) { radius = LevelStage.ACTUAL_MIN_RADIUS; }
-        if (body.getFixtureList().size > 0) {
-            Shape shape = body.getFixtureList().get(0).getShape();
-            shape.setRadius((float) radius);
-        }
-        MassData md = new MassData();
-        md.mass = 0.1f*(float) radius;
-        body.setMassData(md);
-        body.resetMassData();
-        return radius;
-    }
-
-    private void applyCircleUpdate(ColoredCircle circle, Body body) {
-        //Grow
-        boolean mA = circle.isMergingAway();
-        double gB = circle.getGrowBuffer();
-        boolean g = circle.isGone();
-        boolean fS = circle.isFreshShard();
-        double radius = circle.getRadius();
-        if (mA) {
-            if (gB > 0) {
-                gB -= LevelStage.RADIUS_CHANGE;
-            } else if (circle.getRadius()-LevelStage.RADIUS_CHANGE >= LevelStage.ACTUAL_MIN_RADIUS) {
-                gB = 0;
-                radius = applyBodyRadius(body, circle.getRadius()-LevelStage.RADIUS_CHANGE, mA, fS, circle.getColorType());
-            } else {
-                g = true;
-            }
-        } else if (gB > 0) {
-            if (gB > LevelStage.RADIUS_CHANGE) {
-                gB -= LevelStage.RADIUS_CHANGE;
-                radius = applyBodyRadius(body, circle.getRadius()+LevelStage.RADIUS_CHANGE, mA, fS, circle.getColorType());
-            } else {
-                radius = applyBodyRadius(body, circle.getRadius()+gB, mA, fS, circle.getColorType());
-                gB = 0;
-                fS = false;
-            }
-        } else if (gB < 0) {
-            if (Math.abs(gB) > LevelStage.RADIUS_CHANGE) {
-                gB += LevelStage.RADIUS_CHANGE;
-                radius = applyBodyRadius(body, circle.getRadius()-LevelStage.RADIUS_CHANGE, mA, fS, circle.getColorType());
-            } else {
-                radius = applyBodyRadius(body, circle.getRadius()+gB, mA, fS, circle.getColorType());
-                gB = 0;
-            }
-        }
-        if (radius >= circle.getColorType().getMinRadius()) {
-            fS = false;
-        }
-        //Speed
-        float speed = ColoredCircle.getSpeedLimit(circle.getColorType().getSpeed(), radius, fS, gB, circle.getColorType());
-        double currentSpeed = Math.sqrt(Math.pow(body.getLinearVelocity().x, 2) + Math.pow(body.getLinearVelocity().y, 2));
-        if ((float) currentSpeed != speed) {
-            float angle = (float) Math.atan2(body.getLinearVelocity().y, body.getLinearVelocity().x);
-            if (currentSpeed == 0) { angle += angle > PI ? -PI : PI; }
-            double speedX = speed * cos(angle);
-            double speedY = speed * sin(angle);
-            body.setLinearVelocity((float) speedX, (float) speedY);
-        }
-        //Screen Edge
-        if (body.getPosition().x-radius >= WorldScreen.WORLD_WIDTH || body.getPosition().x+radius <= 0 || body.getPosition().y-radius >= WorldScreen.WORLD_HEIGHT || body.getPosition().y+radius <= 0) {
-            double newX = body.getPosition().x;
-            double newY = body.getPosition().y;
-            if (body.getPosition().x-radius >= WorldScreen.WORLD_WIDTH) {
-                newX = 0-radius;
-            } else if (body.getPosition().x+radius <= 0) {
-                newX = WorldScreen.WORLD_WIDTH+radius;
-            }
-            if (body.getPosition().y-radius >= WorldScreen.WORLD_HEIGHT) {
-                newY = 0-radius;
-            } else if (body.getPosition().y+radius <= 0) {
-                newY = WorldScreen.WORLD_HEIGHT+radius;
-            }
-            body.setTransform((float) newX, (float) newY, body.getAngle());
-        }
+        return newBody;
     }
 
     private Array<Vector2> rectFromLine(Array<Vector2> line, float width) {
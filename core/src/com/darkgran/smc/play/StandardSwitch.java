@@ -1,12 +1,19 @@
 package com.darkgran.smc.play;
 
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.ActorComponent;
+import com.darkgran.smc.play.components.PhysicsComponent;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.components.StaticComponent;
+import com.darkgran.smc.play.components.StaticLayerComponent;
+import com.darkgran.smc.play.systems.SpriteSyncSystem;
 
 public class StandardSwitch extends Actor implements Spriter {
     private final LevelStage levelStage;
@@ -15,11 +22,12 @@ public class StandardSwitch extends Actor implements Spriter {
     private final Switchable[] rotatables;
     private SwitchType switchType;
     private final Sprite sprite;
+    private final Entity entity = new Entity();
 
     public StandardSwitch(LevelStage levelStage, float x, float y, float width, float height, float angle, Switchable[] beams, Switchable[] rotatables, SwitchType switchType, Texture texture) {
         this.levelStage = levelStage;
         this.switchType = switchType;
-        chainBody = new ChainBody(levelStage.getWorldScreen().getWorld(), this, (new Vector2[]{new Vector2(-width, -height), new Vector2(-width, +height), new Vector2(+width, +height), new Vector2(+width, -height)}), 0f, BodyDef.BodyType.StaticBody, null);
+        chainBody = new ChainBody(levelStage.getBuildWorld(), this, (new Vector2[]{new Vector2(-width, -height), new Vector2(-width, +height), new Vector2(+width, +height), new Vector2(+width, -height)}), 0f, BodyDef.BodyType.StaticBody, null);
         chainBody.getBody().setTransform(new Vector2(x, y), angle);
         chainBody.getBody().getFixtureList().get(0).setSensor(true);
         this.setBounds(x-width, y-height, width*2, height*2);
@@ -27,12 +35,17 @@ public class StandardSwitch extends Actor implements Spriter {
         this.rotatables = rotatables;
         sprite = new Sprite(texture);
         sprite.setBounds((x-width)*WorldScreen.PPM, (y-height)*WorldScreen.PPM, width*WorldScreen.PPM*2, height*WorldScreen.PPM*2);
+        updateSprite();
+        entity.add(new PhysicsComponent(chainBody.getBody()));
+        entity.add(new SpriteComponent(sprite));
+        entity.add(new StaticComponent());
+        entity.add(new StaticLayerComponent());
+        entity.add(new ActorComponent(this));
     }
 
     @Override
     public void updateSprite() {
-        sprite.setPosition(getChainBody().getBody().getPosition().x* WorldScreen.PPM-sprite.getWidth()/2, getChainBody().getBody().getPosition().y*WorldScreen.PPM-sprite.getHeight()/2);
-        sprite.setRotation((float) (getChainBody().getBody().getAngle() / WorldScreen.DEGREES_TO_RADIANS));
+        SpriteSyncSystem.sync(sprite, getChainBody().getBody());
     }
 
     public void click() {
@@ -55,6 +68,7 @@ public class StandardSwitch extends Actor implements Spriter {
                     break;
             }
         }
+        levelStage.getEventBus().publishSwitch(this, chainBody.getBody().getPosition().x, chainBody.getBody().getPosition().y);
     }
 
     public ChainBody getChainBody() {
@@ -66,4 +80,8 @@ public class StandardSwitch extends Actor implements Spriter {
         return sprite;
     }
 
+    public Entity getEntity() {
+        return entity;
+    }
+
 }
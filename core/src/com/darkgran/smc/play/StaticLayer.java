@@ -0,0 +1,72 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Matrix4;
+import com.darkgran.smc.NativeTracker;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.components.StaticComponent;
+import com.darkgran.smc.play.components.StaticLayerComponent;
+
+public class StaticLayer implements EntityListener { //walls & switches: vertices uploaded once per level, drawn with a single call per frame
+    public static final Family FAMILY = Family.all(SpriteComponent.class, StaticComponent.class, StaticLayerComponent.class).get();
+    private static final int MIN_CAPACITY = 256;
+    private final ImmutableArray<Entity> entities;
+    private SpriteCache cache;
+    private int capacity = 0;
+    private int cacheId = -1;
+    private boolean dirty = true;
+
+    public StaticLayer(ImmutableArray<Entity> entities) {
+        this.entities = entities;
+    }
+
+    private void bake() {
+        if (entities.size() > capacity || cache == null) {
+            NativeTracker.dispose(cache, NativeTracker.Kind.CACHE);
+            capacity = Math.max(MIN_CAPACITY, entities.size()*2);
+            cache = NativeTracker.track(new SpriteCache(capacity, false), NativeTracker.Kind.CACHE);
+        }
+        cache.clear();
+        cacheId = -1;
+        if (entities.size() > 0) {
+            cache.beginCache();
+            for (Entity entity : entities) {
+                cache.add(Mappers.SPRITE.get(entity).sprite);
+            }
+            cacheId = cache.endCache();
+        }
+        dirty = false;
+    }
+
+    public void draw(Matrix4 projection) {
+        if (dirty) {
+            bake();
+        }
+        if (cacheId >= 0) {
+            cache.setProjectionMatrix(projection);
+            cache.begin();
+            cache.draw(cacheId);
+            cache.end();
+        }
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        dirty = true;
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        dirty = true;
+    }
+
+    public void dispose() {
+        NativeTracker.dispose(cache, NativeTracker.Kind.CACHE);
+        cache = null;
+    }
+}
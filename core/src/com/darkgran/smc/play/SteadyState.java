@@ -0,0 +1,209 @@
+package com.darkgran.smc.play;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.darkgran.smc.WorldScreen;
+
+import java.util.Arrays;
+
+public class SteadyState { //detects when the rest of a prediction is plain linear motion (+screen wrap) and draws it without Box2D
+    private static final float MARGIN = 0.02f; //slack for float drift and contact skin
+    private final Array<Body> bodies = new Array<>();
+    private final Vector2 vertex = new Vector2();
+    private final FloatArray obstacles = new FloatArray(); //minX, minY, maxX, maxY, body index
+    private final FloatArray sweeps = new FloatArray(); //minX, minY, maxX, maxY (1-4 boxes per circle)
+    private final float[] spanX = new float[4];
+    private final float[] spanY = new float[4];
+    private int[] sweepStart = new int[16];
+    private int[] sweepEnd = new int[16];
+    private float[] posX = new float[16];
+    private float[] posY = new float[16];
+    private float[] velX = new float[16];
+    private float[] velY = new float[16];
+    private float[] radius = new float[16];
+    private int[] circles = new int[16]; //shadow index
+    private ShadowCircles shadows;
+    private int count;
+
+    public boolean capture(World world, ShadowCircles shadows, int remainingSteps, float stepTime) {
+        this.shadows = shadows;
+        bodies.clear();
+        obstacles.clear();
+        sweeps.clear();
+        count = 0;
+        world.getBodies(bodies);
+        for (int b = 0; b < bodies.size; b++) {
+            Body body = bodies.get(b);
+            Fixture fixture = body.getFixtureList().get(0);
+            if (fixture.isSensor()) { continue; } //stuck circles, switches, open doors
+            if (body.getUserData() instanceof ShadowCircles.Shadow && body.getType() == BodyDef.BodyType.DynamicBody) {
+                int circle = ((ShadowCircles.Shadow) body.getUserData()).index;
+                if (!shadows.isSettled(circle)) { return false; } //growing or merging: not a straight line at constant speed
+                ensureCapacity(count + 1);
+                circles[count] = circle;
+                posX[count] = body.getPosition().x;
+                posY[count] = body.getPosition().y;
+                velX[count] = body.getLinearVelocity().x;
+                velY[count] = body.getLinearVelocity().y;
+                radius[count] = fixture.getShape().getRadius();
+                sweepStart[count] = sweeps.size;
+                if (!addSweep(count, remainingSteps * stepTime, stepTime)) { return false; }
+                sweepEnd[count] = sweeps.size;
+                count++;
+            } else {
+                addObstacle(body, fixture, b);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            for (int s = sweepStart[i]; s < sweepEnd[i]; s += 4) {
+                for (int o = 0; o < obstacles.size; o += 5) {
+                    if (isPassable(circles[i], bodies.get((int) obstacles.get(o+4)))) { continue; }
+                    if (overlaps(sweeps.items, s, obstacles.items, o)) { return false; }
+                }
+                for (int j = i+1; j < count; j++) {
+                    for (int t = sweepStart[j]; t < sweepEnd[j]; t += 4) {
+                        if (overlaps(sweeps.items, s, sweeps.items, t)) { return false; }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isPassable(int circle, Body body) {
+        return body.getUserData() instanceof Beam && ((Beam) body.getUserData()).getColorType() != shadows.getColorType(circle);
+    }
+
+    public void extrapolate(ShapeRenderer shapeRenderer, int step, int horizon, float stepTime, boolean limitedDraw, Vector2 mouse) {
+        for (int s = step; s <= horizon; s++) {
+            for (int i = 0; i < count; i++) {
+                if (s > step) {
+                    wrap(i);
+                    if (s % 10 == 0 && shadows.isVisible(circles[i])) {
+                        float dx = posX[i] - mouse.x;
+                        float dy = posY[i] - mouse.y;
+                        if (!limitedDraw || dx*dx + dy*dy < 4f) {
+                            Color color = shadows.getColorType(circles[i]).getColor();
+                            shapeRenderer.setColor(color.r, color.g, color.b, 0.7f);
+                            shapeRenderer.circle(posX[i], posY[i], 0.01f, 10);
+                        }
+                    }
+                }
+                posX[i] += velX[i] * stepTime;
+                posY[i] += velY[i] * stepTime;
+            }
+        }
+    }
+
+    private void wrap(int i) { //same rule as CircleKinematics.step
+        float r = radius[i];
+        if (posX[i]-r >= WorldScreen.WORLD_WIDTH) {
+            posX[i] = -r;
+        } else if (posX[i]+r <= 0) {
+            posX[i] = WorldScreen.WORLD_WIDTH+r;
+        }
+        if (posY[i]-r >= WorldScreen.WORLD_HEIGHT) {
+            posY[i] = -r;
+        } else if (posY[i]+r <= 0) {
+            posY[i] = WorldScreen.WORLD_HEIGHT+r;
+        }
+    }
+
+    private boolean addSweep(int i, float time, float stepTime) {
+        float r = radius[i];
+        int nx = span(spanX, posX[i], velX[i], time, stepTime, r, WorldScreen.WORLD_WIDTH);
+        int ny = span(spanY, posY[i], velY[i], time, stepTime, r, WorldScreen.WORLD_HEIGHT);
+        if (nx == 0 || ny == 0) { return false; }
+        for (int x = 0; x < nx; x += 2) { //product of the per-axis spans covers every wrapped segment of the path
+            for (int y = 0; y < ny; y += 2) {
+                sweeps.add(spanX[x], spanY[y], spanX[x+1], spanY[y+1]);
+            }
+        }
+        return true;
+    }
+
+    private static int span(float[] out, float p, float v, float time, float stepTime, float r, float size) { //returns 2 per covered interval, 0 if it wraps more than once
+        float m = Math.abs(v) * stepTime + MARGIN;
+        float e = p + v * time;
+        float period = size + 2*r;
+        if (v >= 0) {
+            if (e - r < size) {
+                out[0] = p - r - m; out[1] = e + r + m;
+                return 2;
+            }
+            if (e - period - r >= size) { return 0; }
+            out[0] = p - r - m; out[1] = size + 2*r + m;
+            out[2] = -2*r - m; out[3] = e - period + r + m;
+            return 4;
+        } else {
+            if (e + r > 0) {
+                out[0] = e - r - m; out[1] = p + r + m;
+                return 2;
+            }
+            if (e + period + r <= 0) { return 0; }
+            out[0] = -2*r - m; out[1] = p + r + m;
+            out[2] = e + period - r - m; out[3] = size + 2*r + m;
+            return 4;
+        }
+    }
+
+    private void addObstacle(Body body, Fixture fixture, int index) {
+        Shape shape = fixture.getShape();
+        float minX, minY, maxX, maxY;
+        if (shape instanceof CircleShape) {
+            float r = shape.getRadius();
+            minX = body.getPosition().x - r; maxX = body.getPosition().x + r;
+            minY = body.getPosition().y - r; maxY = body.getPosition().y + r;
+        } else if (shape instanceof ChainShape) {
+            ChainShape chain = (ChainShape) shape;
+            if (body.getType() != BodyDef.BodyType.StaticBody) { //rotating: bound the whole sweep by the farthest vertex
+                float reach = 0;
+                for (int v = 0; v < chain.getVertexCount(); v++) {
+                    chain.getVertex(v, vertex);
+                    reach = Math.max(reach, vertex.len());
+                }
+                minX = body.getPosition().x - reach; maxX = body.getPosition().x + reach;
+                minY = body.getPosition().y - reach; maxY = body.getPosition().y + reach;
+            } else {
+                minX = minY = Float.MAX_VALUE;
+                maxX = maxY = -Float.MAX_VALUE;
+                for (int v = 0; v < chain.getVertexCount(); v++) {
+                    chain.getVertex(v, vertex);
+                    body.getTransform().mul(vertex);
+                    minX = Math.min(minX, vertex.x); maxX = Math.max(maxX, vertex.x);
+                    minY = Math.min(minY, vertex.y); maxY = Math.max(maxY, vertex.y);
+                }
+            }
+        } else {
+            return;
+        }
+        obstacles.add(minX, minY, maxX, maxY);
+        obstacles.add(index);
+    }
+
+    private static boolean overlaps(float[] a, int i, float[] b, int j) {
+        return a[i] < b[j+2] && a[i+2] > b[j] && a[i+1] < b[j+3] && a[i+3] > b[j+1];
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= posX.length) { return; }
+        int n = size * 2;
+        sweepStart = Arrays.copyOf(sweepStart, n);
+        sweepEnd = Arrays.copyOf(sweepEnd, n);
+        posX = Arrays.copyOf(posX, n);
+        posY = Arrays.copyOf(posY, n);
+        velX = Arrays.copyOf(velX, n);
+        velY = Arrays.copyOf(velY, n);
+        radius = Arrays.copyOf(radius, n);
+        circles = Arrays.copyOf(circles, n);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+}
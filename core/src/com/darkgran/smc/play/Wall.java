@@ -3,23 +3,30 @@ package com.darkgran.smc.play;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.components.ColorComponent;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.components.StaticComponent;
+import com.darkgran.smc.play.components.StaticLayerComponent;
+import com.darkgran.smc.play.systems.SpriteSyncSystem;
 
 public class Wall extends ChainBoxBodyObject implements Spriter {
-    private final ColorType colorType;
+    private final ColorComponent color;
     private final Sprite sprite;
 
     public Wall(LevelStage levelStage, float x, float y, float width, float height, float angle, ColorType colorType, Texture texture) {
         super(levelStage, x, y, width, height, angle, 0f, BodyDef.BodyType.StaticBody);
-        this.colorType = colorType;
+        color = new ColorComponent(colorType);
         sprite = new Sprite(texture);
+        getEntity().add(color);
+        getEntity().add(new SpriteComponent(sprite));
+        getEntity().add(new StaticComponent());
+        getEntity().add(new StaticLayerComponent());
         updateSprite();
     }
 
     @Override
     public void updateSprite() {
-        sprite.setPosition(getChainBody().getBody().getPosition().x* WorldScreen.PPM-sprite.getWidth()/2, getChainBody().getBody().getPosition().y*WorldScreen.PPM-sprite.getHeight()/2);
-        sprite.setRotation((float) (getChainBody().getBody().getAngle() / WorldScreen.DEGREES_TO_RADIANS));
+        SpriteSyncSystem.sync(sprite, getChainBody().getBody());
     }
 
     @Override
@@ -28,6 +35,6 @@ public class Wall extends ChainBoxBodyObject implements Spriter {
     }
 
     public ColorType getColorType() {
-        return colorType;
+        return color.colorType;
     }
 }
@@ -0,0 +1,12 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+
+public class ActorComponent implements Component {
+    public final Actor actor;
+
+    public ActorComponent(Actor actor) {
+        this.actor = actor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.darkgran.smc.play.ColorType;
+
+public class ColorComponent implements Component {
+    public ColorType colorType;
+
+    public ColorComponent(ColorType colorType) {
+        this.colorType = colorType;
+    }
+}
@@ -0,0 +1,10 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class GrowthComponent implements Component {
+    public double growBuffer = 0;
+    public boolean mergingAway = false;
+    public boolean gone = false;
+    public boolean freshShard = false;
+}
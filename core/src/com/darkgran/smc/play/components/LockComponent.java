@@ -0,0 +1,9 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.darkgran.smc.play.SimpleCounter;
+
+public class LockComponent implements Component {
+    public final SimpleCounter interactionLock = new SimpleCounter(false, 30, 0);
+    public final SimpleCounter breakLock = new SimpleCounter(false, 60, 0);
+}
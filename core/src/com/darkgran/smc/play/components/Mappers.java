@@ -0,0 +1,17 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+public final class Mappers {
+    public static final ComponentMapper<PhysicsComponent> PHYSICS = ComponentMapper.getFor(PhysicsComponent.class);
+    public static final ComponentMapper<ColorComponent> COLOR = ComponentMapper.getFor(ColorComponent.class);
+    public static final ComponentMapper<GrowthComponent> GROWTH = ComponentMapper.getFor(GrowthComponent.class);
+    public static final ComponentMapper<MotionComponent> MOTION = ComponentMapper.getFor(MotionComponent.class);
+    public static final ComponentMapper<LockComponent> LOCK = ComponentMapper.getFor(LockComponent.class);
+    public static final ComponentMapper<SpriteComponent> SPRITE = ComponentMapper.getFor(SpriteComponent.class);
+    public static final ComponentMapper<SwitchableComponent> SWITCHABLE = ComponentMapper.getFor(SwitchableComponent.class);
+    public static final ComponentMapper<RotationComponent> ROTATION = ComponentMapper.getFor(RotationComponent.class);
+    public static final ComponentMapper<ActorComponent> ACTOR = ComponentMapper.getFor(ActorComponent.class);
+
+    private Mappers() { }
+}
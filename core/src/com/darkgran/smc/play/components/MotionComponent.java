@@ -0,0 +1,8 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class MotionComponent implements Component {
+    public float speed = 0;
+    public boolean stuck = false;
+}
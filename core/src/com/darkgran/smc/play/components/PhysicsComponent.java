@@ -0,0 +1,15 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.physics.box2d.Body;
+
+public class PhysicsComponent implements Component {
+    public Body body;
+    public double radius = 0; //circles only
+    public int readbackIndex = -1; //slot in BodyReadback, valid while readbackStamp matches
+    public int readbackStamp = -1;
+
+    public PhysicsComponent(Body body) {
+        this.body = body;
+    }
+}
@@ -0,0 +1,11 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class RotationComponent implements Component {
+    public float targetAngle;
+
+    public RotationComponent(float targetAngle) {
+        this.targetAngle = targetAngle;
+    }
+}
@@ -0,0 +1,12 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+public class SpriteComponent implements Component {
+    public final Sprite sprite;
+
+    public SpriteComponent(Sprite sprite) {
+        this.sprite = sprite;
+    }
+}
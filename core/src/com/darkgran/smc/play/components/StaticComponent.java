@@ -0,0 +1,5 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class StaticComponent implements Component { } //marker: body never moves after creation (no per-step syncing needed)
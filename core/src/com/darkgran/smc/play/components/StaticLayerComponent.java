@@ -0,0 +1,5 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+
+public class StaticLayerComponent implements Component { } //marker: sprite is baked into the StaticLayer instead of being drawn per frame
@@ -0,0 +1,12 @@
+package com.darkgran.smc.play.components;
+
+import com.badlogic.ashley.core.Component;
+import com.darkgran.smc.play.Switchable;
+
+public class SwitchableComponent implements Component {
+    public final Switchable switchable;
+
+    public SwitchableComponent(Switchable switchable) {
+        this.switchable = switchable;
+    }
+}
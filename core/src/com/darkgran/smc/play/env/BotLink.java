@@ -0,0 +1,124 @@
+package com.darkgran.smc.play.env;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class BotLink { //game side of the shared-memory bot interface: one observation slot and one action slot in a memory-mapped file, handed over by sequence counters (release store after the data, acquire load before reading it: SharedMemory)
+    //Layout (little-endian): header | observation | action
+    public static final int MAGIC = 0x424d4353; //"SMCB"
+    public static final int VERSION = 1;
+    public static final int H_MAGIC = 0;
+    public static final int H_VERSION = 4;
+    public static final int H_MAX_CIRCLES = 8;
+    public static final int H_MAX_BEAMS = 12;
+    public static final int H_OBS_SEQ = 16; //long, game: observation n is complete
+    public static final int H_ACT_SEQ = 24; //long, bot: action for observation n is complete
+    public static final int H_CLOSED = 32; //int, game: no more observations
+    public static final int HEADER_BYTES = 64;
+    public static final int O_STEP = 0; //long
+    public static final int O_SECONDS = 8; //float
+    public static final int O_FLAGS = 12; //int, completed | player << 1
+    public static final int O_CIRCLE_COUNT = 16;
+    public static final int O_BEAM_COUNT = 20;
+    public static final int O_CIRCLES = 24; //maxCircles rows of x, y, radius, color (floats)
+    public static final int A_TYPE = 0; //int, EnvSession.ACTION_*
+    public static final int A_TARGET = 4;
+    public static final int A_X = 8; //float
+    public static final int A_Y = 12;
+    public static final int ACTION_BYTES = 16;
+    private static final int SPINS_BEFORE_YIELD = 1000;
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int maxCircles;
+    private final int maxBeams;
+    private final int observationOffset = HEADER_BYTES;
+    private final int actionOffset;
+    private final long observationSeq; //addresses of the header fields the other process polls or writes
+    private final long actionSeq;
+    private final long closed;
+    private long sequence = 0;
+
+    public BotLink(File path, int maxCircles, int maxBeams) throws IOException {
+        this.maxCircles = maxCircles;
+        this.maxBeams = maxBeams;
+        actionOffset = align(observationOffset + observationBytes(maxCircles, maxBeams));
+        file = new RandomAccessFile(path, "rw");
+        file.setLength(actionOffset + ACTION_BYTES);
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, actionOffset + ACTION_BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        observationSeq = SharedMemory.address(buffer, H_OBS_SEQ);
+        actionSeq = SharedMemory.address(buffer, H_ACT_SEQ);
+        closed = SharedMemory.address(buffer, H_CLOSED);
+        buffer.putLong(H_OBS_SEQ, 0);
+        buffer.putLong(H_ACT_SEQ, 0);
+        buffer.putInt(H_CLOSED, 0);
+        buffer.putInt(H_MAX_CIRCLES, maxCircles);
+        buffer.putInt(H_MAX_BEAMS, maxBeams);
+        buffer.putInt(H_VERSION, VERSION);
+        SharedMemory.putOrderedInt(SharedMemory.address(buffer, H_MAGIC), MAGIC); //last: a client that sees it sees a valid header
+    }
+
+    public static int observationBytes(int maxCircles, int maxBeams) {
+        return O_CIRCLES + maxCircles*EnvSession.OBS_FIELDS*4 + maxBeams*4;
+    }
+
+    public static int align(int offset) {
+        return (offset + 63) & ~63; //own cache line for the action slot
+    }
+
+    public void publish(EnvSession session) { //writes the state in place, then bumps the counter
+        int o = observationOffset;
+        buffer.putLong(o + O_STEP, session.getSteps());
+        buffer.putFloat(o + O_SECONDS, session.getSeconds());
+        buffer.putInt(o + O_FLAGS, (session.isCompleted() ? 1 : 0) | (session.hasPlayerCircle() ? 2 : 0));
+        int circles = session.observe(buffer, o + O_CIRCLES, maxCircles);
+        buffer.putInt(o + O_CIRCLE_COUNT, circles);
+        int beams = Math.min(session.getBeamCount(), maxBeams);
+        int beamOffset = o + O_CIRCLES + maxCircles*EnvSession.OBS_FIELDS*4;
+        for (int i = 0; i < beams; i++) {
+            buffer.putInt(beamOffset + i*4, session.getBeamState(i));
+        }
+        buffer.putInt(o + O_BEAM_COUNT, beams);
+        SharedMemory.putOrderedLong(observationSeq, ++sequence);
+    }
+
+    public boolean awaitAction(long timeoutNanos) { //spins (then yields) until the bot answered the last observation
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = 0;
+        while (SharedMemory.getLongVolatile(actionSeq) != sequence) { //re-read every spin, the action slot only after it
+            if (++spins > SPINS_BEFORE_YIELD) {
+                if (System.nanoTime() > deadline) { return false; }
+                Thread.yield();
+            }
+        }
+        return true;
+    }
+
+    public void applyAction(EnvSession session) { //after awaitAction
+        int a = actionOffset;
+        session.act(buffer.getInt(a + A_TYPE), buffer.getInt(a + A_TARGET), buffer.getFloat(a + A_X), buffer.getFloat(a + A_Y));
+    }
+
+    public void close() throws IOException {
+        SharedMemory.putOrderedInt(closed, 1);
+        buffer.force();
+        file.close();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getMaxCircles() {
+        return maxCircles;
+    }
+
+    public int getMaxBeams() {
+        return maxBeams;
+    }
+
+}
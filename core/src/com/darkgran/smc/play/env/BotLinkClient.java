@@ -0,0 +1,100 @@
+package com.darkgran.smc.play.env;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static com.darkgran.smc.play.env.BotLink.*;
+
+public class BotLinkClient { //stand-in for an external bot: maps the same file and answers every observation (reference for ports to other runtimes)
+    private static final int SPINS_BEFORE_YIELD = 1000;
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int maxCircles;
+    private final int maxBeams;
+    private final int actionOffset;
+    private final long observationSeq; //addresses of the header fields the other process polls or writes
+    private final long actionSeq;
+    private final long closed;
+    private long seen = 0;
+
+    public BotLinkClient(File path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (SharedMemory.getIntVolatile(SharedMemory.address(buffer, H_MAGIC)) != MAGIC || buffer.getInt(H_VERSION) != VERSION) {
+            file.close();
+            throw new IOException("Not a bot link: " + path);
+        }
+        maxCircles = buffer.getInt(H_MAX_CIRCLES);
+        maxBeams = buffer.getInt(H_MAX_BEAMS);
+        actionOffset = align(HEADER_BYTES + observationBytes(maxCircles, maxBeams));
+        observationSeq = SharedMemory.address(buffer, H_OBS_SEQ);
+        actionSeq = SharedMemory.address(buffer, H_ACT_SEQ);
+        closed = SharedMemory.address(buffer, H_CLOSED);
+    }
+
+    public boolean awaitObservation(long timeoutNanos) { //false on timeout or when the game closed the link
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = 0;
+        long sequence;
+        while ((sequence = SharedMemory.getLongVolatile(observationSeq)) == seen) { //re-read every spin, the observation only after it
+            if (SharedMemory.getIntVolatile(closed) != 0) { return false; }
+            if (++spins > SPINS_BEFORE_YIELD) {
+                if (System.nanoTime() > deadline) { return false; }
+                Thread.yield();
+            }
+        }
+        seen = sequence;
+        return true;
+    }
+
+    public void act(int type, int target, float x, float y) { //answers the observation from awaitObservation
+        buffer.putInt(actionOffset + A_TYPE, type);
+        buffer.putInt(actionOffset + A_TARGET, target);
+        buffer.putFloat(actionOffset + A_X, x);
+        buffer.putFloat(actionOffset + A_Y, y);
+        SharedMemory.putOrderedLong(actionSeq, seen);
+    }
+
+    //Observation
+    public long getStep() {
+        return buffer.getLong(HEADER_BYTES + O_STEP);
+    }
+
+    public float getSeconds() {
+        return buffer.getFloat(HEADER_BYTES + O_SECONDS);
+    }
+
+    public boolean isCompleted() {
+        return (buffer.getInt(HEADER_BYTES + O_FLAGS) & 1) != 0;
+    }
+
+    public boolean hasPlayerCircle() {
+        return (buffer.getInt(HEADER_BYTES + O_FLAGS) & 2) != 0;
+    }
+
+    public int getCircleCount() {
+        return buffer.getInt(HEADER_BYTES + O_CIRCLE_COUNT);
+    }
+
+    public float getCircle(int i, int field) { //field: 0 x, 1 y, 2 radius, 3 color
+        return buffer.getFloat(HEADER_BYTES + O_CIRCLES + (i*EnvSession.OBS_FIELDS + field)*4);
+    }
+
+    public int getBeamCount() {
+        return buffer.getInt(HEADER_BYTES + O_BEAM_COUNT);
+    }
+
+    public int getBeamState(int i) {
+        return buffer.getInt(HEADER_BYTES + O_CIRCLES + maxCircles*EnvSession.OBS_FIELDS*4 + i*4);
+    }
+
+    public void close() throws IOException {
+        file.close();
+    }
+
+}
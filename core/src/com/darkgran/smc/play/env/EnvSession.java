@@ -0,0 +1,320 @@
+package com.darkgran.smc.play.env;
+
+import com.badlogic.gdx.math.GeometryUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.darkgran.smc.NativeTracker;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.*;
+import com.darkgran.smc.play.events.GameEventBus;
+import com.darkgran.smc.play.systems.RotationSystem;
+
+import java.nio.ByteBuffer;
+
+public class EnvSession { //one headless game: own World, circles & their rules in ShadowCircles (as the prediction), obstacles in flat arrays; no actors, engine or GL
+    public static final int ACTION_NONE = 0;
+    public static final int ACTION_PLACE = 1; //player circle at x, y
+    public static final int ACTION_REMOVE = 2; //player circle
+    public static final int ACTION_GROW = 3; //circle at target grows at the expense of its color (one step of holding it)
+    public static final int ACTION_SWITCH = 4; //switch at target
+    public static final int OBS_FIELDS = 4; //x, y, radius, color
+    private static final ColorType[] COLOR_TYPES = ColorType.values();
+    private final World world;
+    private final float stepTime;
+    private final int velocityIterations;
+    private final int positionIterations;
+    private LevelInfo level;
+    private int steps;
+    private boolean completed;
+    private GameEventBus eventBus; //optional: merges/splits as the game publishes them (QualityHarness)
+    //Circles (ShadowCircles: the same primitive rules as the prediction)
+    private final ShadowCircles circles = new ShadowCircles();
+    //Obstacles
+    private Body[] beamBody = new Body[0];
+    private int[] beamColor = new int[0];
+    private Body[] rotatableBody = new Body[0];
+    private float[] rotatableTarget = new float[0];
+    private Body[] switchBody = new Body[0];
+    private Body playerBody;
+    private final Array<Body> bodies = new Array<>();
+    private final Slot playerSlot = new Slot(Slot.PLAYER, 0, 0);
+    private final ShadowCircles.Obstacles obstacles = new ShadowCircles.Obstacles() { //Beam & Wall by Slot
+        @Override
+        public boolean isOpen(Object userData, ColorType colorType) {
+            Slot slot = (Slot) userData;
+            return slot.kind == Slot.BEAM && beamColor[slot.index] != colorType.ordinal();
+        }
+
+        @Override
+        public boolean isSoft(Object userData, ColorType colorType) {
+            Slot slot = (Slot) userData;
+            return slot.kind == Slot.WALL && slot.color == colorType.ordinal();
+        }
+    };
+
+    public EnvSession(float stepTime, int velocityIterations, int positionIterations) {
+        this.stepTime = stepTime;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        world = NativeTracker.newWorld(new Vector2(0, 0), false);
+        world.setContactListener(circles);
+        circles.setObstacles(obstacles);
+    }
+
+    public void load(LevelInfo levelInfo) {
+        clear();
+        level = levelInfo;
+        circles.clear(world, levelInfo.getCircles().size());
+        for (CircleInfo circleInfo : levelInfo.getCircles()) {
+            if (circleInfo.getType() != ColorType.NONE) {
+                circles.create(circleInfo.getX(), circleInfo.getY(), circleInfo.getAngle(), circleInfo.getRadius(), circleInfo.getType());
+            }
+        }
+        for (WallInfo wallInfo : levelInfo.getWalls()) {
+            createBox(wallInfo, (float) (wallInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS), new Slot(Slot.WALL, 0, wallInfo.getType().ordinal()));
+        }
+        int beams = levelInfo.getBeams().size();
+        beamBody = new Body[beams];
+        beamColor = new int[beams];
+        for (int i = 0; i < beams; i++) {
+            BeamInfo beamInfo = levelInfo.getBeams().get(i);
+            beamBody[i] = createBox(beamInfo, beamInfo.getAngle(), new Slot(Slot.BEAM, i, 0)); //beams take the angle as is, like LevelStage.createBeam
+            beamColor[i] = beamInfo.getColorType().ordinal();
+            beamBody[i].getFixtureList().get(0).setSensor(!beamInfo.isActive());
+        }
+        int rotatables = levelInfo.getRotatables().size();
+        rotatableBody = new Body[rotatables];
+        rotatableTarget = new float[rotatables];
+        for (int i = 0; i < rotatables; i++) {
+            RotatableInfo rotatableInfo = levelInfo.getRotatables().get(i);
+            float angle = (float) (rotatableInfo.getAngle()*WorldScreen.DEGREES_TO_RADIANS);
+            rotatableBody[i] = createChain(rotatableInfo.getX(), rotatableInfo.getY(), rotatableInfo.getVertices(), angle, 0f, BodyDef.BodyType.KinematicBody, new Slot(Slot.ROTATABLE, i, 0));
+            rotatableTarget[i] = angle;
+        }
+        int switches = levelInfo.getSwitches().size();
+        switchBody = new Body[switches];
+        for (int i = 0; i < switches; i++) {
+            SwitchInfo switchInfo = levelInfo.getSwitches().get(i);
+            switchBody[i] = createBox(switchInfo, switchInfo.getAngle(), new Slot(Slot.SWITCH, i, 0));
+            switchBody[i].getFixtureList().get(0).setSensor(true);
+        }
+    }
+
+    public void reset() {
+        if (level != null) {
+            load(level);
+        }
+    }
+
+    private void clear() {
+        bodies.clear();
+        world.getBodies(bodies);
+        for (int i = 0; i < bodies.size; i++) {
+            NativeTracker.destroyBody(bodies.get(i));
+        }
+        bodies.clear();
+        steps = 0;
+        completed = false;
+        playerBody = null;
+    }
+
+    //Step
+    public void act(int action, int target, float x, float y) {
+        if (completed) { return; }
+        switch (action) {
+            case ACTION_PLACE:
+                if (playerBody == null && canPlace(x, y)) {
+                    playerBody = new CircleBody(world, playerSlot, x, y, LevelStage.PC_SIZE, BodyDef.BodyType.StaticBody).getBody();
+                }
+                break;
+            case ACTION_REMOVE:
+                if (playerBody != null) {
+                    NativeTracker.destroyBody(playerBody);
+                    playerBody = null;
+                }
+                break;
+            case ACTION_GROW:
+                if (target >= 0 && target < circles.getCount() && !circles.isDisabled(target)) {
+                    circles.distributedSizeChange(target);
+                }
+                break;
+            case ACTION_SWITCH:
+                if (target >= 0 && target < switchBody.length) {
+                    clickSwitch(level.getSwitches().get(target));
+                }
+                break;
+        }
+    }
+
+    public void step() {
+        if (!completed && circles.isComplete()) {
+            completed = true;
+            if (eventBus != null) { eventBus.publishCompletion(level.getId(), getSeconds()); }
+        }
+        //LockSystem, CircleStepSystem & new shards
+        circles.step();
+        //RotationSystem
+        for (int i = 0; i < rotatableBody.length; i++) {
+            Body rotatable = rotatableBody[i];
+            if (!RotationSystem.closeEnough(rotatable.getAngle(), rotatableTarget[i])) {
+                rotatable.setAngularVelocity(-1f);
+            } else {
+                rotatable.setAngularVelocity(0f);
+                rotatable.setTransform(rotatable.getPosition(), rotatableTarget[i]);
+            }
+        }
+        world.step(stepTime, velocityIterations, positionIterations);
+        circles.reap();
+        if (eventBus != null) { eventBus.drain(); }
+        steps++;
+    }
+
+    //Player Input
+    private boolean canPlace(float x, float y) { //simplified GhostCircle check: no circle under the spot
+        for (int i = 0; i < circles.getCount(); i++) {
+            Vector2 position = circles.getBody(i).getPosition();
+            float dx = position.x - x;
+            float dy = position.y - y;
+            double reach = circles.getRadius(i) + LevelStage.PC_SIZE;
+            if (dx*dx + dy*dy < reach*reach) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clickSwitch(SwitchInfo switchInfo) { //StandardSwitch.click
+        for (int b : switchInfo.getBeams()) {
+            if (b < 0 || b >= beamBody.length) { continue; }
+            if (switchInfo.getSwitchType() == SwitchType.ACTIVATOR) {
+                Fixture fixture = beamBody[b].getFixtureList().get(0);
+                fixture.setSensor(!fixture.isSensor());
+            } else {
+                beamColor[b] = Beam.nextColor(COLOR_TYPES[beamColor[b]]).ordinal();
+            }
+        }
+        if (switchInfo.getSwitchType() == SwitchType.ACTIVATOR) {
+            for (int r : switchInfo.getRotatables()) {
+                if (r >= 0 && r < rotatableBody.length && RotationSystem.closeEnough(rotatableBody[r].getAngle(), rotatableTarget[r])) {
+                    rotatableTarget[r] -= (float) (90*WorldScreen.DEGREES_TO_RADIANS);
+                }
+            }
+        }
+    }
+
+    //Obstacles
+    private Body createBox(WallInfo info, float angle, Slot slot) {
+        float w = info.getWidth()/2;
+        float h = info.getHeight()/2;
+        return createChain(info.getX(), info.getY(), new Vector2[]{new Vector2(-w, -h), new Vector2(-w, +h), new Vector2(+w, +h), new Vector2(+w, -h)}, angle, 0f, BodyDef.BodyType.StaticBody, slot);
+    }
+
+    private Body createChain(float x, float y, Vector2[] vertices, float angle, float restitution, BodyDef.BodyType bodyType, Slot slot) { //ChainBodyObject.createChainBody
+        float[] polygon = new float[vertices.length*2];
+        Vector2[] centered = new Vector2[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            polygon[i*2] = vertices[i].x;
+            polygon[i*2+1] = vertices[i].y;
+        }
+        Vector2 centroid = new Vector2();
+        GeometryUtils.polygonCentroid(polygon, 0, polygon.length, centroid);
+        for (int i = 0; i < vertices.length; i++) {
+            centered[i] = new Vector2(vertices[i].x - centroid.x, vertices[i].y - centroid.y);
+        }
+        Body chain = new ChainBody(world, slot, centered, restitution, bodyType, centroid).getBody();
+        chain.setTransform(x, y, angle);
+        return chain;
+    }
+
+    //Observation
+    public int observe(float[] out, int offset, int maxCircles) { //x, y, radius, color per circle, row = the target index for ACTION_GROW; returns how many were written
+        int written = Math.min(circles.getCount(), maxCircles);
+        for (int i = 0; i < written; i++) {
+            int o = offset + i*OBS_FIELDS;
+            Vector2 position = circles.getBody(i).getPosition();
+            out[o] = position.x;
+            out[o+1] = position.y;
+            out[o+2] = (float) circles.getRadius(i);
+            out[o+3] = circles.getColorType(i).ordinal();
+        }
+        return written;
+    }
+
+    public int observe(ByteBuffer out, int offset, int maxCircles) { //same rows straight into a (mapped) buffer, absolute puts
+        int written = Math.min(circles.getCount(), maxCircles);
+        for (int i = 0; i < written; i++) {
+            int o = offset + i*OBS_FIELDS*4;
+            Vector2 position = circles.getBody(i).getPosition();
+            out.putFloat(o, position.x);
+            out.putFloat(o+4, position.y);
+            out.putFloat(o+8, (float) circles.getRadius(i));
+            out.putFloat(o+12, circles.getColorType(i).ordinal());
+        }
+        return written;
+    }
+
+    public void dispose() {
+        NativeTracker.dispose(world);
+        circles.dispose();
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public int getCircleCount() {
+        return circles.getCount();
+    }
+
+    public float getSeconds() {
+        return steps * stepTime;
+    }
+
+    public int getSwitchCount() {
+        return switchBody.length;
+    }
+
+    public int getBeamCount() {
+        return beamBody.length;
+    }
+
+    public int getBeamState(int i) { //closed | color << 1, as in RewindFrame
+        return (beamBody[i].getFixtureList().get(0).isSensor() ? 0 : 1) | (beamColor[i] << 1);
+    }
+
+    public void setEventBus(GameEventBus eventBus) {
+        this.eventBus = eventBus;
+        circles.setEventBus(eventBus);
+    }
+
+    public boolean hasPlayerCircle() {
+        return playerBody != null;
+    }
+
+    public World getWorld() { //to copy it like the live world (PredictorAgreement)
+        return world;
+    }
+
+    public ShadowCircles getCircles() {
+        return circles;
+    }
+
+    private static class Slot { //obstacle userData: what the body is and where its state lives (circles have ShadowCircles.Shadow)
+        static final int WALL = 1, BEAM = 2, ROTATABLE = 3, SWITCH = 4, PLAYER = 5;
+        final int kind;
+        final int index;
+        final int color;
+
+        Slot(int kind, int index, int color) {
+            this.kind = kind;
+            this.index = index;
+            this.color = color;
+        }
+    }
+
+}
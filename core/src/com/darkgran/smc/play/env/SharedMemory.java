@@ -0,0 +1,79 @@
+package com.darkgran.smc.play.env;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+public class SharedMemory { //release stores & acquire loads on the BotLink counters, straight on the mapped address (ByteBuffer's own accesses are plain: neither ordered nor re-read in a loop)
+    private static final boolean SWAP = ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN; //the link layout is little-endian
+    private static final MethodHandle PUT_ORDERED_LONG; //sun.misc.Unsafe through constant handles (inlined like direct calls), so the build doesn't warn about it
+    private static final MethodHandle GET_LONG_VOLATILE;
+    private static final MethodHandle PUT_ORDERED_INT;
+    private static final MethodHandle GET_INT_VOLATILE;
+    private static final MethodHandle GET_LONG;
+    private static final long ADDRESS; //offset of Buffer.address
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PUT_ORDERED_LONG = lookup.unreflect(unsafeClass.getMethod("putOrderedLong", Object.class, long.class, long.class)).bindTo(unsafe);
+            GET_LONG_VOLATILE = lookup.unreflect(unsafeClass.getMethod("getLongVolatile", Object.class, long.class)).bindTo(unsafe);
+            PUT_ORDERED_INT = lookup.unreflect(unsafeClass.getMethod("putOrderedInt", Object.class, long.class, int.class)).bindTo(unsafe);
+            GET_INT_VOLATILE = lookup.unreflect(unsafeClass.getMethod("getIntVolatile", Object.class, long.class)).bindTo(unsafe);
+            GET_LONG = lookup.unreflect(unsafeClass.getMethod("getLong", Object.class, long.class)).bindTo(unsafe);
+            ADDRESS = (Long) unsafeClass.getMethod("objectFieldOffset", Field.class).invoke(unsafe, Buffer.class.getDeclaredField("address"));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public static long address(MappedByteBuffer buffer, int offset) { //valid while the buffer stays reachable, offsets aligned to the value size
+        try {
+            return (long) GET_LONG.invokeExact((Object) buffer, ADDRESS) + offset;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public static void putOrderedLong(long address, long value) { //every earlier write is visible before this one
+        try {
+            PUT_ORDERED_LONG.invokeExact((Object) null, address, SWAP ? Long.reverseBytes(value) : value);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public static long getLongVolatile(long address) { //every later read happens after this one
+        try {
+            long value = (long) GET_LONG_VOLATILE.invokeExact((Object) null, address);
+            return SWAP ? Long.reverseBytes(value) : value;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public static void putOrderedInt(long address, int value) {
+        try {
+            PUT_ORDERED_INT.invokeExact((Object) null, address, SWAP ? Integer.reverseBytes(value) : value);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public static int getIntVolatile(long address) {
+        try {
+            int value = (int) GET_INT_VOLATILE.invokeExact((Object) null, address);
+            return SWAP ? Integer.reverseBytes(value) : value;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.darkgran.smc.play.env;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.darkgran.smc.play.LevelInfo;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class VectorEnv { //N independent EnvSessions stepped by one call; actions in, observations out, all in flat arrays indexed by env
+    public static final float STEP_TIME = 1f / 60; //same as WorldScreen
+    public static final int VELOCITY_ITERATIONS = 15;
+    public static final int POSITION_ITERATIONS = 12;
+    private final EnvSession[] sessions;
+    private final LevelInfo level;
+    private final int maxCircles;
+    private final int maxSteps;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    //Actions (written by the caller before step, cleared to ACTION_NONE after it)
+    public final int[] actions; //type, target per env
+    public final float[] actionPositions; //x, y per env
+    //Observations (valid after step/reset)
+    public final float[] observations; //maxCircles * EnvSession.OBS_FIELDS per env
+    public final int[] circleCounts;
+    public final boolean[] completed;
+    public final boolean[] resets; //env started a new episode during the last step (timeout or completion)
+    public final int[] steps;
+
+    public VectorEnv(LevelInfo level, int envs, int maxCircles, int maxSteps, int threads) {
+        Box2D.init(); //no Gdx application here
+        this.level = level;
+        this.maxCircles = maxCircles;
+        this.maxSteps = maxSteps;
+        sessions = new EnvSession[envs];
+        actions = new int[envs*2];
+        actionPositions = new float[envs*2];
+        observations = new float[envs*maxCircles*EnvSession.OBS_FIELDS];
+        circleCounts = new int[envs];
+        completed = new boolean[envs];
+        resets = new boolean[envs];
+        steps = new int[envs];
+        pool = new ForkJoinPool(threads);
+        chunkSize = Math.max(1, envs / (threads*4)); //a few chunks per thread so uneven levels still balance
+        for (int i = 0; i < envs; i++) {
+            sessions[i] = new EnvSession(STEP_TIME, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        }
+        reset();
+    }
+
+    public void reset() {
+        pool.invoke(new StepTask(0, sessions.length, true));
+    }
+
+    public void step() {
+        pool.invoke(new StepTask(0, sessions.length, false));
+    }
+
+    private void run(int from, int to, boolean reset) { //one worker owns [from, to): its sessions and their slices of every array
+        for (int i = from; i < to; i++) {
+            EnvSession session = sessions[i];
+            resets[i] = false;
+            if (reset) {
+                session.load(level);
+            } else {
+                if (session.isCompleted() || session.getSteps() >= maxSteps) {
+                    session.reset();
+                    resets[i] = true;
+                }
+                session.act(actions[i*2], actions[i*2+1], actionPositions[i*2], actionPositions[i*2+1]);
+                actions[i*2] = EnvSession.ACTION_NONE;
+                session.step();
+            }
+            circleCounts[i] = session.observe(observations, i*maxCircles*EnvSession.OBS_FIELDS, maxCircles);
+            Arrays.fill(observations, (i*maxCircles + circleCounts[i])*EnvSession.OBS_FIELDS, (i+1)*maxCircles*EnvSession.OBS_FIELDS, 0f);
+            completed[i] = session.isCompleted();
+            steps[i] = session.getSteps();
+        }
+    }
+
+    public void dispose() {
+        pool.shutdown();
+        for (EnvSession session : sessions) {
+            session.dispose();
+        }
+    }
+
+    public int getEnvCount() {
+        return sessions.length;
+    }
+
+    public int getMaxCircles() {
+        return maxCircles;
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    @SuppressWarnings("serial") //never serialized, a fork-join task only
+    private class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final boolean reset;
+
+        StepTask(int from, int to, boolean reset) {
+            this.from = from;
+            this.to = to;
+            this.reset = reset;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                run(from, to, reset);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new StepTask(from, mid, reset), new StepTask(mid, to, reset));
+            }
+        }
+    }
+
+}
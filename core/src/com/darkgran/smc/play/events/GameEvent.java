@@ -0,0 +1,26 @@
+package com.darkgran.smc.play.events;
+
+import com.darkgran.smc.play.ColorType;
+
+public class GameEvent { //preallocated and reused by GameEventBus, don't keep references past onEvent
+    public GameEventType type;
+    public long step;
+    public int level;
+    public ColorType colorType;
+    public Object source;
+    public Object target;
+    public float x;
+    public float y;
+    public double value;
+
+    void reset() {
+        type = null;
+        colorType = null;
+        source = null;
+        target = null;
+        level = 0;
+        x = 0;
+        y = 0;
+        value = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.darkgran.smc.play.events;
+
+import com.badlogic.gdx.utils.Array;
+import com.darkgran.smc.play.ColorType;
+
+public class GameEventBus { //single-producer ring of preallocated events: published during the step, drained after it
+    public static final int CAPACITY = 256; //power of two
+    private static final int MASK = CAPACITY - 1;
+    private final GameEvent[] ring = new GameEvent[CAPACITY];
+    private final Array<GameEventListener> listeners = new Array<>(true, 4);
+    private final long[] published = new long[GameEventType.values().length];
+    private volatile long head = 0; //next slot to publish (producer only)
+    private volatile long tail = 0; //next slot to drain (consumer only)
+    private long step = 0;
+    private long dropped = 0;
+
+    public GameEventBus() {
+        for (int i = 0; i < CAPACITY; i++) {
+            ring[i] = new GameEvent();
+        }
+    }
+
+    //Producer
+    private GameEvent claim(GameEventType type) { //null when the drainer fell a whole ring behind
+        if (head - tail >= CAPACITY) {
+            dropped++;
+            return null;
+        }
+        GameEvent event = ring[(int) (head & MASK)];
+        event.reset();
+        event.type = type;
+        event.step = step;
+        return event;
+    }
+
+    private void commit(GameEvent event) {
+        published[event.type.ordinal()]++;
+        head = head + 1; //volatile write makes the filled slot visible to the drainer
+    }
+
+    public void publishMerge(Object survivor, Object absorbed, ColorType colorType, double radius) {
+        GameEvent event = claim(GameEventType.MERGE);
+        if (event != null) {
+            event.source = survivor;
+            event.target = absorbed;
+            event.colorType = colorType;
+            event.value = radius;
+            commit(event);
+        }
+    }
+
+    public void publishSplit(Object source, ColorType colorType, float x, float y, double radius) {
+        GameEvent event = claim(GameEventType.SPLIT);
+        if (event != null) {
+            event.source = source;
+            event.colorType = colorType;
+            event.x = x;
+            event.y = y;
+            event.value = radius;
+            commit(event);
+        }
+    }
+
+    public void publishSwitch(Object source, float x, float y) {
+        GameEvent event = claim(GameEventType.SWITCH);
+        if (event != null) {
+            event.source = source;
+            event.x = x;
+            event.y = y;
+            commit(event);
+        }
+    }
+
+    public void publishCompletion(int level, double seconds) {
+        GameEvent event = claim(GameEventType.COMPLETION);
+        if (event != null) {
+            event.level = level;
+            event.value = seconds;
+            commit(event);
+        }
+    }
+
+    //Consumer
+    public void drain() {
+        long end = head;
+        while (tail < end) {
+            GameEvent event = ring[(int) (tail & MASK)];
+            for (int i = 0; i < listeners.size; i++) {
+                listeners.get(i).onEvent(event);
+            }
+            event.source = null; //don't pin dead circles
+            event.target = null;
+            tail = tail + 1;
+        }
+        step++;
+    }
+
+    public void clear() { //drops whatever is pending (level switch)
+        tail = head;
+    }
+
+    public void subscribe(GameEventListener listener) {
+        if (!listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void unsubscribe(GameEventListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    public long getPublished(GameEventType type) {
+        return published[type.ordinal()];
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.darkgran.smc.play.events;
+
+public interface GameEventListener {
+    void onEvent(GameEvent event);
+}
@@ -0,0 +1,8 @@
+package com.darkgran.smc.play.events;
+
+public enum GameEventType {
+    MERGE, //source absorbs target
+    SPLIT, //source breaks, x/y/value = the new shard
+    SWITCH, //source = the clicked switch
+    COMPLETION //level, value = seconds
+}
@@ -0,0 +1,22 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.darkgran.smc.play.CircleActor;
+import com.darkgran.smc.play.components.*;
+
+public class ActorBoundsSystem extends IteratingSystem {
+
+    public ActorBoundsSystem(int priority) {
+        super(Family.all(PhysicsComponent.class, ActorComponent.class).exclude(StaticComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        GrowthComponent growth = Mappers.GROWTH.get(entity);
+        if ((growth == null || !growth.gone) && Mappers.ACTOR.get(entity).actor instanceof CircleActor) {
+            ((CircleActor) Mappers.ACTOR.get(entity).actor).refreshActorBounds();
+        }
+    }
+}
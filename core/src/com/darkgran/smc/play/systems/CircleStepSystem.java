@@ -0,0 +1,169 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.MassData;
+import com.darkgran.smc.play.BodyMutations;
+import com.darkgran.smc.play.BodyReadback;
+import com.darkgran.smc.play.CircleKinematics;
+import com.darkgran.smc.play.ColorType;
+import com.darkgran.smc.play.ColoredCircle;
+import com.darkgran.smc.play.components.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class CircleStepSystem extends EntitySystem { //growth, constant speed & screen wrap: snapshot (serial JNI reads) -> CircleKinematics.step (pure, parallel in chunks) -> apply (serial JNI writes)
+    public static final int CHUNK_SIZE = 64;
+    public static final int PARALLEL_THRESHOLD = 4*CHUNK_SIZE; //below this forking costs more than it saves
+    private static final MassData MASS_DATA = new MassData(); //applyRadius scratch (render thread only)
+    private final Family family = Family.all(PhysicsComponent.class, GrowthComponent.class, ColorComponent.class, MotionComponent.class).get();
+    private final ForkJoinPool pool;
+    private final BodyMutations mutations;
+    private final BodyReadback readback;
+    private ImmutableArray<Entity> entities;
+    private int count = 0;
+    //snapshot & results
+    private Entity[] stepped = new Entity[0];
+    private final CircleKinematics.State circles = new CircleKinematics.State();
+
+    public CircleStepSystem(int priority, BodyMutations mutations, BodyReadback readback) {
+        this(priority, mutations, readback, ForkJoinPool.commonPool());
+    }
+
+    public CircleStepSystem(int priority, BodyMutations mutations, BodyReadback readback, ForkJoinPool pool) {
+        super(priority);
+        this.mutations = mutations;
+        this.readback = readback;
+        this.pool = pool;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(family);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    @Override
+    public boolean checkProcessing() {
+        return entities != null && entities.size() > 0;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        snapshot();
+        if (count >= PARALLEL_THRESHOLD) {
+            pool.invoke(new ComputeTask(0, count));
+        } else {
+            CircleKinematics.step(circles, 0, count);
+        }
+        apply();
+    }
+
+    private void snapshot() {
+        ensureCapacity(entities.size());
+        CircleKinematics.State s = circles;
+        count = 0;
+        for (Entity entity : entities) {
+            GrowthComponent growth = Mappers.GROWTH.get(entity);
+            if (growth.gone) { continue; }
+            PhysicsComponent physics = Mappers.PHYSICS.get(entity);
+            int i = count++;
+            stepped[i] = entity;
+            s.posX[i] = readback.getX(physics);
+            s.posY[i] = readback.getY(physics);
+            s.velX[i] = readback.getVelocityX(physics);
+            s.velY[i] = readback.getVelocityY(physics);
+            s.radius[i] = physics.radius;
+            s.growBuffer[i] = growth.growBuffer;
+            s.mergingAway[i] = growth.mergingAway;
+            s.freshShard[i] = growth.freshShard;
+            s.gone[i] = false;
+            s.speed[i] = Mappers.MOTION.get(entity).speed;
+            s.colorType[i] = Mappers.COLOR.get(entity).colorType;
+        }
+        s.count = count;
+    }
+
+    private void apply() {
+        CircleKinematics.State s = circles;
+        for (int i = 0; i < count; i++) {
+            Entity entity = stepped[i];
+            stepped[i] = null;
+            PhysicsComponent physics = Mappers.PHYSICS.get(entity);
+            GrowthComponent growth = Mappers.GROWTH.get(entity);
+            MotionComponent motion = Mappers.MOTION.get(entity);
+            growth.growBuffer = s.growBuffer[i];
+            growth.freshShard = s.freshShard[i];
+            growth.gone = s.gone[i];
+            motion.speed = s.speed[i];
+            motion.stuck = false;
+            Body body = physics.body;
+            int changed = s.changed[i];
+            if ((changed & CircleKinematics.RADIUS_CHANGED) != 0) {
+                physics.radius = s.radius[i];
+                mutations.setRadius(body, (float) s.radius[i]);
+            }
+            if ((changed & CircleKinematics.VELOCITY_CHANGED) != 0) {
+                mutations.setLinearVelocity(body, s.velX[i], s.velY[i]);
+            }
+            if ((changed & CircleKinematics.WRAPPED) != 0) {
+                mutations.setTransform(body, s.posX[i], s.posY[i], readback.getAngle(physics));
+            }
+        }
+    }
+
+    public static void applyRadius(Entity entity, double radius) { //immediately (restores)
+        CircleKinematics.applyRadius(Mappers.PHYSICS.get(entity).body, (float) applyRadiusState(entity, radius), MASS_DATA);
+    }
+
+    public static void applyRadius(Entity entity, double radius, BodyMutations mutations) { //the body follows at the next flush
+        mutations.setRadius(Mappers.PHYSICS.get(entity).body, (float) applyRadiusState(entity, radius));
+    }
+
+    private static double applyRadiusState(Entity entity, double radius) {
+        PhysicsComponent physics = Mappers.PHYSICS.get(entity);
+        GrowthComponent growth = Mappers.GROWTH.get(entity);
+        ColorType colorType = Mappers.COLOR.get(entity).colorType;
+        radius = CircleKinematics.clampRadius(radius, colorType, growth.mergingAway, growth.freshShard);
+        physics.radius = radius;
+        Mappers.MOTION.get(entity).speed = ColoredCircle.getSpeedLimit(colorType.getSpeed(), radius, growth.freshShard, growth.growBuffer, colorType);
+        return radius;
+    }
+
+    private void ensureCapacity(int size) {
+        if (stepped.length < size) {
+            stepped = new Entity[Math.max(size, stepped.length*2)];
+        }
+        circles.ensureCapacity(size);
+    }
+
+    @SuppressWarnings("serial") //never serialized, a fork-join task only
+    private class ComputeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        ComputeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                CircleKinematics.step(circles, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ComputeTask(from, mid), new ComputeTask(mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.darkgran.smc.play.CircleActor;
+import com.darkgran.smc.play.LevelStage;
+import com.darkgran.smc.play.components.ActorComponent;
+import com.darkgran.smc.play.components.GrowthComponent;
+import com.darkgran.smc.play.components.Mappers;
+
+public class CorpseSystem extends IteratingSystem {
+    private final LevelStage levelStage;
+
+    public CorpseSystem(LevelStage levelStage, int priority) {
+        super(Family.all(GrowthComponent.class, ActorComponent.class).get(), priority);
+        this.levelStage = levelStage;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        if (Mappers.GROWTH.get(entity).gone) {
+            levelStage.getWorldScreen().getCorpses().enqueue(((CircleActor) Mappers.ACTOR.get(entity).actor).getHandle());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.darkgran.smc.play.components.GrowthComponent;
+import com.darkgran.smc.play.components.LockComponent;
+import com.darkgran.smc.play.components.Mappers;
+
+public class LockSystem extends IteratingSystem {
+
+    public LockSystem(int priority) {
+        super(Family.all(LockComponent.class, GrowthComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        if (!Mappers.GROWTH.get(entity).gone) {
+            LockComponent lock = Mappers.LOCK.get(entity);
+            lock.interactionLock.update();
+            lock.breakLock.update();
+        }
+    }
+}
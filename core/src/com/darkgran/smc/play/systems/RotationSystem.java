@@ -0,0 +1,42 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.BodyMutations;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.PhysicsComponent;
+import com.darkgran.smc.play.components.RotationComponent;
+
+public class RotationSystem extends IteratingSystem {
+    private final BodyMutations mutations;
+
+    public RotationSystem(int priority, BodyMutations mutations) {
+        super(Family.all(PhysicsComponent.class, RotationComponent.class).get(), priority);
+        this.mutations = mutations;
+    }
+
+    @Override
+    public boolean checkProcessing() {
+        return getEntities().size() > 0;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        Body body = Mappers.PHYSICS.get(entity).body;
+        float targetAngle = Mappers.ROTATION.get(entity).targetAngle;
+        if (!closeEnough(body.getAngle(), targetAngle)) {
+            mutations.setAngularVelocity(body, -1f);
+        } else {
+            mutations.setAngularVelocity(body, 0f);
+            mutations.setTransform(body, body.getPosition().x, body.getPosition().y, targetAngle);
+        }
+    }
+
+    public static boolean closeEnough(float angle, float targetAngle) {
+        double maxDif = WorldScreen.DEGREES_TO_RADIANS;
+        return angle >= targetAngle-maxDif && angle <= targetAngle+maxDif;
+    }
+}
@@ -0,0 +1,43 @@
+package com.darkgran.smc.play.systems;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.BodyAccess;
+import com.darkgran.smc.play.BodyReadback;
+import com.darkgran.smc.play.components.Mappers;
+import com.darkgran.smc.play.components.PhysicsComponent;
+import com.darkgran.smc.play.components.SpriteComponent;
+import com.darkgran.smc.play.components.StaticComponent;
+
+public class SpriteSyncSystem extends IteratingSystem { //static sprites are synced once on creation
+    private final BodyReadback readback;
+
+    public SpriteSyncSystem(int priority, BodyReadback readback) {
+        super(Family.all(PhysicsComponent.class, SpriteComponent.class).exclude(StaticComponent.class).get(), priority);
+        this.readback = readback;
+    }
+
+    @Override
+    public boolean checkProcessing() {
+        return getEntities().size() > 0;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PhysicsComponent physics = Mappers.PHYSICS.get(entity);
+        sync(Mappers.SPRITE.get(entity).sprite, readback.getX(physics), readback.getY(physics), readback.getAngle(physics));
+    }
+
+    public static void sync(Sprite sprite, Body body) {
+        sync(sprite, BodyAccess.getPosition(body).x, BodyAccess.getPosition(body).y, body.getAngle());
+    }
+
+    private static void sync(Sprite sprite, float x, float y, float angle) {
+        sprite.setPosition(x*WorldScreen.PPM-sprite.getWidth()/2, y*WorldScreen.PPM-sprite.getHeight()/2);
+        sprite.setRotation((float) (angle / WorldScreen.DEGREES_TO_RADIANS));
+    }
+}
@@ -0,0 +1,79 @@
+package com.darkgran.smc.desktop;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.darkgran.smc.play.LevelInfo;
+import com.darkgran.smc.play.LevelLibrary;
+import com.darkgran.smc.play.env.BotLink;
+import com.darkgran.smc.play.env.BotLinkClient;
+import com.darkgran.smc.play.env.EnvSession;
+import com.darkgran.smc.play.env.VectorEnv;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+public class BotServer { //headless game behind a BotLink (args: level id, link file, steps, --stand-in for the bundled client; run from core/assets)
+	private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+	public static void main (String[] arg) throws Exception {
+		int levelId = arg.length > 0 ? Integer.parseInt(arg[0]) : 1;
+		final File path = new File(arg.length > 1 ? arg[1] : "smc-bot.link");
+		int steps = arg.length > 2 ? Integer.parseInt(arg[2]) : 100000;
+		boolean standIn = arg.length > 3 && arg[3].equals("--stand-in");
+		String json = new String(Files.readAllBytes(Paths.get("content/levels.json")), StandardCharsets.UTF_8);
+		LevelInfo level = LevelLibrary.findLevel(LevelLibrary.parse(json), levelId);
+		if (level == null) {
+			System.out.println("No level " + levelId);
+			return;
+		}
+		Box2D.init();
+		EnvSession session = new EnvSession(VectorEnv.STEP_TIME, VectorEnv.VELOCITY_ITERATIONS, VectorEnv.POSITION_ITERATIONS);
+		session.load(level);
+		BotLink link = new BotLink(path, 64, 16);
+		if (standIn) {
+			Thread client = new Thread(() -> runStandIn(path), "bot-stand-in");
+			client.setDaemon(true);
+			client.start();
+		}
+		long waited = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < steps; i++) {
+			if (session.isCompleted()) {
+				session.reset();
+			}
+			link.publish(session);
+			long before = System.nanoTime();
+			if (!link.awaitAction(TIMEOUT)) {
+				System.out.println("Bot Link: no answer for step " + link.getSequence());
+				break;
+			}
+			waited += System.nanoTime() - before;
+			link.applyAction(session);
+			session.step();
+		}
+		long total = System.nanoTime() - start;
+		System.out.printf("%d steps, %.2f us/step total, %.2f us/step round-trip%n", link.getSequence(), total / 1000.0 / link.getSequence(), waited / 1000.0 / link.getSequence());
+		link.close();
+		session.dispose();
+	}
+
+	private static void runStandIn(File path) { //random pointer: places the player circle somewhere, removes it after a while
+		try {
+			BotLinkClient client = new BotLinkClient(path);
+			java.util.Random random = new java.util.Random(1);
+			while (client.awaitObservation(TIMEOUT)) {
+				if (client.getStep() % 120 == 0) {
+					client.act(client.hasPlayerCircle() ? EnvSession.ACTION_REMOVE : EnvSession.ACTION_PLACE, 0, random.nextFloat() * 9.6f, random.nextFloat() * 4.8f);
+				} else {
+					client.act(EnvSession.ACTION_NONE, 0, 0, 0);
+				}
+			}
+			client.close();
+		} catch (IOException e) {
+			System.out.println("Bot Link Client Error: " + e.getMessage());
+		}
+	}
+}
@@ -3,10 +3,14 @@ package com.darkgran.smc.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.darkgran.smc.SaveMeCircles;
+import com.darkgran.smc.play.LevelWatcher;
 
 public class DesktopLauncher {
 	public static void main (String[] arg) {
 		//System.setProperty("org.lwjgl.opengl.Window.undecorated", "true");
+		for (String a : arg) {
+			if (a.equals("--hot-reload")) { System.setProperty(LevelWatcher.HOT_RELOAD_PROPERTY, "true"); }
+		}
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.title = "SMC";
 		config.width = 1920; //1600
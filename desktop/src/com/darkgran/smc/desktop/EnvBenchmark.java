@@ -0,0 +1,38 @@
+package com.darkgran.smc.desktop;
+
+import com.darkgran.smc.play.LevelInfo;
+import com.darkgran.smc.play.LevelLibrary;
+import com.darkgran.smc.play.env.VectorEnv;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class EnvBenchmark { //headless: env-steps per second of VectorEnv for 1..N threads (args: level id, envs, steps; run from core/assets)
+	public static void main (String[] arg) throws IOException {
+		int levelId = arg.length > 0 ? Integer.parseInt(arg[0]) : 1;
+		int envs = arg.length > 1 ? Integer.parseInt(arg[1]) : 256;
+		int steps = arg.length > 2 ? Integer.parseInt(arg[2]) : 600;
+		String json = new String(Files.readAllBytes(Paths.get("content/levels.json")), StandardCharsets.UTF_8);
+		LevelInfo level = LevelLibrary.findLevel(LevelLibrary.parse(json), levelId);
+		if (level == null) {
+			System.out.println("No level " + levelId);
+			return;
+		}
+		int cores = Runtime.getRuntime().availableProcessors();
+		double single = 0;
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			VectorEnv env = new VectorEnv(level, envs, 64, Integer.MAX_VALUE, threads);
+			for (int i = 0; i < 60; i++) { env.step(); } //warm-up
+			long start = System.nanoTime();
+			for (int i = 0; i < steps; i++) {
+				env.step();
+			}
+			double rate = (double) envs * steps / ((System.nanoTime() - start) / 1e9);
+			if (threads == 1) { single = rate; }
+			System.out.printf("threads=%d  %.0f env-steps/s  scaling=%.2fx%n", threads, rate, rate / single);
+			env.dispose();
+		}
+	}
+}
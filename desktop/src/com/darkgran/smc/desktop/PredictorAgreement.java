@@ -0,0 +1,129 @@
+package com.darkgran.smc.desktop;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.darkgran.smc.NativeTracker;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.*;
+import com.darkgran.smc.play.env.EnvSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class PredictorAgreement { //headless: starts every level (walls, beams, switches, rotatables & a player circle, once as loaded and once with the switches clicked) in EnvSession, plays it with Box2D at full quality and predicts it with AnalyticPredictor on a copy made by SimulationManager, then compares the dots up to the handover; exits 1 when a run is off by more than the tolerance (args: horizon, tolerance in meters; run from core/assets)
+	private static final float STEP_TIME = 1/60f;
+	private static final int SAMPLE_EVERY = 10;
+
+	public static void main (String[] arg) throws IOException {
+		int horizon = arg.length > 0 ? Integer.parseInt(arg[0]) : AnalyticPredictor.DEFAULT_HORIZON;
+		float tolerance = arg.length > 1 ? Float.parseFloat(arg[1]) : 0.05f;
+		String json = new String(Files.readAllBytes(Paths.get("content/levels.json")), StandardCharsets.UTF_8);
+		Array<LevelInfo> levels = LevelLibrary.parse(json);
+		Box2D.init();
+		World.setVelocityThreshold(0.1f); //as WorldScreen
+		SimulationManager simulation = new SimulationManager(null, NativeTracker.newWorld(new Vector2(0, 0), false), new PhysicsGovernor(0, 0), STEP_TIME); //only its copy of the world is used here, no screen
+		AnalyticPredictor predictor = new AnalyticPredictor(STEP_TIME);
+		int runs = 0;
+		int agreed = 0;
+		int analytic = 0;
+		for (LevelInfo level : levels) {
+			for (int variant = 0; variant < (hasPlainSwitches(level) ? 2 : 1); variant++) {
+				//Box2D
+				EnvSession reference = open(level, variant == 1);
+				int circles = reference.getCircleCount();
+				float[] rows = new float[circles*EnvSession.OBS_FIELDS];
+				float[] expected = new float[(horizon/SAMPLE_EVERY+1)*circles*2];
+				long start = System.nanoTime();
+				for (int i = 0; i <= horizon; i++) {
+					if (i % SAMPLE_EVERY == 0) {
+						reference.observe(rows, 0, circles); //indices hold until the first merge or break, i.e. up to the handover
+						for (int c = 0; c < circles; c++) {
+							expected[i/SAMPLE_EVERY*circles*2 + c*2] = rows[c*EnvSession.OBS_FIELDS];
+							expected[i/SAMPLE_EVERY*circles*2 + c*2+1] = rows[c*EnvSession.OBS_FIELDS+1];
+						}
+					}
+					reference.step();
+				}
+				long box2dNanos = System.nanoTime() - start;
+				//Analytic, on the game's copy of the world
+				EnvSession live = open(level, variant == 1);
+				start = System.nanoTime();
+				simulation.resetSimulation(live.getWorld(), new BodyReadback(), live.getCircles());
+				boolean free = predictor.load(simulation.getWorld(), simulation.getShadows());
+				int handover = free ? predictor.run(horizon, SAMPLE_EVERY) : 0;
+				long analyticNanos = System.nanoTime() - start;
+				int[] source = sourceIndices(simulation.getShadows(), live.getCircles());
+				//Compare
+				FloatArray samples = predictor.getSamples();
+				float maxError = 0;
+				float sumError = 0;
+				for (int s = 0; s < samples.size; s += 4) {
+					int row = (int) samples.get(s)/SAMPLE_EVERY*circles*2 + source[(int) samples.get(s+1)]*2;
+					float dx = samples.get(s+2) - expected[row];
+					float dy = samples.get(s+3) - expected[row+1];
+					float error = (float) Math.sqrt(dx*dx + dy*dy);
+					maxError = Math.max(maxError, error);
+					sumError += error;
+				}
+				boolean agrees = maxError <= tolerance;
+				runs++;
+				if (agrees) { agreed++; }
+				if (handover > 0) { analytic++; }
+				System.out.println("level " + level.getId() + (variant == 1 ? " switched" : "") + (live.hasPlayerCircle() ? "" : " (no player circle)") + ": "
+					+ (free ? "analytic to step " + Math.min(handover, horizon) + (handover > horizon ? " (all)" : " (then Box2D)") + ", " + predictor.getEvents() + " events" : "not free flight, Box2D from step 0")
+					+ ", max error " + maxError + " m, mean " + (samples.size == 0 ? 0 : sumError / (samples.size/4)) + " m" + (agrees ? "" : " DIFFERS")
+					+ ", Box2D " + box2dNanos/1000 + " us, analytic " + analyticNanos/1000 + " us");
+				live.dispose();
+				reference.dispose();
+			}
+		}
+		simulation.dispose();
+		System.out.println(agreed + "/" + runs + " runs within " + tolerance + " m, " + analytic + " start analytic");
+		if (agreed < runs) {
+			System.exit(1);
+		}
+	}
+
+	private static EnvSession open(LevelInfo level, boolean switched) { //the level with a player circle mid-screen (a static circle, left out if a circle is there) and optionally every plain switch clicked once
+		EnvSession session = new EnvSession(STEP_TIME, PhysicsGovernor.LADDER[0][0], PhysicsGovernor.LADDER[0][1]);
+		session.load(level);
+		session.act(EnvSession.ACTION_PLACE, 0, WorldScreen.WORLD_WIDTH/2, WorldScreen.WORLD_HEIGHT/2);
+		if (switched) {
+			for (int s = 0; s < level.getSwitches().size(); s++) {
+				if (isPlain(level.getSwitches().get(s))) {
+					session.act(EnvSession.ACTION_SWITCH, s, 0, 0);
+				}
+			}
+		}
+		return session;
+	}
+
+	private static boolean hasPlainSwitches(LevelInfo level) {
+		for (SwitchInfo info : level.getSwitches()) {
+			if (isPlain(info)) { return true; }
+		}
+		return false;
+	}
+
+	private static boolean isPlain(SwitchInfo info) { //beams only: a turning rotatable's spin isn't in the copy (the game's prediction reads it from RotatableChainObject)
+		return info.getSwitchType() != SwitchType.ACTIVATOR || info.getRotatables().length == 0;
+	}
+
+	private static int[] sourceIndices(ShadowCircles copies, ShadowCircles sources) { //copy index -> EnvSession index: the copies start where their sources are
+		int[] source = new int[copies.getCount()];
+		for (int i = 0; i < copies.getCount(); i++) {
+			Vector2 position = copies.getBody(i).getPosition();
+			for (int j = 0; j < sources.getCount(); j++) {
+				if (sources.getBody(j).getPosition().epsilonEquals(position, 0)) {
+					source[i] = j;
+					break;
+				}
+			}
+		}
+		return source;
+	}
+}
@@ -0,0 +1,95 @@
+package com.darkgran.smc.desktop;
+
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+import com.darkgran.smc.WorldScreen;
+import com.darkgran.smc.play.LevelInfo;
+import com.darkgran.smc.play.LevelLibrary;
+import com.darkgran.smc.play.PhysicsGovernor;
+import com.darkgran.smc.play.env.EnvSession;
+import com.darkgran.smc.play.env.VectorEnv;
+import com.darkgran.smc.play.events.GameEvent;
+import com.darkgran.smc.play.events.GameEventBus;
+import com.darkgran.smc.play.events.GameEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class QualityHarness { //headless: plays every level at each PhysicsGovernor rung with the same scripted input and compares merge/split sequences with rung 0 (args: steps, step tolerance; run from core/assets)
+	public static void main (String[] arg) throws IOException {
+		int steps = arg.length > 0 ? Integer.parseInt(arg[0]) : 1800;
+		int tolerance = arg.length > 1 ? Integer.parseInt(arg[1]) : 3; //an event may land this many steps off and still count as the same
+		String json = new String(Files.readAllBytes(Paths.get("content/levels.json")), StandardCharsets.UTF_8);
+		Array<LevelInfo> levels = LevelLibrary.parse(json);
+		Box2D.init();
+		int safeRung = PhysicsGovernor.LOWEST;
+		for (LevelInfo level : levels) {
+			LongArray reference = play(level, 0, steps);
+			StringBuilder line = new StringBuilder("level " + level.getId() + ": " + reference.size + " events");
+			for (int rung = 1; rung <= PhysicsGovernor.LOWEST; rung++) {
+				LongArray events = play(level, rung, steps);
+				int diverged = firstDivergence(reference, events, tolerance);
+				line.append("  ").append(PhysicsGovernor.LADDER[rung][0]).append('/').append(PhysicsGovernor.LADDER[rung][1]);
+				if (diverged < 0) {
+					line.append(" same");
+				} else {
+					line.append(" differs at #").append(diverged).append(" (").append(describe(reference, diverged)).append(" vs ").append(describe(events, diverged)).append(')');
+					safeRung = Math.min(safeRung, rung-1);
+				}
+			}
+			System.out.println(line);
+		}
+		System.out.println("lowest rung with the same merges & splits everywhere: " + safeRung + " (" + PhysicsGovernor.LADDER[safeRung][0] + "/" + PhysicsGovernor.LADDER[safeRung][1] + "), use -Dsmc.liveMinRung=" + safeRung);
+	}
+
+	private static LongArray play(LevelInfo level, int rung, int steps) { //events packed as step << 16 | type << 8 | color
+		final LongArray events = new LongArray();
+		GameEventBus bus = new GameEventBus();
+		bus.subscribe(new GameEventListener() {
+			@Override
+			public void onEvent(GameEvent event) {
+				events.add(event.step << 16 | event.type.ordinal() << 8 | (event.colorType == null ? 0xFF : event.colorType.ordinal()));
+			}
+		});
+		EnvSession session = new EnvSession(VectorEnv.STEP_TIME, PhysicsGovernor.LADDER[rung][0], PhysicsGovernor.LADDER[rung][1]);
+		session.setEventBus(bus);
+		session.load(level);
+		Random script = new Random(level.getId()); //same input on every rung (as long as the circles stay the same)
+		for (int i = 0; i < steps && !session.isCompleted(); i++) {
+			if (i % 20 == 0) {
+				int roll = script.nextInt(10);
+				if (roll < 5 && session.getCircleCount() > 0) {
+					session.act(EnvSession.ACTION_GROW, script.nextInt(session.getCircleCount()), 0, 0);
+				} else if (roll < 7) {
+					session.act(session.hasPlayerCircle() ? EnvSession.ACTION_REMOVE : EnvSession.ACTION_PLACE, 0, script.nextFloat()*WorldScreen.WORLD_WIDTH, script.nextFloat()*WorldScreen.WORLD_HEIGHT);
+				} else if (roll < 8 && session.getSwitchCount() > 0) {
+					session.act(EnvSession.ACTION_SWITCH, script.nextInt(session.getSwitchCount()), 0, 0);
+				}
+			}
+			session.step();
+		}
+		session.dispose();
+		return events;
+	}
+
+	private static int firstDivergence(LongArray reference, LongArray events, int tolerance) { //-1 when every event matches in order (type & color exact, step within tolerance)
+		for (int i = 0; i < Math.min(reference.size, events.size); i++) {
+			long a = reference.get(i);
+			long b = events.get(i);
+			if ((a & 0xFFFF) != (b & 0xFFFF) || Math.abs((a >> 16) - (b >> 16)) > tolerance) {
+				return i;
+			}
+		}
+		return reference.size == events.size ? -1 : Math.min(reference.size, events.size);
+	}
+
+	private static String describe(LongArray events, int i) {
+		if (i >= events.size) { return "none"; }
+		long event = events.get(i);
+		return "step " + (event >> 16) + " type " + ((event >> 8) & 0xFF) + " color " + (event & 0xFF);
+	}
+}